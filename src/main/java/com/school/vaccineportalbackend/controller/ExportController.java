@@ -1,89 +1,158 @@
 package com.school.vaccineportalbackend.controller;
 
+import com.school.vaccineportalbackend.dto.ExportJobStatus;
+import com.school.vaccineportalbackend.exception.RangeNotSatisfiableException;
+import com.school.vaccineportalbackend.exception.ResourceNotFoundException;
+import com.school.vaccineportalbackend.service.ExportCache;
+import com.school.vaccineportalbackend.service.ExportJobService;
 import com.school.vaccineportalbackend.service.ExportService;
-import com.school.vaccineportalbackend.exception.ExportException;
+import com.school.vaccineportalbackend.util.ByteRange;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/exports")
 @CrossOrigin(origins = "*")
 public class ExportController {
     private final ExportService exportService;
+    private final ExportJobService exportJobService;
+    private final ExportCache exportCache;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
-    private static final int MAX_EXPORT_SIZE_MB = 10; // Maximum export size in MB
 
     @Autowired
-    public ExportController(ExportService exportService) {
+    public ExportController(ExportService exportService, ExportJobService exportJobService, ExportCache exportCache) {
         this.exportService = exportService;
+        this.exportJobService = exportJobService;
+        this.exportCache = exportCache;
     }
 
     @GetMapping("/csv")
-    public ResponseEntity<ByteArrayResource> exportToCsv(@RequestParam Map<String, String> filters) {
-        try {
-            validateFilters(filters);
-            byte[] csvData = exportService.exportToCsv(filters);
-            
-            // Check file size
-            if (csvData.length > MAX_EXPORT_SIZE_MB * 1024 * 1024) {
-                throw new ExportException("Export data too large. Please apply more filters to reduce the result set.");
-            }
-            
-            String filename = "vaccination_records_" + LocalDateTime.now().format(DATE_FORMATTER) + ".csv";
-            ByteArrayResource resource = new ByteArrayResource(csvData);
-            
-            return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .contentLength(csvData.length)
-                .body(resource);
-        } catch (DateTimeParseException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date format. Please use YYYY-MM-DD format.");
-        } catch (ExportException e) {
-            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
-        } catch (IOException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to generate CSV export.");
+    public ResponseEntity<StreamingResponseBody> exportToCsv(
+            @RequestParam Map<String, String> filters,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        validateFilters(filters);
+        ExportCache.Key key = exportCache.key(filters, "csv");
+        if (exportCache.isNotModified(key, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(key.etag()).build();
         }
+        // Rows are written to the response as they are read, so there is no size limit
+        StreamingResponseBody csvData = out -> exportCache.write(key, out, o -> exportService.exportToCsv(filters, o));
+
+        String filename = "vaccination_records_" + LocalDateTime.now().format(DATE_FORMATTER) + ".csv";
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+            .eTag(key.etag())
+            .contentType(MediaType.parseMediaType("text/csv"))
+            .body(csvData);
     }
 
     @GetMapping("/pdf")
-    public ResponseEntity<ByteArrayResource> exportToPdf(@RequestParam Map<String, String> filters) {
+    public ResponseEntity<StreamingResponseBody> exportToPdf(
+            @RequestParam Map<String, String> filters,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        validateFilters(filters);
+        ExportCache.Key key = exportCache.key(filters, "pdf");
+        if (exportCache.isNotModified(key, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(key.etag()).build();
+        }
+        // Pages are written as the table fills them, so there is no size limit either
+        StreamingResponseBody pdfData = out -> exportCache.write(key, out, o -> exportService.exportToPdf(filters, o));
+
+        String filename = "vaccination_records_" + LocalDateTime.now().format(DATE_FORMATTER) + ".pdf";
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+            .eTag(key.etag())
+            .contentType(MediaType.APPLICATION_PDF)
+            .body(pdfData);
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getExportCacheStats() {
+        return ResponseEntity.ok(exportCache.getStats());
+    }
+
+    /**
+     * Queues an export with the same filters as the synchronous endpoints. Poll the
+     * returned job, then fetch it from {@code /jobs/{jobId}/download}.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ExportJobStatus> submitExportJob(@RequestParam Map<String, String> params) {
+        Map<String, String> filters = new HashMap<>(params);
+        String format = filters.remove("format");
+        format = format == null ? "csv" : format.toLowerCase(Locale.ROOT);
+        if (!format.equals("csv") && !format.equals("pdf")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid format. Must be csv or pdf");
+        }
+        validateFilters(filters);
+
         try {
-            validateFilters(filters);
-            byte[] pdfData = exportService.exportToPdf(filters);
-            
-            // Check file size
-            if (pdfData.length > MAX_EXPORT_SIZE_MB * 1024 * 1024) {
-                throw new ExportException("Export data too large. Please apply more filters to reduce the result set.");
-            }
-            
-            String filename = "vaccination_records_" + LocalDateTime.now().format(DATE_FORMATTER) + ".pdf";
-            ByteArrayResource resource = new ByteArrayResource(pdfData);
-            
-            return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                .contentType(MediaType.APPLICATION_PDF)
-                .contentLength(pdfData.length)
-                .body(resource);
-        } catch (DateTimeParseException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date format. Please use YYYY-MM-DD format.");
-        } catch (ExportException e) {
-            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
-        } catch (IOException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to generate PDF export.");
+            ExportJobStatus job = exportJobService.submit(filters, format);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/exports/jobs/" + job.getJobId()))
+                .body(job);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports in progress, please retry later");
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ExportJobStatus> getExportJob(@PathVariable String jobId) {
+        return exportJobService.getStatus(jobId)
+            .map(ResponseEntity::ok)
+            .orElseThrow(() -> new ResourceNotFoundException("Export job not found"));
+    }
+
+    /**
+     * Serves a finished export. A single {@code Range} is answered with 206 so an
+     * interrupted download can resume; a range past the end gets 416.
+     */
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<StreamingResponseBody> downloadExportJob(
+            @PathVariable String jobId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader) {
+        ExportJobStatus job = exportJobService.getStatus(jobId)
+            .orElseThrow(() -> new ResourceNotFoundException("Export job not found"));
+        ExportJobService.ExportFile file = exportJobService.getFile(jobId).orElseThrow(() -> switch (job.getState()) {
+            case "EXPIRED" -> new ResponseStatusException(HttpStatus.GONE, "Export has expired, please submit it again");
+            case "FAILED" -> new ResponseStatusException(HttpStatus.CONFLICT, "Export failed: " + job.getError());
+            default -> new ResponseStatusException(HttpStatus.CONFLICT, "Export is not finished yet");
+        });
+
+        ByteRange range;
+        try {
+            range = ByteRange.parse(rangeHeader, file.size());
+        } catch (RangeNotSatisfiableException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size())
+                .build();
+        }
+        long start = range == null ? 0 : range.start();
+        long length = range == null ? file.size() : range.length();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(range == null ? HttpStatus.OK : HttpStatus.PARTIAL_CONTENT)
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + file.fileName())
+            .contentType(file.mediaType())
+            .contentLength(length);
+        if (range != null) {
+            response.header(HttpHeaders.CONTENT_RANGE, range.contentRange(file.size()));
         }
+        return response.body(out -> exportJobService.transfer(file, start, length, out));
     }
 
     private void validateFilters(Map<String, String> filters) {
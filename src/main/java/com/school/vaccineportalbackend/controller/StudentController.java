@@ -1,11 +1,22 @@
 package com.school.vaccineportalbackend.controller;
 
+import com.school.vaccineportalbackend.dto.BulkDeactivateRequest;
+import com.school.vaccineportalbackend.dto.BulkOperationResult;
+import com.school.vaccineportalbackend.dto.BulkPatchRequest;
+import com.school.vaccineportalbackend.dto.CursorPage;
+import com.school.vaccineportalbackend.dto.ImportDedupeMode;
+import com.school.vaccineportalbackend.dto.ImportJobStatus;
 import com.school.vaccineportalbackend.dto.ImportResult;
+import com.school.vaccineportalbackend.dto.PromoteGradeRequest;
 import com.school.vaccineportalbackend.dto.StudentDTO;
+import com.school.vaccineportalbackend.dto.StudentProfileDTO;
 import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.service.StudentBulkService;
+import com.school.vaccineportalbackend.service.StudentImportJobService;
 import com.school.vaccineportalbackend.service.StudentService;
 import com.school.vaccineportalbackend.exception.ResourceNotFoundException;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -23,8 +34,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/students")
@@ -36,6 +51,12 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentImportJobService studentImportJobService;
+
+    @Autowired
+    private StudentBulkService studentBulkService;
+
     @GetMapping
     public ResponseEntity<Page<StudentDTO>> getAllStudents(
             @RequestParam(defaultValue = "0") @Min(0) int page,
@@ -54,6 +75,18 @@ public class StudentController {
         return ResponseEntity.ok(students);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<StudentDTO>> getStudentsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam @Min(1) @Max(1000) int limit) {
+        logger.info("Getting students with keyset pagination - after: {}, limit: {}", after, limit);
+        try {
+            return ResponseEntity.ok(studentService.getStudentsAfter(after, limit));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @GetMapping("/{studentId}")
     public ResponseEntity<StudentDTO> getStudentById(@PathVariable String studentId) {
         logger.info("Getting student by ID: {}", studentId);
@@ -65,6 +98,17 @@ public class StudentController {
                 });
     }
 
+    @GetMapping("/{studentId}/profile")
+    public ResponseEntity<StudentProfileDTO> getStudentProfile(@PathVariable String studentId) {
+        logger.info("Getting profile for student ID: {}", studentId);
+        return studentService.getStudentProfile(studentId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> {
+                    logger.error("Student not found with ID: {}", studentId);
+                    return new ResourceNotFoundException("Student not found");
+                });
+    }
+
     @GetMapping("/grade/{grade}")
     public ResponseEntity<Page<StudentDTO>> getStudentsByGrade(
             @PathVariable @NotBlank @Pattern(regexp = "^[0-9]{1,2}$", message = "Grade must be a number between 1 and 12") 
@@ -91,6 +135,11 @@ public class StudentController {
         return ResponseEntity.ok(studentService.searchStudents(name, grade, pageRequest));
     }
 
+    @GetMapping("/search/index")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        return ResponseEntity.ok(studentService.getNameIndexStats());
+    }
+
     @PostMapping
     public ResponseEntity<StudentDTO> createStudent(@Valid @RequestBody Student student) {
         logger.info("Creating new student: {}", student.getName());
@@ -122,9 +171,40 @@ public class StudentController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/bulk/promote")
+    public ResponseEntity<BulkOperationResult> promoteGrade(@Valid @RequestBody PromoteGradeRequest request) {
+        logger.info("Bulk promoting grade {} to {}", request.getFromGrade(), request.getToGrade());
+        try {
+            return ResponseEntity.ok(studentBulkService.promoteGrade(request));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/bulk/deactivate")
+    public ResponseEntity<BulkOperationResult> deactivateStudents(@RequestBody BulkDeactivateRequest request) {
+        logger.info("Bulk deactivating students");
+        try {
+            return ResponseEntity.ok(studentBulkService.deactivate(request));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<BulkOperationResult> patchStudents(@Valid @RequestBody BulkPatchRequest request) {
+        logger.info("Bulk patching field {} on {} students", request.getField(), request.getStudentIds().size());
+        try {
+            return ResponseEntity.ok(studentBulkService.patch(request));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @PostMapping("/import")
     public ResponseEntity<ImportResult> importStudents(
-            @RequestParam("file") MultipartFile file) {
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "NONE") ImportDedupeMode dedupe) {
         if (file.isEmpty()) {
             ImportResult result = new ImportResult();
             result.setErrors(List.of("Please select a file to upload"));
@@ -137,13 +217,50 @@ public class StudentController {
             return ResponseEntity.badRequest().body(result);
         }
         
-        ImportResult result = studentService.importStudentsFromCSV(file);
+        ImportResult result = studentService.importStudentsFromCSV(file, dedupe);
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/roll-numbers")
+    public ResponseEntity<Map<String, Object>> getRollNumberAllocation() {
+        return ResponseEntity.ok(studentService.getRollNumberAllocation());
+    }
+
+    @PostMapping("/import/async")
+    public ResponseEntity<ImportJobStatus> submitImportJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "NONE") ImportDedupeMode dedupe) {
+        if (file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Please select a file to upload");
+        }
+        
+        if (!file.getOriginalFilename().toLowerCase().endsWith(".csv")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only CSV files are supported");
+        }
+        
+        try {
+            ImportJobStatus job = studentImportJobService.submit(file, dedupe);
+            logger.info("Accepted student import job: {}", job.getJobId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many imports in progress, please retry later");
+        } catch (IOException e) {
+            logger.error("Failed to spool import file", e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to store uploaded file");
+        }
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportJob(@PathVariable String jobId) {
+        return studentImportJobService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found"));
+    }
+
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportStudents() {
-        byte[] csvData = studentService.exportStudentsToCSV();
+    public ResponseEntity<StreamingResponseBody> exportStudents() {
+        // Rows are written to the response as they are read from the database
+        StreamingResponseBody csvData = studentService::exportStudentsToCSV;
         
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("text/csv"));
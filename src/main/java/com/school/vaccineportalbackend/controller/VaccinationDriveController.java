@@ -1,11 +1,12 @@
 package com.school.vaccineportalbackend.controller;
 
 import com.school.vaccineportalbackend.dto.VaccinationDriveDTO;
-import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.dto.VaccinationRecordView;
 import com.school.vaccineportalbackend.model.VaccinationDrive;
 import com.school.vaccineportalbackend.model.Vaccine;
 import com.school.vaccineportalbackend.service.VaccinationDriveService;
 import com.school.vaccineportalbackend.service.ExportService;
+import com.school.vaccineportalbackend.util.ETags;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -21,7 +22,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.HttpStatus;
@@ -64,7 +65,8 @@ public class VaccinationDriveController {
     @GetMapping("/{id}")
     public ResponseEntity<VaccinationDriveDTO> getDriveById(@PathVariable Long id) {
         logger.info("Getting vaccination drive by ID: {}", id);
-        return ResponseEntity.ok(vaccinationDriveService.getDriveById(id));
+        VaccinationDriveDTO drive = vaccinationDriveService.getDriveById(id);
+        return ResponseEntity.ok().eTag(ETags.of(drive.getVersion())).body(drive);
     }
 
     @GetMapping("/upcoming")
@@ -103,7 +105,7 @@ public class VaccinationDriveController {
     }
 
     @GetMapping("/{driveId}/records")
-    public ResponseEntity<Page<VaccinationRecordDTO>> getVaccinationRecordsForDrive(
+    public ResponseEntity<Page<VaccinationRecordView>> getVaccinationRecordsForDrive(
             @PathVariable @NotNull Long driveId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -146,6 +148,7 @@ public class VaccinationDriveController {
     @PutMapping("/{id}")
     public ResponseEntity<VaccinationDriveDTO> updateDrive(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody VaccinationDriveDTO driveDTO) {
         logger.info("Updating vaccination drive with ID: {}", id);
         VaccinationDrive drive = new VaccinationDrive();
@@ -159,8 +162,10 @@ public class VaccinationDriveController {
         drive.setActive(driveDTO.isActive());
         drive.setVaccineBatch(driveDTO.getVaccineBatch());
         
-        VaccinationDrive updatedDrive = vaccinationDriveService.updateDrive(id, drive);
-        return ResponseEntity.ok(vaccinationDriveService.convertToDTO(updatedDrive));
+        VaccinationDrive updatedDrive = vaccinationDriveService.updateDrive(id, drive, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ETags.of(updatedDrive.getVersion()))
+                .body(vaccinationDriveService.convertToDTO(updatedDrive));
     }
 
     @DeleteMapping("/{id}")
@@ -171,7 +176,7 @@ public class VaccinationDriveController {
     }
 
     @GetMapping("/export")
-    public ResponseEntity<ByteArrayResource> exportDrives(
+    public ResponseEntity<StreamingResponseBody> exportDrives(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String grade,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -179,35 +184,35 @@ public class VaccinationDriveController {
             @RequestParam(defaultValue = "csv") String format) {
         logger.info("Exporting vaccination drives with filters - status: {}, grade: {}, startDate: {}, endDate: {}, format: {}", 
             status, grade, startDate, endDate, format);
-        try {
-            Map<String, String> filters = new HashMap<>();
-            if (status != null) filters.put("status", status);
-            if (grade != null) filters.put("grade", grade);
-            if (startDate != null) filters.put("startDate", startDate.toString());
-            if (endDate != null) filters.put("endDate", endDate.toString());
+        Map<String, String> filters = new HashMap<>();
+        if (status != null) filters.put("status", status);
+        if (grade != null) filters.put("grade", grade);
+        if (startDate != null) filters.put("startDate", startDate.toString());
+        if (endDate != null) filters.put("endDate", endDate.toString());
 
-            byte[] exportData;
-            String filename;
-            MediaType mediaType;
+        StreamingResponseBody exportData;
+        String filename;
+        MediaType mediaType;
 
-            if ("pdf".equalsIgnoreCase(format)) {
-                exportData = exportService.exportDrivesToPdf(filters);
-                filename = "vaccination_drives_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
-                mediaType = MediaType.APPLICATION_PDF;
-            } else {
-                exportData = exportService.exportDrivesToCsv(filters);
-                filename = "vaccination_drives_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
-                mediaType = MediaType.parseMediaType("text/csv");
+        if ("pdf".equalsIgnoreCase(format)) {
+            exportData = out -> exportService.exportDrivesToPdf(filters, out);
+            filename = "vaccination_drives_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
+            mediaType = MediaType.APPLICATION_PDF;
+        } else {
+            byte[] csv;
+            try {
+                csv = exportService.exportDrivesToCsv(filters);
+            } catch (Exception e) {
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to generate report: " + e.getMessage());
             }
-
-            ByteArrayResource resource = new ByteArrayResource(exportData);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                    .contentType(mediaType)
-                    .contentLength(exportData.length)
-                    .body(resource);
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to generate report: " + e.getMessage());
+            exportData = out -> out.write(csv);
+            filename = "vaccination_drives_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
+            mediaType = MediaType.parseMediaType("text/csv");
         }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(mediaType)
+                .body(exportData);
     }
 } 
\ No newline at end of file
@@ -1,10 +1,22 @@
 package com.school.vaccineportalbackend.controller;
 
+import com.school.vaccineportalbackend.dto.BulkRecordResult;
+import com.school.vaccineportalbackend.dto.CursorPage;
+import com.school.vaccineportalbackend.dto.SyncRequest;
+import com.school.vaccineportalbackend.dto.SyncResult;
 import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.dto.VaccinationRecordView;
+import com.school.vaccineportalbackend.exception.ConcurrentUpdateException;
+import com.school.vaccineportalbackend.exception.PreconditionFailedException;
 import com.school.vaccineportalbackend.model.VaccinationRecord;
 import com.school.vaccineportalbackend.service.VaccinationRecordService;
+import com.school.vaccineportalbackend.service.ExportCache;
 import com.school.vaccineportalbackend.service.ExportService;
+import com.school.vaccineportalbackend.service.VaccinationRecordBatchService;
+import com.school.vaccineportalbackend.util.ETags;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -18,14 +30,17 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.springframework.http.MediaType;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -42,8 +57,14 @@ public class VaccinationRecordController {
     @Autowired
     private ExportService exportService;
 
+    @Autowired
+    private ExportCache exportCache;
+
+    @Autowired
+    private VaccinationRecordBatchService vaccinationRecordBatchService;
+
     @GetMapping
-    public ResponseEntity<Page<VaccinationRecordDTO>> getAllRecords(
+    public ResponseEntity<Page<VaccinationRecordView>> getAllRecords(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
@@ -54,14 +75,29 @@ public class VaccinationRecordController {
         return ResponseEntity.ok(vaccinationRecordService.getAllRecords(pageRequest));
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<VaccinationRecordView>> getRecordsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam @Min(1) @Max(1000) int limit,
+            @RequestParam(defaultValue = "id") String order) {
+        logger.info("Getting vaccination records with keyset pagination - after: {}, limit: {}, order: {}", 
+            after, limit, order);
+        try {
+            return ResponseEntity.ok(vaccinationRecordService.getRecordsAfter(order, after, limit));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor or order");
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<VaccinationRecordDTO> getRecordById(@PathVariable Long id) {
         logger.info("Getting vaccination record by ID: {}", id);
-        return ResponseEntity.ok(vaccinationRecordService.getRecordById(id));
+        VaccinationRecordDTO record = vaccinationRecordService.getRecordById(id);
+        return ResponseEntity.ok().eTag(ETags.of(record.getVersion())).body(record);
     }
 
     @GetMapping("/student/{studentId}")
-    public ResponseEntity<Page<VaccinationRecordDTO>> getRecordsByStudentId(
+    public ResponseEntity<Page<VaccinationRecordView>> getRecordsByStudentId(
             @PathVariable @NotBlank String studentId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -74,7 +110,7 @@ public class VaccinationRecordController {
     }
 
     @GetMapping("/drive/{driveId}")
-    public ResponseEntity<Page<VaccinationRecordDTO>> getRecordsByDrive(
+    public ResponseEntity<Page<VaccinationRecordView>> getRecordsByDrive(
             @PathVariable @NotNull Long driveId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -87,7 +123,7 @@ public class VaccinationRecordController {
     }
 
     @GetMapping("/student/{studentId}/status/{status}")
-    public ResponseEntity<Page<VaccinationRecordDTO>> getRecordsByStudentAndStatus(
+    public ResponseEntity<Page<VaccinationRecordView>> getRecordsByStudentAndStatus(
             @PathVariable @NotBlank String studentId,
             @PathVariable @NotBlank String status,
             @RequestParam(defaultValue = "0") int page,
@@ -99,7 +135,7 @@ public class VaccinationRecordController {
     }
 
     @GetMapping("/drive/{driveId}/status/{status}")
-    public ResponseEntity<Page<VaccinationRecordDTO>> getRecordsByDriveAndStatus(
+    public ResponseEntity<Page<VaccinationRecordView>> getRecordsByDriveAndStatus(
             @PathVariable @NotNull Long driveId,
             @PathVariable @NotBlank String status,
             @RequestParam(defaultValue = "0") int page,
@@ -111,7 +147,7 @@ public class VaccinationRecordController {
     }
 
     @GetMapping("/date-range")
-    public ResponseEntity<Page<VaccinationRecordDTO>> getRecordsByDateRange(
+    public ResponseEntity<Page<VaccinationRecordView>> getRecordsByDateRange(
             @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(defaultValue = "0") int page,
@@ -131,14 +167,50 @@ public class VaccinationRecordController {
         return ResponseEntity.ok(vaccinationRecordService.createRecord(recordDTO));
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkRecordResult> createRecords(@RequestBody List<VaccinationRecordDTO> records) {
+        logger.info("Bulk creating {} vaccination records", records.size());
+        return ResponseEntity.ok(vaccinationRecordBatchService.ingest(records));
+    }
+
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<BulkRecordResult> createRecordsFromStream(HttpServletRequest request) throws IOException {
+        logger.info("Bulk creating vaccination records from NDJSON stream");
+        return ResponseEntity.ok(vaccinationRecordBatchService.ingest(request.getInputStream()));
+    }
+
+    @PostMapping("/sync")
+    public ResponseEntity<SyncResult> syncRecords(@Valid @RequestBody SyncRequest request) {
+        logger.info("Syncing {} queued vaccination records", request.getItems().size());
+        return ResponseEntity.ok(vaccinationRecordBatchService.sync(request.getItems()));
+    }
+
+    @GetMapping("/sync")
+    public ResponseEntity<CursorPage<VaccinationRecordView>> getSyncedRecords(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "500") @Min(1) @Max(1000) int limit) {
+        logger.info("Getting synced vaccination records - after: {}, limit: {}", after, limit);
+        try {
+            return ResponseEntity.ok(vaccinationRecordBatchService.getSyncedAfter(after, limit));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateRecord(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody VaccinationRecordDTO recordDTO) {
         try {
             logger.info("Updating vaccination record with ID: {}", id);
-            VaccinationRecordDTO updatedRecord = vaccinationRecordService.updateRecord(id, recordDTO);
-            return ResponseEntity.ok(updatedRecord);
+            VaccinationRecordDTO updatedRecord = vaccinationRecordService.updateRecord(
+                id, recordDTO, ETags.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updatedRecord.getVersion())).body(updatedRecord);
+        } catch (PreconditionFailedException | ConcurrentUpdateException e) {
+            // 412 / 409 from the exception's @ResponseStatus rather than a generic 400
+            logger.error("Error updating vaccination record: {}", e.getMessage());
+            throw e;
         } catch (RuntimeException e) {
             logger.error("Error updating vaccination record: {}", e.getMessage());
             Map<String, String> error = new HashMap<>();
@@ -155,7 +227,7 @@ public class VaccinationRecordController {
     }
 
     @GetMapping("/report")
-    public ResponseEntity<Page<VaccinationRecordDTO>> generateVaccinationReport(
+    public ResponseEntity<Page<VaccinationRecordView>> generateVaccinationReport(
             @RequestParam(required = false) String vaccineName,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String grade,
@@ -173,45 +245,49 @@ public class VaccinationRecordController {
     }
 
     @GetMapping("/report/export")
-    public ResponseEntity<ByteArrayResource> exportVaccinationReport(
+    public ResponseEntity<StreamingResponseBody> exportVaccinationReport(
             @RequestParam(required = false) String vaccineName,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String grade,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(defaultValue = "csv") String format) {
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.info("Exporting vaccination report with filters - vaccineName: {}, status: {}, grade: {}, startDate: {}, endDate: {}, format: {}", 
             vaccineName, status, grade, startDate, endDate, format);
-        try {
-            Map<String, String> filters = new HashMap<>();
-            if (vaccineName != null) filters.put("vaccineName", vaccineName);
-            if (status != null) filters.put("status", status);
-            if (grade != null) filters.put("grade", grade);
-            if (startDate != null) filters.put("startDate", startDate.toString());
-            if (endDate != null) filters.put("endDate", endDate.toString());
-
-            byte[] exportData;
-            String filename;
-            MediaType mediaType;
-
-            if ("pdf".equalsIgnoreCase(format)) {
-                exportData = exportService.exportToPdf(filters);
-                filename = "vaccination_report_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
-                mediaType = MediaType.APPLICATION_PDF;
-            } else {
-                exportData = exportService.exportToCsv(filters);
-                filename = "vaccination_report_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".csv";
-                mediaType = MediaType.parseMediaType("text/csv");
-            }
-
-            ByteArrayResource resource = new ByteArrayResource(exportData);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-                    .contentType(mediaType)
-                    .contentLength(exportData.length)
-                    .body(resource);
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to generate report: " + e.getMessage());
+        Map<String, String> filters = new HashMap<>();
+        if (vaccineName != null) filters.put("vaccineName", vaccineName);
+        if (status != null) filters.put("status", status);
+        if (grade != null) filters.put("grade", grade);
+        if (startDate != null) filters.put("startDate", startDate.toString());
+        if (endDate != null) filters.put("endDate", endDate.toString());
+
+        boolean pdf = "pdf".equalsIgnoreCase(format);
+        ExportCache.Key key = exportCache.key(filters, pdf ? "pdf" : "csv");
+        if (exportCache.isNotModified(key, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(key.etag()).build();
+        }
+
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        StreamingResponseBody exportData;
+        String filename;
+        MediaType mediaType;
+
+        // Both formats stream from a database cursor unless cached; failures after the first rows can only abort the download
+        if (pdf) {
+            exportData = out -> exportCache.write(key, out, o -> exportService.exportToPdf(filters, o));
+            filename = "vaccination_report_" + timestamp + ".pdf";
+            mediaType = MediaType.APPLICATION_PDF;
+        } else {
+            exportData = out -> exportCache.write(key, out, o -> exportService.exportToCsv(filters, o));
+            filename = "vaccination_report_" + timestamp + ".csv";
+            mediaType = MediaType.parseMediaType("text/csv");
         }
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .eTag(key.etag())
+                .contentType(mediaType)
+                .body(exportData);
     }
 }
\ No newline at end of file
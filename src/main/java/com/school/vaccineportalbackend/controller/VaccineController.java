@@ -4,12 +4,14 @@ import com.school.vaccineportalbackend.model.VaccinationRecord;
 import com.school.vaccineportalbackend.model.Vaccine;
 import com.school.vaccineportalbackend.service.VaccinationRecordService;
 import com.school.vaccineportalbackend.service.VaccineService;
+import com.school.vaccineportalbackend.util.ETags;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -49,7 +51,7 @@ public class VaccineController {
         Vaccine vaccine = vaccineService.getVaccineById(id);
         logger.debug("Found vaccine: {}", vaccine.getName());
         
-        return ResponseEntity.ok(vaccine);
+        return ResponseEntity.ok().eTag(ETags.of(vaccine.getVersion())).body(vaccine);
     }
 
     @GetMapping("/name/{name}")
@@ -75,13 +77,14 @@ public class VaccineController {
     @PutMapping("/{id}")
     public ResponseEntity<Vaccine> updateVaccine(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody Vaccine vaccine) {
         logger.info("Updating vaccine with ID: {}", id);
         
-        Vaccine updatedVaccine = vaccineService.updateVaccine(id, vaccine);
+        Vaccine updatedVaccine = vaccineService.updateVaccine(id, vaccine, ETags.parseIfMatch(ifMatch));
         logger.debug("Updated vaccine: {}", updatedVaccine.getName());
         
-        return ResponseEntity.ok(updatedVaccine);
+        return ResponseEntity.ok().eTag(ETags.of(updatedVaccine.getVersion())).body(updatedVaccine);
     }
 
     @DeleteMapping("/{id}")
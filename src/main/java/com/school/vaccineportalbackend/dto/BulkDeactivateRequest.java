@@ -0,0 +1,11 @@
+package com.school.vaccineportalbackend.dto;
+
+import lombok.Data;
+import java.util.List;
+
+// Students are selected either by explicit IDs or by grade
+@Data
+public class BulkDeactivateRequest {
+    private List<String> studentIds;
+    private String grade;
+}
@@ -0,0 +1,15 @@
+package com.school.vaccineportalbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResult {
+    private String operation;
+    private int matched;
+    private int affected;
+    private long elapsedMillis;
+}
@@ -0,0 +1,17 @@
+package com.school.vaccineportalbackend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BulkPatchRequest {
+    @NotEmpty(message = "At least one student ID is required")
+    private List<String> studentIds;
+
+    @NotBlank(message = "Field is required")
+    private String field;
+
+    private String value;
+}
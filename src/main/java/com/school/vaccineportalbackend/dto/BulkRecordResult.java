@@ -0,0 +1,43 @@
+package com.school.vaccineportalbackend.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkRecordResult {
+    private int received;
+    private int created;
+    private int rejected;
+    private long elapsedMillis;
+    private double recordsPerSecond;
+    // One per record for an array; a stream lists only its rejections, up to a cap
+    private List<Item> items = new ArrayList<>();
+    // Set when a stream had more rejections than items lists
+    private boolean itemsTruncated;
+
+    // Outcome for one submitted record, by its position in the request
+    @Data
+    public static class Item {
+        private int index;
+        private String status;
+        private Long id;
+        private String error;
+
+        public static Item created(int index, Long id) {
+            Item item = new Item();
+            item.setIndex(index);
+            item.setStatus("CREATED");
+            item.setId(id);
+            return item;
+        }
+
+        public static Item rejected(int index, String error) {
+            Item item = new Item();
+            item.setIndex(index);
+            item.setStatus("REJECTED");
+            item.setError(error);
+            return item;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.school.vaccineportalbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. {@code next} is the cursor to pass as
+ * {@code after} for the following slice, or null when this is the last one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private String next;
+}
@@ -0,0 +1,19 @@
+package com.school.vaccineportalbackend.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+public class ExportJobStatus {
+    private String jobId;
+    private String format;
+    private Map<String, String> filters;
+    private String state;
+    private String fileName;
+    private long size;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,9 @@
+package com.school.vaccineportalbackend.dto;
+
+// How a student import treats rows matching an existing active student
+// on (name, date of birth, parent email)
+public enum ImportDedupeMode {
+    NONE,
+    SKIP,
+    UPSERT
+}
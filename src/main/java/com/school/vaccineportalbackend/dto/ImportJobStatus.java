@@ -0,0 +1,21 @@
+package com.school.vaccineportalbackend.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class ImportJobStatus {
+    private String jobId;
+    private String fileName;
+    private String state;
+    private int rowsProcessed;
+    private int imported;
+    private int matched;
+    private int errorCount;
+    private List<String> errors;
+    private double rowsPerSecond;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -1,6 +1,9 @@
 package com.school.vaccineportalbackend.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -9,8 +12,30 @@ public class ImportResult {
     private int imported;
     private List<String> errors;
     private boolean success;
-    
+
+    // Rows matching an existing student when importing with de-duplication
+    private ImportDedupeMode dedupeMode = ImportDedupeMode.NONE;
+    private int matched;
+    private int skipped;
+    private int updated;
+
+    // Throughput of the whole import and of each committed chunk
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<ChunkTiming> chunks = new ArrayList<>();
+
     public boolean isSuccess() {
-        return errors.isEmpty() && imported > 0;
+        return errors.isEmpty() && (imported > 0 || matched > 0);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkTiming {
+        private int chunk;
+        private int firstLine;
+        private int rows;
+        private long millis;
+        private double rowsPerSecond;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.school.vaccineportalbackend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class PromoteGradeRequest {
+    @NotBlank(message = "Source grade is required")
+    private String fromGrade;
+
+    @NotBlank(message = "Target grade is required")
+    private String toGrade;
+}
@@ -2,10 +2,12 @@ package com.school.vaccineportalbackend.dto;
 
 import com.school.vaccineportalbackend.model.Student;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class StudentDTO {
     private String studentId;
     private String name;
@@ -23,6 +25,24 @@ public class StudentDTO {
     // Add a field to indicate if the student has vaccination records
     private boolean hasVaccinationRecords;
     
+    // Used by repository constructor projections, which select only these columns
+    public StudentDTO(String studentId, String name, String grade, LocalDate dateOfBirth, String gender,
+                      String parentName, String parentEmail, String contactNumber, String address,
+                      boolean isActive, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.studentId = studentId;
+        this.name = name;
+        this.grade = grade;
+        this.dateOfBirth = dateOfBirth;
+        this.gender = gender;
+        this.parentName = parentName;
+        this.parentEmail = parentEmail;
+        this.contactNumber = contactNumber;
+        this.address = address;
+        this.isActive = isActive;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     // Constructor to convert from Student entity
     public static StudentDTO fromEntity(Student student) {
         StudentDTO dto = new StudentDTO();
@@ -0,0 +1,15 @@
+package com.school.vaccineportalbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+// Everything the student detail screen shows, in one response
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentProfileDTO {
+    private StudentDTO student;
+    private List<VaccinationHistoryEntryDTO> vaccinationRecords;
+}
@@ -0,0 +1,28 @@
+package com.school.vaccineportalbackend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class SyncRequest {
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 1000, message = "At most 1000 items per sync")
+    @Valid
+    private List<Item> items;
+
+    // One queued write; the key is generated on the device and reused on every replay
+    @Data
+    public static class Item {
+        @NotBlank(message = "Idempotency key is required")
+        @Size(max = 100, message = "Idempotency key must be at most 100 characters")
+        private String idempotencyKey;
+
+        @NotNull(message = "Record is required")
+        private VaccinationRecordDTO record;
+    }
+}
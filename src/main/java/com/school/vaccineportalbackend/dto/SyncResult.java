@@ -0,0 +1,34 @@
+package com.school.vaccineportalbackend.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class SyncResult {
+    private int created;
+    private int duplicates;
+    private int rejected;
+    private long elapsedMillis;
+    private List<Item> items = new ArrayList<>();
+
+    // Sync position after this batch; pass as after to GET /sync to pull later writes
+    private String cursor;
+
+    @Data
+    public static class Item {
+        private String idempotencyKey;
+        private String status;
+        private Long recordId;
+        private String error;
+
+        public static Item of(String idempotencyKey, String status, Long recordId, String error) {
+            Item item = new Item();
+            item.setIdempotencyKey(idempotencyKey);
+            item.setStatus(status);
+            item.setRecordId(recordId);
+            item.setError(error);
+            return item;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.school.vaccineportalbackend.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Data
+@NoArgsConstructor
 public class VaccinationDriveDTO {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
     private Long id;
     private VaccineDTO vaccine;
     private String vaccineBatch;
@@ -27,9 +33,37 @@ public class VaccinationDriveDTO {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private String updatedAt;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
     
     private List<VaccinationRecordDTO> vaccinationRecords;
 
+    // Used by repository constructor projections, which select only these columns
+    public VaccinationDriveDTO(Long id, Long vaccineId, String vaccineName, String vaccineBatch, LocalDate driveDate,
+                               Integer availableDoses, String applicableGrades, Integer minimumAge,
+                               Integer maximumAge, String status, boolean isActive, String notes,
+                               LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        if (vaccineId != null) {
+            this.vaccine = new VaccineDTO();
+            this.vaccine.setId(vaccineId);
+            this.vaccine.setName(vaccineName);
+        }
+        this.vaccineBatch = vaccineBatch;
+        this.driveDate = driveDate;
+        this.availableDoses = availableDoses;
+        this.applicableGrades = applicableGrades;
+        this.minimumAge = minimumAge;
+        this.maximumAge = maximumAge;
+        this.status = status;
+        this.isActive = isActive;
+        this.notes = notes;
+        this.createdAt = createdAt != null ? createdAt.format(DATE_TIME_FORMATTER) : null;
+        this.updatedAt = updatedAt != null ? updatedAt.format(DATE_TIME_FORMATTER) : null;
+        this.version = version;
+    }
+
     @Data
     public static class VaccineDTO {
         private Long id;
@@ -0,0 +1,50 @@
+package com.school.vaccineportalbackend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// One vaccination record on a student profile, with its drive and vaccine
+@Data
+@NoArgsConstructor
+public class VaccinationHistoryEntryDTO {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private Long id;
+    private Integer doseNumber;
+    private String vaccinationDate;
+    private String status;
+    private String batchNumber;
+    private String administeredBy;
+    private String vaccinationSite;
+    private String sideEffects;
+    private String nextDoseDate;
+    private String notes;
+    private Long driveId;
+    private LocalDate driveDate;
+    private Long vaccineId;
+    private String vaccineName;
+
+    // Used by the repository constructor projection
+    public VaccinationHistoryEntryDTO(Long id, Integer doseNumber, LocalDateTime vaccinationDate, String status,
+                                      String batchNumber, String administeredBy, String vaccinationSite,
+                                      String sideEffects, LocalDateTime nextDoseDate, String notes,
+                                      Long driveId, LocalDate driveDate, Long vaccineId, String vaccineName) {
+        this.id = id;
+        this.doseNumber = doseNumber;
+        this.vaccinationDate = vaccinationDate != null ? vaccinationDate.format(DATE_TIME_FORMATTER) : null;
+        this.status = status;
+        this.batchNumber = batchNumber;
+        this.administeredBy = administeredBy;
+        this.vaccinationSite = vaccinationSite;
+        this.sideEffects = sideEffects;
+        this.nextDoseDate = nextDoseDate != null ? nextDoseDate.format(DATE_TIME_FORMATTER) : null;
+        this.notes = notes;
+        this.driveId = driveId;
+        this.driveDate = driveDate;
+        this.vaccineId = vaccineId;
+        this.vaccineName = vaccineName;
+    }
+}
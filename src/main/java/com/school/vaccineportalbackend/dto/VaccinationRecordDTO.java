@@ -1,11 +1,19 @@
 package com.school.vaccineportalbackend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 @Data
+@NoArgsConstructor
 public class VaccinationRecordDTO {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
     private Long id;
     
     private String studentId;
@@ -22,4 +30,37 @@ public class VaccinationRecordDTO {
     private String notes;
     private String createdAt;
     private String updatedAt;
-} 
\ No newline at end of file
+
+    // Also sent as the ETag; send it back in If-Match to update only this version
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    // Used by repository constructor projections, which select only these columns
+    public VaccinationRecordDTO(Long id, String studentId, String studentName, Long driveId, Integer doseNumber,
+                                LocalDateTime vaccinationDate, String batchNumber, String administeredBy,
+                                String vaccinationSite, String status, String sideEffects,
+                                LocalDateTime nextDoseDate, String notes,
+                                LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.driveId = driveId;
+        this.doseNumber = doseNumber;
+        this.vaccinationDate = format(vaccinationDate);
+        this.batchNumber = batchNumber;
+        this.administeredBy = administeredBy;
+        this.vaccinationSite = vaccinationSite;
+        this.status = status;
+        this.sideEffects = sideEffects;
+        this.nextDoseDate = format(nextDoseDate);
+        this.notes = notes;
+        this.createdAt = format(createdAt);
+        this.updatedAt = format(updatedAt);
+        this.version = version;
+    }
+
+    private static String format(LocalDateTime value) {
+        return value != null ? value.format(DATE_TIME_FORMATTER) : null;
+    }
+}
@@ -0,0 +1,158 @@
+package com.school.vaccineportalbackend.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.school.vaccineportalbackend.model.VaccinationRecord;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Read-only vaccination record for list endpoints. Dates stay typed until they are
+ * written, and {@link Serializer} writes the record straight to the generator, so a
+ * page is serialized without intermediate strings or reflective property access.
+ * The JSON has the same fields and date format as {@link VaccinationRecordDTO}.
+ */
+@Getter
+@AllArgsConstructor
+@JsonSerialize(using = VaccinationRecordView.Serializer.class)
+public class VaccinationRecordView {
+    private final Long id;
+    private final String studentId;
+    private final String studentName;
+    private final Long driveId;
+    private final Integer doseNumber;
+    private final LocalDateTime vaccinationDate;
+    private final String batchNumber;
+    private final String administeredBy;
+    private final String vaccinationSite;
+    private final String status;
+    private final String sideEffects;
+    private final LocalDateTime nextDoseDate;
+    private final String notes;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public static VaccinationRecordView from(VaccinationRecord record) {
+        return new VaccinationRecordView(record.getId(), record.getStudent().getStudentId(),
+            record.getStudent().getName(), record.getVaccinationDrive().getId(), record.getDoseNumber(),
+            record.getVaccinationDate(), record.getBatchNumber(), record.getAdministeredBy(),
+            record.getVaccinationSite(), record.getStatus(), record.getSideEffects(), record.getNextDoseDate(),
+            record.getNotes(), record.getCreatedAt(), record.getUpdatedAt());
+    }
+
+    public static class Serializer extends StdSerializer<VaccinationRecordView> {
+        private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+        // Field names are quoted and encoded once
+        private static final SerializableString ID = new SerializedString("id");
+        private static final SerializableString STUDENT_ID = new SerializedString("studentId");
+        private static final SerializableString STUDENT_NAME = new SerializedString("studentName");
+        private static final SerializableString DRIVE_ID = new SerializedString("driveId");
+        private static final SerializableString DOSE_NUMBER = new SerializedString("doseNumber");
+        private static final SerializableString VACCINATION_DATE = new SerializedString("vaccinationDate");
+        private static final SerializableString BATCH_NUMBER = new SerializedString("batchNumber");
+        private static final SerializableString ADMINISTERED_BY = new SerializedString("administeredBy");
+        private static final SerializableString VACCINATION_SITE = new SerializedString("vaccinationSite");
+        private static final SerializableString STATUS = new SerializedString("status");
+        private static final SerializableString SIDE_EFFECTS = new SerializedString("sideEffects");
+        private static final SerializableString NEXT_DOSE_DATE = new SerializedString("nextDoseDate");
+        private static final SerializableString NOTES = new SerializedString("notes");
+        private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+        private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+
+        // One scratch buffer per serializing thread for "yyyy-MM-ddTHH:mm:ss"
+        private static final ThreadLocal<char[]> DATE_BUFFER = ThreadLocal.withInitial(() -> new char[19]);
+
+        public Serializer() {
+            super(VaccinationRecordView.class);
+        }
+
+        @Override
+        public void serialize(VaccinationRecordView record, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+            gen.writeStartObject(record);
+            gen.writeFieldName(ID);
+            writeNumber(gen, record.id);
+            gen.writeFieldName(STUDENT_ID);
+            gen.writeString(record.studentId);
+            gen.writeFieldName(STUDENT_NAME);
+            gen.writeString(record.studentName);
+            gen.writeFieldName(DRIVE_ID);
+            writeNumber(gen, record.driveId);
+            gen.writeFieldName(DOSE_NUMBER);
+            if (record.doseNumber != null) {
+                gen.writeNumber(record.doseNumber);
+            } else {
+                gen.writeNull();
+            }
+            gen.writeFieldName(VACCINATION_DATE);
+            writeDate(gen, record.vaccinationDate);
+            gen.writeFieldName(BATCH_NUMBER);
+            gen.writeString(record.batchNumber);
+            gen.writeFieldName(ADMINISTERED_BY);
+            gen.writeString(record.administeredBy);
+            gen.writeFieldName(VACCINATION_SITE);
+            gen.writeString(record.vaccinationSite);
+            gen.writeFieldName(STATUS);
+            gen.writeString(record.status);
+            gen.writeFieldName(SIDE_EFFECTS);
+            gen.writeString(record.sideEffects);
+            gen.writeFieldName(NEXT_DOSE_DATE);
+            writeDate(gen, record.nextDoseDate);
+            gen.writeFieldName(NOTES);
+            gen.writeString(record.notes);
+            gen.writeFieldName(CREATED_AT);
+            writeDate(gen, record.createdAt);
+            gen.writeFieldName(UPDATED_AT);
+            writeDate(gen, record.updatedAt);
+            gen.writeEndObject();
+        }
+
+        private static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+            if (value != null) {
+                gen.writeNumber(value);
+            } else {
+                gen.writeNull();
+            }
+        }
+
+        private static void writeDate(JsonGenerator gen, LocalDateTime value) throws IOException {
+            if (value == null) {
+                gen.writeNull();
+                return;
+            }
+            int year = value.getYear();
+            if (year < 0 || year > 9999) {
+                gen.writeString(value.format(DATE_TIME_FORMATTER));
+                return;
+            }
+            char[] buf = DATE_BUFFER.get();
+            digits(buf, 0, year, 4);
+            buf[4] = '-';
+            digits(buf, 5, value.getMonthValue(), 2);
+            buf[7] = '-';
+            digits(buf, 8, value.getDayOfMonth(), 2);
+            buf[10] = 'T';
+            digits(buf, 11, value.getHour(), 2);
+            buf[13] = ':';
+            digits(buf, 14, value.getMinute(), 2);
+            buf[16] = ':';
+            digits(buf, 17, value.getSecond(), 2);
+            gen.writeString(buf, 0, buf.length);
+        }
+
+        private static void digits(char[] buf, int offset, int value, int width) {
+            for (int i = offset + width - 1; i >= offset; i--) {
+                buf[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+    }
+}
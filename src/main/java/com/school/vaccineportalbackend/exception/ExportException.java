@@ -1,11 +0,0 @@
-package com.school.vaccineportalbackend.exception;
-
-public class ExportException extends RuntimeException {
-    public ExportException(String message) {
-        super(message);
-    }
-
-    public ExportException(String message, Throwable cause) {
-        super(message, cause);
-    }
-} 
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.school.vaccineportalbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Client idempotency key of a vaccination record written through the sync
+ * endpoint. The unique key makes a replayed write resolve to the record it
+ * created the first time. {@code syncPosition} orders keys in commit order; it
+ * is numbered from {@link RecordSyncPosition}, unlike {@code id}, whose pooled
+ * sequence values can commit out of order.
+ */
+@Data
+@Entity
+@Table(name = "record_sync_keys",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_record_sync_keys_key", columnNames = "idempotencyKey"),
+        @UniqueConstraint(name = "uk_record_sync_keys_position", columnNames = "syncPosition")
+    })
+public class RecordSyncKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "record_sync_keys_id")
+    @SequenceGenerator(name = "record_sync_keys_id", sequenceName = "record_sync_keys_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(nullable = false)
+    private Long recordId;
+
+    @Column(nullable = false)
+    private Long syncPosition;
+
+    @Column(nullable = false)
+    private LocalDateTime syncedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        syncedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,32 @@
+package com.school.vaccineportalbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Single counter row holding the last sync position handed out. A sync locks it
+ * before numbering its new keys and keeps the lock until it commits, so positions
+ * become visible in order and a cursor never passes a key that commits later.
+ */
+@Data
+@Entity
+@Table(name = "record_sync_positions")
+public class RecordSyncPosition {
+    public static final int SYNC = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long lastPosition;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,30 @@
+package com.school.vaccineportalbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Per-year counter row for student roll numbers. {@code nextValue} is the first
+ * sequence number not yet handed out to any application instance.
+ */
+@Data
+@Entity
+@Table(name = "roll_number_sequences")
+public class RollNumberSequence {
+    @Id
+    @Column(name = "sequence_year", nullable = false)
+    private Integer sequenceYear;
+
+    @Column(nullable = false)
+    private Long nextValue;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -11,12 +11,15 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @Data
 @Entity
 @Table(name = "vaccination_drives")
+@NamedEntityGraph(name = VaccinationDrive.WITH_VACCINE, attributeNodes = @NamedAttributeNode("vaccine"))
 public class VaccinationDrive {
+    public static final String WITH_VACCINE = "VaccinationDrive.withVaccine";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vaccine_id", nullable = false)
     private Vaccine vaccine;
 
@@ -57,6 +60,10 @@ public class VaccinationDrive {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -8,18 +8,35 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Data
 @Entity
-@Table(name = "vaccination_records")
+@Table(name = "vaccination_records", uniqueConstraints = @UniqueConstraint(
+    name = "uk_vaccination_records_student_drive_dose",
+    columnNames = {"student_id", "vaccination_drive_id", "doseNumber"}))
+@NamedEntityGraph(name = VaccinationRecord.WITH_STUDENT_AND_DRIVE,
+    attributeNodes = {
+        @NamedAttributeNode("student"),
+        @NamedAttributeNode(value = "vaccinationDrive", subgraph = "drive")
+    },
+    subgraphs = @NamedSubgraph(name = "drive", attributeNodes = @NamedAttributeNode("vaccine")))
+// On PostgreSQL the table is partitioned by school year on vaccination_date (schema_fixed.sql);
+// ids are unique across partitions, so the mapping keeps id as the sole identifier. The unique
+// constraint above applies to tables Hibernate creates; the partitioned schema enforces the same
+// rule through the primary key of vaccination_record_doses instead.
 public class VaccinationRecord {
+    // Loads student, drive and vaccine in the same select for reads that map whole records
+    public static final String WITH_STUDENT_AND_DRIVE = "VaccinationRecord.withStudentAndDrive";
+
+    // Pooled sequence so inserts can be JDBC-batched; ids are handed out in blocks of 50
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vaccination_records_id")
+    @SequenceGenerator(name = "vaccination_records_id", sequenceName = "vaccination_records_id_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id", referencedColumnName = "studentId", nullable = false)
     private Student student;
 
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "vaccination_drive_id", nullable = false)
     private VaccinationDrive vaccinationDrive;
 
@@ -56,6 +73,11 @@ public class VaccinationRecord {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Bumped on every update; a write based on an older value fails instead of overwriting
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,79 @@
+package com.school.vaccineportalbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * One row per vaccination record with the student, drive and vaccine columns the
+ * report filters and prints inlined, so report pages and exports read a single
+ * table. Rows are maintained by VaccinationReportService; never write them directly.
+ */
+@Data
+@Entity
+@Table(name = "vaccination_report_entries", indexes = {
+    @Index(name = "idx_report_entries_date", columnList = "vaccinationDate, record_id"),
+    @Index(name = "idx_report_entries_vaccine_date", columnList = "vaccineName, vaccinationDate"),
+    @Index(name = "idx_report_entries_grade_date", columnList = "grade, vaccinationDate"),
+    @Index(name = "idx_report_entries_status_date", columnList = "status, vaccinationDate"),
+    @Index(name = "idx_report_entries_student", columnList = "studentId"),
+    @Index(name = "idx_report_entries_drive", columnList = "driveId"),
+    @Index(name = "idx_report_entries_vaccine", columnList = "vaccineId")
+})
+public class VaccinationReportEntry {
+    // Same id as the vaccination record the row was built from
+    @Id
+    @Column(name = "record_id")
+    private Long id;
+
+    @Column(nullable = false)
+    private String studentId;
+
+    @Column(nullable = false)
+    private String studentName;
+
+    @Column(nullable = false)
+    private String grade;
+
+    @Column(nullable = false)
+    private Long driveId;
+
+    @Column(nullable = false)
+    private Long vaccineId;
+
+    @Column(nullable = false)
+    private String vaccineName;
+
+    @Column(nullable = false)
+    private Integer doseNumber;
+
+    @Column(nullable = false)
+    private LocalDateTime vaccinationDate;
+
+    @Column
+    private String batchNumber;
+
+    @Column
+    private String administeredBy;
+
+    @Column
+    private String vaccinationSite;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column
+    private String sideEffects;
+
+    @Column
+    private LocalDateTime nextDoseDate;
+
+    @Column
+    private String notes;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,19 @@
+package com.school.vaccineportalbackend.repository;
+
+import com.school.vaccineportalbackend.model.RecordSyncKey;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecordSyncKeyRepository extends JpaRepository<RecordSyncKey, Long> {
+    List<RecordSyncKey> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+    // Sync positions after a cursor, oldest first
+    List<RecordSyncKey> findBySyncPositionGreaterThanOrderBySyncPosition(Long syncPosition, Pageable pageable);
+
+    Optional<RecordSyncKey> findFirstByOrderBySyncPositionDesc();
+}
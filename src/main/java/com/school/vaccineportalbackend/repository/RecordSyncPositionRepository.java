@@ -0,0 +1,18 @@
+package com.school.vaccineportalbackend.repository;
+
+import com.school.vaccineportalbackend.model.RecordSyncPosition;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RecordSyncPositionRepository extends JpaRepository<RecordSyncPosition, Integer> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM RecordSyncPosition p WHERE p.id = :id")
+    Optional<RecordSyncPosition> findByIdForUpdate(@Param("id") Integer id);
+}
@@ -0,0 +1,18 @@
+package com.school.vaccineportalbackend.repository;
+
+import com.school.vaccineportalbackend.model.RollNumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RollNumberSequenceRepository extends JpaRepository<RollNumberSequence, Integer> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RollNumberSequence r WHERE r.sequenceYear = :year")
+    Optional<RollNumberSequence> findByYearForUpdate(@Param("year") Integer year);
+}
@@ -1,24 +1,71 @@
 package com.school.vaccineportalbackend.repository;
 
+import com.school.vaccineportalbackend.dto.StudentDTO;
 import com.school.vaccineportalbackend.model.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, String> {
+    // Constructor projection for read endpoints: selects only the returned columns, no managed entities
+    String SELECT_STUDENT_DTO = "SELECT new com.school.vaccineportalbackend.dto.StudentDTO(" +
+            "s.studentId, s.name, s.grade, s.dateOfBirth, s.gender, s.parentName, s.parentEmail, " +
+            "s.contactNumber, s.address, s.isActive, s.createdAt, s.updatedAt) FROM Student s ";
+
     List<Student> findByGrade(String grade);
     List<Student> findByNameContainingIgnoreCase(String name);
     
-    @Query("SELECT s FROM Student s WHERE s.studentId LIKE ?1% ORDER BY s.studentId DESC")
-    Optional<Student> findTopByStudentIdStartingWithOrderByStudentIdDesc(String prefix);
+    // Numeric, not lexicographic: ROLL-2026-10000 follows ROLL-2026-9999
+    @Query("SELECT MAX(CAST(SUBSTRING(s.studentId, LENGTH(:prefix) + 1) AS Long)) FROM Student s " +
+           "WHERE s.studentId LIKE CONCAT(:prefix, '%')")
+    Optional<Long> findMaxRollNumber(@Param("prefix") String prefix);
     
     Page<Student> findByGrade(String grade, Pageable pageable);
+
+    @Query(value = SELECT_STUDENT_DTO, countQuery = "SELECT COUNT(s) FROM Student s")
+    Page<StudentDTO> findAllDTOs(Pageable pageable);
+
+    @Query(value = SELECT_STUDENT_DTO + "WHERE s.grade = :grade",
+           countQuery = "SELECT COUNT(s) FROM Student s WHERE s.grade = :grade")
+    Page<StudentDTO> findDTOsByGrade(@Param("grade") String grade, Pageable pageable);
+
+    @Query(value = SELECT_STUDENT_DTO + "WHERE s.name LIKE CONCAT('%', :name, '%')",
+           countQuery = "SELECT COUNT(s) FROM Student s WHERE s.name LIKE CONCAT('%', :name, '%')")
+    Page<StudentDTO> findDTOsByNameContaining(@Param("name") String name, Pageable pageable);
+
+    @Query(value = SELECT_STUDENT_DTO + "WHERE s.name LIKE CONCAT('%', :name, '%') AND s.grade = :grade",
+           countQuery = "SELECT COUNT(s) FROM Student s WHERE s.name LIKE CONCAT('%', :name, '%') AND s.grade = :grade")
+    Page<StudentDTO> findDTOsByNameContainingAndGrade(@Param("name") String name, @Param("grade") String grade,
+                                                      Pageable pageable);
+
+    @Query(SELECT_STUDENT_DTO + "WHERE s.studentId IN :studentIds")
+    List<StudentDTO> findDTOsByStudentIdIn(@Param("studentIds") Collection<String> studentIds);
+
+    @Query(SELECT_STUDENT_DTO + "WHERE s.studentId = :studentId")
+    Optional<StudentDTO> findDTOById(@Param("studentId") String studentId);
+
+    // Keyset pagination on the primary key; no count query
+    @Query(SELECT_STUDENT_DTO + "ORDER BY s.studentId")
+    List<StudentDTO> findFirstDTOs(Pageable pageable);
+
+    @Query(SELECT_STUDENT_DTO + "WHERE s.studentId > :studentId ORDER BY s.studentId")
+    List<StudentDTO> findDTOsAfter(@Param("studentId") String studentId, Pageable pageable);
     
     @Query("SELECT s FROM Student s WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%')) " +
            "AND (:grade IS NULL OR s.grade = :grade)")
@@ -27,6 +74,53 @@ public interface StudentRepository extends JpaRepository<Student, String> {
     @Query("SELECT CASE WHEN COUNT(v) > 0 THEN true ELSE false END FROM VaccinationRecord v WHERE v.student.studentId = ?1")
     boolean hasVaccinationRecords(String studentId);
 
+    @Query("SELECT s.studentId FROM Student s WHERE s.studentId IN :studentIds")
+    Set<String> findExistingIds(@Param("studentIds") Collection<String> studentIds);
+
+    @Query("SELECT DISTINCT v.student.studentId FROM VaccinationRecord v WHERE v.student.studentId IN :studentIds")
+    Set<String> findStudentIdsWithVaccinationRecords(@Param("studentIds") Collection<String> studentIds);
+
+    // Forward-only cursor for exports; rows are fetched from the server in batches
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Student s ORDER BY s.studentId")
+    Stream<Student> streamAllBy();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.studentId, s.name, s.grade FROM Student s WHERE s.isActive = true")
+    Stream<Object[]> streamActiveStudentNames();
+
+    // Import de-duplication: keys of all active students, then exact candidates for one chunk
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.name, s.dateOfBirth, s.parentEmail FROM Student s WHERE s.isActive = true")
+    Stream<Object[]> streamActiveStudentKeys();
+
+    @Query("SELECT COUNT(s) FROM Student s WHERE s.isActive = true")
+    long countActiveStudents();
+
+    @Query("SELECT s FROM Student s WHERE s.isActive = true AND s.dateOfBirth IN :dates AND LOWER(s.name) IN :names")
+    List<Student> findActiveByNamesAndDatesOfBirth(@Param("names") Collection<String> names,
+                                                   @Param("dates") Collection<LocalDate> dates);
+
+    // Active students of a grade, row-locked until commit so a bulk update changes exactly these
+    @Query(value = "SELECT student_id FROM students WHERE grade = :grade AND is_active = true FOR UPDATE",
+           nativeQuery = true)
+    List<String> lockActiveStudentIdsByGrade(@Param("grade") String grade);
+
+    // Set-based bulk updates; callers pass ID lists in chunks to keep IN clauses bounded
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.grade = :toGrade, s.updatedAt = :updatedAt " +
+           "WHERE s.studentId IN :studentIds AND s.grade = :fromGrade AND s.isActive = true")
+    int promoteGrade(@Param("studentIds") Collection<String> studentIds, @Param("fromGrade") String fromGrade,
+                     @Param("toGrade") String toGrade, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.isActive = false, s.updatedAt = :updatedAt " +
+           "WHERE s.studentId IN :studentIds AND s.isActive = true")
+    int deactivateAll(@Param("studentIds") Collection<String> studentIds, @Param("updatedAt") LocalDateTime updatedAt);
+
     Page<Student> findByNameContaining(String name, Pageable pageable);
     
     Page<Student> findByNameContainingAndGrade(String name, String grade, Pageable pageable);
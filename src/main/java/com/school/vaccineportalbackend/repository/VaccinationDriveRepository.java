@@ -1,18 +1,66 @@
 package com.school.vaccineportalbackend.repository;
 
+import com.school.vaccineportalbackend.dto.VaccinationDriveDTO;
 import com.school.vaccineportalbackend.model.VaccinationDrive;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface VaccinationDriveRepository extends JpaRepository<VaccinationDrive, Long> {
+public interface VaccinationDriveRepository extends JpaRepository<VaccinationDrive, Long>, JpaSpecificationExecutor<VaccinationDrive> {
+    // Constructor projection for read endpoints: selects only the returned columns, no managed entities
+    String SELECT_DRIVE_DTO = "SELECT new com.school.vaccineportalbackend.dto.VaccinationDriveDTO(" +
+            "vd.id, v.id, v.name, vd.vaccineBatch, vd.driveDate, vd.availableDoses, vd.applicableGrades, " +
+            "vd.minimumAge, vd.maximumAge, vd.status, vd.isActive, vd.notes, vd.createdAt, vd.updatedAt, vd.version) " +
+            "FROM VaccinationDrive vd LEFT JOIN vd.vaccine v ";
+
+    @Query("SELECT vd.id FROM VaccinationDrive vd WHERE vd.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Override
+    @EntityGraph(VaccinationDrive.WITH_VACCINE)
+    List<VaccinationDrive> findAll();
+
+    @Override
+    @EntityGraph(VaccinationDrive.WITH_VACCINE)
+    Page<VaccinationDrive> findAll(Pageable pageable);
+
+    // Filtered drive exports: the vaccine is joined into the same select
+    @Override
+    @EntityGraph(VaccinationDrive.WITH_VACCINE)
+    List<VaccinationDrive> findAll(Specification<VaccinationDrive> spec, Sort sort);
+
+    @Query(value = SELECT_DRIVE_DTO, countQuery = "SELECT COUNT(vd) FROM VaccinationDrive vd")
+    Page<VaccinationDriveDTO> findAllDTOs(Pageable pageable);
+
+    @Query(SELECT_DRIVE_DTO + "WHERE vd.id = :id")
+    Optional<VaccinationDriveDTO> findDTOById(@Param("id") Long id);
+
+    @Query(value = SELECT_DRIVE_DTO + "WHERE vd.driveDate BETWEEN :startDate AND :endDate",
+           countQuery = "SELECT COUNT(vd) FROM VaccinationDrive vd WHERE vd.driveDate BETWEEN :startDate AND :endDate")
+    Page<VaccinationDriveDTO> findDTOsByDriveDateBetween(@Param("startDate") LocalDate startDate,
+                                                         @Param("endDate") LocalDate endDate, Pageable pageable);
+
+    @Query(SELECT_DRIVE_DTO + "WHERE vd.driveDate BETWEEN :startDate AND :endDate AND vd.isActive = true")
+    List<VaccinationDriveDTO> findActiveDTOsByDriveDateBetween(@Param("startDate") LocalDate startDate,
+                                                               @Param("endDate") LocalDate endDate);
+
+    @Query(value = SELECT_DRIVE_DTO + "WHERE vd.applicableGrades LIKE CONCAT('%', :grade, '%')",
+           countQuery = "SELECT COUNT(vd) FROM VaccinationDrive vd WHERE vd.applicableGrades LIKE CONCAT('%', :grade, '%')")
+    Page<VaccinationDriveDTO> findDTOsByApplicableGradesContaining(@Param("grade") String grade, Pageable pageable);
+
     @Query("SELECT vd FROM VaccinationDrive vd WHERE vd.driveDate BETWEEN :startDate AND :endDate AND vd.isActive = true")
     Page<VaccinationDrive> findByDriveDateBetweenAndIsActiveTrue(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
 
@@ -1,21 +1,40 @@
 package com.school.vaccineportalbackend.repository;
 
+import com.school.vaccineportalbackend.dto.VaccinationHistoryEntryDTO;
+import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.dto.VaccinationRecordView;
 import com.school.vaccineportalbackend.model.Student;
 import com.school.vaccineportalbackend.model.VaccinationDrive;
 import com.school.vaccineportalbackend.model.VaccinationRecord;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VaccinationRecordRepository extends JpaRepository<VaccinationRecord, Long>, JpaSpecificationExecutor<VaccinationRecord> {
+    // Constructor projection for read endpoints: selects only the returned columns, no managed entities
+    String SELECT_RECORD_DTO = "SELECT new com.school.vaccineportalbackend.dto.VaccinationRecordDTO(" +
+            "vr.id, s.studentId, s.name, vr.vaccinationDrive.id, vr.doseNumber, vr.vaccinationDate, " +
+            "vr.batchNumber, vr.administeredBy, vr.vaccinationSite, vr.status, vr.sideEffects, " +
+            "vr.nextDoseDate, vr.notes, vr.createdAt, vr.updatedAt, vr.version) " +
+            "FROM VaccinationRecord vr JOIN vr.student s ";
+
+    // Same columns for list endpoints, with typed dates for VaccinationRecordView's serializer
+    String SELECT_RECORD_VIEW = "SELECT new com.school.vaccineportalbackend.dto.VaccinationRecordView(" +
+            "vr.id, s.studentId, s.name, vr.vaccinationDrive.id, vr.doseNumber, vr.vaccinationDate, " +
+            "vr.batchNumber, vr.administeredBy, vr.vaccinationSite, vr.status, vr.sideEffects, " +
+            "vr.nextDoseDate, vr.notes, vr.createdAt, vr.updatedAt) " +
+            "FROM VaccinationRecord vr JOIN vr.student s ";
+
     List<VaccinationRecord> findByStudent(Student student);
     List<VaccinationRecord> findByVaccinationDrive(VaccinationDrive drive);
     List<VaccinationRecord> findByStudentAndStatus(Student student, String status);
@@ -24,14 +43,103 @@ public interface VaccinationRecordRepository extends JpaRepository<VaccinationRe
     List<VaccinationRecord> findByDoseNumber(Integer doseNumber);
     Optional<VaccinationRecord> findFirstByStudentAndVaccinationDriveOrderByDoseNumberDesc(Student student, VaccinationDrive drive);
     boolean existsByStudentAndVaccinationDriveAndDoseNumber(Student student, VaccinationDrive drive, Integer doseNumber);
-    Page<VaccinationRecord> findByStudent(Student student, Pageable pageable);
-    Page<VaccinationRecord> findByVaccinationDrive(VaccinationDrive drive, Pageable pageable);
-    Page<VaccinationRecord> findByStudentAndStatus(Student student, String status, Pageable pageable);
-    Page<VaccinationRecord> findByVaccinationDriveAndStatus(VaccinationDrive drive, String status, Pageable pageable);
-    Page<VaccinationRecord> findByVaccinationDateBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
-    
+
+    // (doseNumber, status) of a student's doses in one drive, highest dose first
+    @Query("SELECT vr.doseNumber, vr.status FROM VaccinationRecord vr " +
+           "WHERE vr.student.studentId = :studentId AND vr.vaccinationDrive.id = :driveId ORDER BY vr.doseNumber DESC")
+    List<Object[]> findDoseStates(@Param("studentId") String studentId, @Param("driveId") Long driveId, Pageable pageable);
+
+    // (studentId, driveId, highest doseNumber) for every pair among the given students and drives
+    @Query("SELECT vr.student.studentId, vr.vaccinationDrive.id, MAX(vr.doseNumber) FROM VaccinationRecord vr " +
+           "WHERE vr.student.studentId IN :studentIds AND vr.vaccinationDrive.id IN :driveIds " +
+           "GROUP BY vr.student.studentId, vr.vaccinationDrive.id")
+    List<Object[]> findLastDoses(@Param("studentIds") Collection<String> studentIds,
+                                 @Param("driveIds") Collection<Long> driveIds);
+
+    // Paged entity reads fetch student, drive and vaccine with the rows; count queries stay join-free.
+    // List endpoints read VaccinationRecordView projections instead.
+    @Override
+    @EntityGraph(VaccinationRecord.WITH_STUDENT_AND_DRIVE)
+    Page<VaccinationRecord> findAll(Pageable pageable);
+
+    @Query(value = SELECT_RECORD_VIEW, countQuery = "SELECT COUNT(vr) FROM VaccinationRecord vr")
+    Page<VaccinationRecordView> findAllViews(Pageable pageable);
+
+    @Query(SELECT_RECORD_DTO + "WHERE vr.id = :id")
+    Optional<VaccinationRecordDTO> findDTOById(@Param("id") Long id);
+
+    @Query(SELECT_RECORD_VIEW + "WHERE vr.id IN :ids")
+    List<VaccinationRecordView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = SELECT_RECORD_VIEW + "WHERE s.studentId = :studentId",
+           countQuery = "SELECT COUNT(vr) FROM VaccinationRecord vr WHERE vr.student.studentId = :studentId")
+    Page<VaccinationRecordView> findViewsByStudentId(@Param("studentId") String studentId, Pageable pageable);
+
+    @Query(value = SELECT_RECORD_VIEW + "WHERE s.studentId = :studentId AND vr.status = :status",
+           countQuery = "SELECT COUNT(vr) FROM VaccinationRecord vr " +
+                        "WHERE vr.student.studentId = :studentId AND vr.status = :status")
+    Page<VaccinationRecordView> findViewsByStudentIdAndStatus(@Param("studentId") String studentId,
+                                                              @Param("status") String status, Pageable pageable);
+
+    @Query(value = SELECT_RECORD_VIEW + "WHERE vr.vaccinationDrive.id = :driveId",
+           countQuery = "SELECT COUNT(vr) FROM VaccinationRecord vr WHERE vr.vaccinationDrive.id = :driveId")
+    Page<VaccinationRecordView> findViewsByDriveId(@Param("driveId") Long driveId, Pageable pageable);
+
+    @Query(value = SELECT_RECORD_VIEW + "WHERE vr.vaccinationDrive.id = :driveId AND vr.status = :status",
+           countQuery = "SELECT COUNT(vr) FROM VaccinationRecord vr " +
+                        "WHERE vr.vaccinationDrive.id = :driveId AND vr.status = :status")
+    Page<VaccinationRecordView> findViewsByDriveIdAndStatus(@Param("driveId") Long driveId,
+                                                            @Param("status") String status, Pageable pageable);
+
+    @Query(value = SELECT_RECORD_VIEW + "WHERE vr.vaccinationDate BETWEEN :startDate AND :endDate",
+           countQuery = "SELECT COUNT(vr) FROM VaccinationRecord vr " +
+                        "WHERE vr.vaccinationDate BETWEEN :startDate AND :endDate")
+    Page<VaccinationRecordView> findViewsByVaccinationDateBetween(@Param("startDate") LocalDateTime startDate,
+                                                                  @Param("endDate") LocalDateTime endDate,
+                                                                  Pageable pageable);
+
+    // Keyset pagination by id or by (vaccinationDate, id); no count query
+    @Query(SELECT_RECORD_VIEW + "ORDER BY vr.id")
+    List<VaccinationRecordView> findFirstViewsById(Pageable pageable);
+
+    @Query(SELECT_RECORD_VIEW + "WHERE vr.id > :afterId ORDER BY vr.id")
+    List<VaccinationRecordView> findViewsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(SELECT_RECORD_VIEW + "ORDER BY vr.vaccinationDate, vr.id")
+    List<VaccinationRecordView> findFirstViewsByVaccinationDate(Pageable pageable);
+
+    @Query(SELECT_RECORD_VIEW +
+           // The leading bound on its own lets PostgreSQL skip earlier school-year partitions
+           "WHERE vr.vaccinationDate >= :afterDate " +
+           "AND (vr.vaccinationDate > :afterDate OR vr.id > :afterId) " +
+           "ORDER BY vr.vaccinationDate, vr.id")
+    List<VaccinationRecordView> findViewsAfterVaccinationDate(@Param("afterDate") LocalDateTime afterDate,
+                                                              @Param("afterId") Long afterId, Pageable pageable);
+
+    // School-year partitions exist only on the PostgreSQL schema (schema_fixed.sql); elsewhere the count is 0
+    @Query(value = "SELECT COUNT(*) FROM information_schema.routines " +
+                   "WHERE routine_name = 'create_vaccination_records_partition'", nativeQuery = true)
+    long countPartitionFunctions();
+
+    @Query(value = "SELECT create_vaccination_records_partition(:schoolYear)", nativeQuery = true)
+    boolean createSchoolYearPartition(@Param("schoolYear") int schoolYear);
+
+    // Full history for the student profile, joined to drive and vaccine in the same statement
+    @Query("SELECT new com.school.vaccineportalbackend.dto.VaccinationHistoryEntryDTO(" +
+           "vr.id, vr.doseNumber, vr.vaccinationDate, vr.status, vr.batchNumber, vr.administeredBy, " +
+           "vr.vaccinationSite, vr.sideEffects, vr.nextDoseDate, vr.notes, d.id, d.driveDate, v.id, v.name) " +
+           "FROM VaccinationRecord vr JOIN vr.vaccinationDrive d JOIN d.vaccine v " +
+           "WHERE vr.student.studentId = :studentId ORDER BY vr.vaccinationDate, vr.doseNumber")
+    List<VaccinationHistoryEntryDTO> findHistoryByStudentId(@Param("studentId") String studentId);
+
+    @Query("SELECT CASE WHEN COUNT(vd) > 0 THEN true ELSE false END FROM VaccinationDrive vd WHERE vd.id = :driveId")
+    boolean existsVaccinationDriveById(@Param("driveId") Long driveId);
+
     @Query("SELECT vd FROM VaccinationDrive vd WHERE vd.id = :driveId")
     Optional<VaccinationDrive> findVaccinationDriveById(Long driveId);
+
+    @Query("SELECT MAX(vr.updatedAt) FROM VaccinationRecord vr")
+    Optional<LocalDateTime> findLastUpdatedAt();
     
     // New methods for dashboard statistics
     long countByStatus(String status);
@@ -44,7 +152,9 @@ public interface VaccinationRecordRepository extends JpaRepository<VaccinationRe
     
     List<VaccinationRecord> findByStatus(String status);
 
-    @Query("SELECT vr FROM VaccinationRecord vr WHERE vr.vaccinationDrive.vaccine.id = :vaccineId")
+    @EntityGraph(VaccinationRecord.WITH_STUDENT_AND_DRIVE)
+    @Query(value = "SELECT vr FROM VaccinationRecord vr WHERE vr.vaccinationDrive.vaccine.id = :vaccineId",
+           countQuery = "SELECT COUNT(vr) FROM VaccinationRecord vr WHERE vr.vaccinationDrive.vaccine.id = :vaccineId")
     Page<VaccinationRecord> findByVaccineId(@Param("vaccineId") Long vaccineId, Pageable pageable);
     
     @Query("SELECT CASE WHEN COUNT(v) > 0 THEN true ELSE false END FROM VaccinationRecord v WHERE v.vaccinationDrive.vaccine.id = :vaccineId")
@@ -0,0 +1,68 @@
+package com.school.vaccineportalbackend.repository;
+
+import com.school.vaccineportalbackend.model.VaccinationReportEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface VaccinationReportEntryRepository extends JpaRepository<VaccinationReportEntry, Long>, JpaSpecificationExecutor<VaccinationReportEntry> {
+    // Builds report rows from the live join; each insert below appends its own WHERE clause
+    String INSERT_ENTRIES = "INSERT INTO VaccinationReportEntry (id, studentId, studentName, grade, driveId, " +
+            "vaccineId, vaccineName, doseNumber, vaccinationDate, batchNumber, administeredBy, vaccinationSite, " +
+            "status, sideEffects, nextDoseDate, notes, createdAt, updatedAt) " +
+            "SELECT vr.id, s.studentId, s.name, s.grade, d.id, v.id, v.name, vr.doseNumber, vr.vaccinationDate, " +
+            "vr.batchNumber, vr.administeredBy, vr.vaccinationSite, vr.status, vr.sideEffects, vr.nextDoseDate, " +
+            "vr.notes, vr.createdAt, vr.updatedAt " +
+            "FROM VaccinationRecord vr JOIN vr.student s JOIN vr.vaccinationDrive d JOIN d.vaccine v ";
+
+    @Modifying(flushAutomatically = true)
+    @Query(INSERT_ENTRIES)
+    int insertAll();
+
+    @Modifying(flushAutomatically = true)
+    @Query(INSERT_ENTRIES + "WHERE vr.id IN :recordIds")
+    int insertByRecordIds(@Param("recordIds") Collection<Long> recordIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(INSERT_ENTRIES + "WHERE s.studentId IN :studentIds")
+    int insertByStudentIds(@Param("studentIds") Collection<String> studentIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(INSERT_ENTRIES + "WHERE d.id IN :driveIds")
+    int insertByDriveIds(@Param("driveIds") Collection<Long> driveIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(INSERT_ENTRIES + "WHERE v.id = :vaccineId")
+    int insertByVaccineId(@Param("vaccineId") Long vaccineId);
+
+    // Entries copy their record's updatedAt, so this matches the records' maximum while the table is current
+    @Query("SELECT MAX(e.updatedAt) FROM VaccinationReportEntry e")
+    Optional<LocalDateTime> findLastUpdatedAt();
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM VaccinationReportEntry e")
+    int deleteAllEntries();
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM VaccinationReportEntry e WHERE e.id IN :recordIds")
+    int deleteByRecordIds(@Param("recordIds") Collection<Long> recordIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM VaccinationReportEntry e WHERE e.studentId IN :studentIds")
+    int deleteByStudentIds(@Param("studentIds") Collection<String> studentIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM VaccinationReportEntry e WHERE e.driveId IN :driveIds")
+    int deleteByDriveIds(@Param("driveIds") Collection<Long> driveIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM VaccinationReportEntry e WHERE e.vaccineId = :vaccineId")
+    int deleteByVaccineId(@Param("vaccineId") Long vaccineId);
+}
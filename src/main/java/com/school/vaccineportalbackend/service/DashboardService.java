@@ -3,7 +3,6 @@ package com.school.vaccineportalbackend.service;
 import com.school.vaccineportalbackend.dto.DashboardStatsDTO;
 import com.school.vaccineportalbackend.dto.VaccinationDriveDTO;
 import com.school.vaccineportalbackend.model.Student;
-import com.school.vaccineportalbackend.model.VaccinationDrive;
 import com.school.vaccineportalbackend.model.VaccinationRecord;
 import com.school.vaccineportalbackend.repository.StudentRepository;
 import com.school.vaccineportalbackend.repository.VaccinationDriveRepository;
@@ -15,7 +14,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class DashboardService {
@@ -107,13 +105,8 @@ public class DashboardService {
         LocalDate today = LocalDate.now();
         LocalDate thirtyDaysFromNow = today.plusDays(30);
         
-        List<VaccinationDrive> upcomingDrives = vaccinationDriveRepository
-                .findByDriveDateBetweenAndIsActiveTrue(today, thirtyDaysFromNow, null)
-                .getContent();
-
-        List<VaccinationDriveDTO> driveDTOs = upcomingDrives.stream()
-                .map(vaccinationDriveService::convertToDTO)
-                .collect(Collectors.toList());
+        List<VaccinationDriveDTO> driveDTOs = vaccinationDriveRepository
+                .findActiveDTOsByDriveDateBetween(today, thirtyDaysFromNow);
 
         return new DashboardStatsDTO.UpcomingDrives(driveDTOs);
     }
@@ -0,0 +1,131 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Bounded LRU cache of the highest dose recorded for each (student, drive) pair,
+ * so dose sequence checks on record writes run in memory. Entries change only
+ * when the writing transaction commits and are dropped when it rolls back. The
+ * unique constraint on (student_id, vaccination_drive_id, dose_number) remains
+ * the source of truth: a write that slips past a stale entry fails at the
+ * database, and its rollback evicts the entry. A load that overlaps a committed
+ * write is returned but not cached, since it may have read the row before it.
+ */
+@Component
+public class DoseStateCache {
+
+    /** Last dose for a pair; {@code lastDose} is 0 and status null when none exists. */
+    public record DoseState(int lastDose, String status) {
+        static final DoseState NONE = new DoseState(0, null);
+    }
+
+    public record Key(String studentId, Long driveId) {
+    }
+
+    @Autowired
+    private VaccinationRecordRepository vaccinationRecordRepository;
+
+    private final Map<Key, DoseState> entries;
+    // Bumped by every committed write or invalidation; guarded by entries
+    private long generation;
+
+    public DoseStateCache(@Value("${vaccination-record.dose-cache.max-entries:100000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, DoseState> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public DoseState get(String studentId, Long driveId) {
+        Key key = new Key(studentId, driveId);
+        long loadedAt;
+        synchronized (entries) {
+            DoseState state = entries.get(key);
+            if (state != null) {
+                return state;
+            }
+            loadedAt = generation;
+        }
+        List<Object[]> rows = vaccinationRecordRepository.findDoseStates(studentId, driveId, PageRequest.of(0, 1));
+        DoseState loaded = rows.isEmpty()
+            ? DoseState.NONE
+            : new DoseState((Integer) rows.get(0)[0], (String) rows.get(0)[1]);
+        synchronized (entries) {
+            // A write committed while loading may be missing from what was read
+            if (generation == loadedAt) {
+                entries.putIfAbsent(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Records a validated dose write once the surrounding transaction commits. A
+     * dose below the cached last dose leaves the entry alone; an uncached pair stays
+     * uncached, as the write alone does not tell its last dose.
+     */
+    public void onRecorded(String studentId, Long driveId, int doseNumber, String status) {
+        Key key = new Key(studentId, driveId);
+        afterCompletion(committed -> {
+            synchronized (entries) {
+                if (!committed) {
+                    entries.remove(key);
+                    return;
+                }
+                generation++;
+                DoseState current = entries.get(key);
+                if (current != null && current.lastDose() <= doseNumber) {
+                    entries.put(key, new DoseState(doseNumber, status));
+                }
+            }
+        });
+    }
+
+    public void invalidate(String studentId, Long driveId) {
+        invalidate(List.of(new Key(studentId, driveId)));
+    }
+
+    /** Drops the pairs when the surrounding transaction completes, whatever its outcome. */
+    public void invalidate(Collection<Key> keys) {
+        List<Key> pairs = List.copyOf(keys);
+        afterCompletion(committed -> {
+            synchronized (entries) {
+                generation++;
+                pairs.forEach(entries::remove);
+            }
+        });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            action.accept(true);
+        }
+    }
+}
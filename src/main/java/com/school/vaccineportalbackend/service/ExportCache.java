@@ -0,0 +1,257 @@
+package com.school.vaccineportalbackend.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+/**
+ * Generated record exports kept on disk, keyed by format, normalized filters and
+ * the report's data version, so asking for the same report again while nothing
+ * has been written is answered from a file without touching the database. An
+ * export is written to the client and the cache file at the same time. Entries
+ * are evicted least recently used first to stay within
+ * {@code export.cache.max-bytes}, and expire after
+ * {@code export.cache.max-age-minutes} to bound how stale writes made by other
+ * instances can leave them.
+ */
+@Component
+public class ExportCache {
+    private static final Logger logger = LogManager.getLogger(ExportCache.class);
+    // The filters the record exports apply; anything else in a request does not change the file
+    private static final List<String> FILTER_KEYS = List.of("vaccineName", "status", "grade", "startDate", "endDate");
+
+    /** Identifies one export of the report at one data version. */
+    public record Key(String format, String filters, long dataVersion) {
+        // The filters go in as the first 96 bits of their SHA-256, which also keeps the tag ASCII
+        public String etag() {
+            byte[] digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256").digest(filters.getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+            return "\"" + Long.toString(dataVersion, 36) + "-" + format + "-"
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12)) + "\"";
+        }
+    }
+
+    private record Entry(Path file, long size, long createdAt) {
+    }
+
+    @Autowired
+    private VaccinationReportService vaccinationReportService;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+    private long hits;
+    private long misses;
+
+    public ExportCache(@Value("${export.cache.dir:${java.io.tmpdir}/vaccine-portal/export-cache}") String dir,
+                       @Value("${export.cache.max-bytes:268435456}") long maxBytes,
+                       @Value("${export.cache.max-age-minutes:10}") long maxAgeMinutes) throws IOException {
+        this.directory = Files.createDirectories(Paths.get(dir));
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAgeMinutes * 60_000;
+        // Entries live in memory, so files from a previous run can never be hit
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(ExportCache::deleteQuietly);
+        }
+    }
+
+    /** Key for the export as the data stands now. Vaccine names match case-insensitively, so they are lower-cased. */
+    public Key key(Map<String, String> filters, String format) {
+        StringJoiner normalized = new StringJoiner("&");
+        for (String name : FILTER_KEYS) {
+            String value = filters.get(name);
+            if (value != null && !value.isEmpty()) {
+                normalized.add(name + "=" + (name.equals("vaccineName") ? value.toLowerCase(Locale.ROOT) : value));
+            }
+        }
+        return new Key(format.toLowerCase(Locale.ROOT), normalized.toString(), vaccinationReportService.getDataVersion());
+    }
+
+    /**
+     * Whether a client holding {@code ifNoneMatch} already has this export. Only
+     * true while the entry is cached, so the answer expires with it.
+     */
+    public boolean isNotModified(Key key, String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String etag = key.etag();
+        boolean matches = false;
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            // If-None-Match uses weak comparison
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            matches |= candidate.equals(etag) || candidate.equals("*");
+        }
+        return matches && lookup(key) != null;
+    }
+
+    /**
+     * Writes the export to {@code out}, from the cache when it holds {@code key},
+     * otherwise by running {@code generator} and keeping what it wrote.
+     */
+    public void write(Key key, OutputStream out, StreamingResponseBody generator) throws IOException {
+        Entry entry = lookup(key);
+        if (entry != null) {
+            try {
+                Files.copy(entry.file(), out);
+                return;
+            } catch (NoSuchFileException e) {
+                // Evicted since the lookup; nothing was written yet, so generate it
+            }
+        }
+
+        Path file = Files.createTempFile(directory, "export-", "." + key.format());
+        boolean stored = false;
+        try {
+            long size;
+            try (OutputStream copy = new BufferedOutputStream(Files.newOutputStream(file))) {
+                TeeOutputStream tee = new TeeOutputStream(out, copy);
+                generator.writeTo(tee);
+                tee.flush();
+                size = tee.written;
+            }
+            stored = put(key, new Entry(file, size, System.currentTimeMillis()));
+        } finally {
+            if (!stored) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        return Map.of(
+            "entries", entries.size(),
+            "bytes", totalBytes,
+            "maxBytes", maxBytes,
+            "hits", hits,
+            "misses", misses);
+    }
+
+    private synchronized Entry lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && System.currentTimeMillis() - entry.createdAt() > maxAgeMillis) {
+            remove(key);
+            entry = null;
+        }
+        if (entry != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return entry;
+    }
+
+    private synchronized boolean put(Key key, Entry entry) {
+        long currentVersion = vaccinationReportService.getDataVersion();
+        // Written while the data changed, or too big to keep
+        if (key.dataVersion() != currentVersion || entry.size() > maxBytes) {
+            return false;
+        }
+        // Entries for older versions can never be asked for again
+        entries.entrySet().removeIf(cached -> {
+            if (cached.getKey().dataVersion() < currentVersion || cached.getKey().equals(key)) {
+                release(cached.getValue());
+                return true;
+            }
+            return false;
+        });
+        entries.put(key, entry);
+        totalBytes += entry.size();
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, Entry> evicted = eldest.next();
+            eldest.remove();
+            release(evicted.getValue());
+            logger.debug("Evicted cached export {}", evicted.getKey());
+        }
+        return true;
+    }
+
+    private void remove(Key key) {
+        release(entries.remove(key));
+    }
+
+    private void release(Entry entry) {
+        totalBytes -= entry.size();
+        deleteQuietly(entry.file());
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete cached export {}", file, e);
+        }
+    }
+
+    // Sends every byte to the client and the cache file
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
+        private long written;
+
+        private TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+            written += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+
+        // The caller owns both streams
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
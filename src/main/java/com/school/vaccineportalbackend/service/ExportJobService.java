@@ -0,0 +1,207 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.dto.ExportJobStatus;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Runs record exports in the background. A fixed pool of workers behind a bounded
+ * queue writes each export to a file in the spool directory; callers poll the job
+ * and then download the file, resuming with {@code Range} requests if the transfer
+ * breaks. Finished jobs are dropped after {@code export.job.retention-minutes}, and
+ * the oldest completed files are expired early once the spool exceeds
+ * {@code export.job.max-spool-bytes}.
+ */
+@Service
+public class ExportJobService {
+    private static final Logger logger = LogManager.getLogger(ExportJobService.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    /** A completed export on disk. */
+    public record ExportFile(Path path, long size, String fileName, MediaType mediaType) {
+    }
+
+    private final ExportService exportService;
+    private final Path spoolDirectory;
+    private final long maxSpoolBytes;
+    private final JobRunner<Job> runner;
+
+    @Autowired
+    public ExportJobService(ExportService exportService,
+                            @Value("${export.job.spool-dir:${java.io.tmpdir}/vaccine-portal/exports}") String spoolDir,
+                            @Value("${export.job.workers:2}") int workers,
+                            @Value("${export.job.queue-capacity:20}") int queueCapacity,
+                            @Value("${export.job.retention-minutes:60}") long retentionMinutes,
+                            @Value("${export.job.max-spool-bytes:1073741824}") long maxSpoolBytes) throws IOException {
+        this.exportService = exportService;
+        this.spoolDirectory = Files.createDirectories(Paths.get(spoolDir));
+        this.maxSpoolBytes = maxSpoolBytes;
+        deleteOrphanedFiles();
+        this.runner = new JobRunner<>("record-export", workers, queueCapacity, retentionMinutes, job -> enforceQuota());
+    }
+
+    /**
+     * Queues an export of the records matching {@code filters}.
+     *
+     * @param format {@code csv} or {@code pdf}
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public ExportJobStatus submit(Map<String, String> filters, String format) {
+        Job job = new Job(Map.copyOf(filters), format);
+        job.file = spoolDirectory.resolve(job.id + "." + format);
+        runner.submit(job, () -> run(job));
+        logger.info("Queued {} export job {} with filters: {}", format, job.id, filters);
+        return job.toStatus();
+    }
+
+    public Optional<ExportJobStatus> getStatus(String jobId) {
+        return runner.get(jobId).map(Job::toStatus);
+    }
+
+    /** The job's file, once it has completed and until it expires. */
+    public Optional<ExportFile> getFile(String jobId) {
+        Job job = runner.get(jobId).orElse(null);
+        if (job == null || !JobRunner.COMPLETED.equals(job.state)) {
+            return Optional.empty();
+        }
+        MediaType mediaType = "pdf".equals(job.format) ? MediaType.APPLICATION_PDF : MediaType.parseMediaType("text/csv");
+        return Optional.of(new ExportFile(job.file, job.size, job.fileName, mediaType));
+    }
+
+    /**
+     * Copies {@code count} bytes from {@code position} in the file to {@code out}
+     * with {@link FileChannel#transferTo}, without staging them in the heap.
+     */
+    public void transfer(ExportFile file, long position, long count, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            while (count > 0) {
+                long sent = channel.transferTo(position, count, target);
+                if (sent <= 0) {
+                    throw new EOFException("Export file " + file.path() + " ended at " + position);
+                }
+                position += sent;
+                count -= sent;
+            }
+        }
+    }
+
+    private void run(Job job) throws IOException {
+        // Written under a temporary name so a half-written file is never served
+        Path partFile = spoolDirectory.resolve(job.id + ".part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partFile))) {
+                if ("pdf".equals(job.format)) {
+                    exportService.exportToPdf(job.filters, out);
+                } else {
+                    exportService.exportToCsv(job.filters, out);
+                }
+            }
+            Files.move(partFile, job.file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(partFile);
+            throw e;
+        }
+        job.size = Files.size(job.file);
+        logger.info("Export job {} wrote {} bytes", job.id, job.size);
+    }
+
+    @Scheduled(fixedDelayString = "${export.job.cleanup-interval-ms:300000}")
+    public synchronized void evictExpiredJobs() {
+        runner.evictFinished(job -> deleteQuietly(job.file));
+        enforceQuota();
+    }
+
+    // Expires the oldest completed files until the spool fits the quota again
+    private synchronized void enforceQuota() {
+        List<Job> completed = runner.jobs().stream()
+                .filter(job -> JobRunner.COMPLETED.equals(job.state))
+                .sorted(Comparator.comparing(job -> job.finishedAt))
+                .toList();
+        long total = completed.stream().mapToLong(job -> job.size).sum();
+        for (Job job : completed) {
+            if (total <= maxSpoolBytes) {
+                break;
+            }
+            job.state = JobRunner.EXPIRED;
+            deleteQuietly(job.file);
+            total -= job.size;
+            logger.info("Expired export job {} to keep the spool under {} bytes", job.id, maxSpoolBytes);
+        }
+    }
+
+    // Jobs live in memory, so files left by a previous run can never be downloaded
+    private void deleteOrphanedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            files.forEach(ExportJobService::deleteQuietly);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete spooled export {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdown();
+    }
+
+    private static final class Job extends JobRunner.Job {
+        private final Map<String, String> filters;
+        private final String format;
+        private final String fileName;
+        private Path file;
+        private volatile long size;
+
+        private Job(Map<String, String> filters, String format) {
+            this.filters = filters;
+            this.format = format;
+            this.fileName = "vaccination_records_" + submittedAt.format(FILE_TIMESTAMP) + "." + format;
+        }
+
+        private ExportJobStatus toStatus() {
+            ExportJobStatus status = new ExportJobStatus();
+            status.setJobId(id);
+            status.setFormat(format);
+            status.setFilters(filters);
+            status.setState(state);
+            status.setFileName(fileName);
+            status.setSize(size);
+            status.setError(failure);
+            status.setSubmittedAt(submittedAt);
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            return status;
+        }
+    }
+}
@@ -1,207 +1,174 @@
 package com.school.vaccineportalbackend.service;
 
+import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.school.vaccineportalbackend.model.VaccinationRecord;
+import com.school.vaccineportalbackend.model.VaccinationReportEntry;
 import com.school.vaccineportalbackend.model.VaccinationDrive;
-import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
 import com.school.vaccineportalbackend.repository.VaccinationDriveRepository;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ExportService {
     private static final Logger logger = LogManager.getLogger(ExportService.class);
     
-    private final VaccinationRecordRepository vaccinationRecordRepository;
     private final VaccinationDriveRepository vaccinationDriveRepository;
+    private final VaccinationReportService vaccinationReportService;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Drive dates have no time of day; DATE_FORMATTER would fail on them
+    private static final DateTimeFormatter DRIVE_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final char LIKE_ESCAPE = '\\';
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${export.csv.flush-rows:1000}")
+    private int csvFlushRows;
+
+    @Value("${export.pdf.flush-rows:200}")
+    private int pdfFlushRows;
 
     @Autowired
-    public ExportService(VaccinationRecordRepository vaccinationRecordRepository, VaccinationDriveRepository vaccinationDriveRepository) {
-        this.vaccinationRecordRepository = vaccinationRecordRepository;
+    public ExportService(VaccinationDriveRepository vaccinationDriveRepository,
+                         VaccinationReportService vaccinationReportService) {
         this.vaccinationDriveRepository = vaccinationDriveRepository;
+        this.vaccinationReportService = vaccinationReportService;
     }
 
+    /**
+     * Writes the filtered records as CSV straight to {@code out}, reading them through
+     * a database cursor and flushing every {@code export.csv.flush-rows} rows, so the
+     * export size is bounded by neither the heap nor a response buffer.
+     */
     @Transactional(readOnly = true)
-    public byte[] exportToCsv(Map<String, String> filters) throws IOException {
+    public void exportToCsv(Map<String, String> filters, OutputStream out) throws IOException {
         logger.info("Exporting vaccination records to CSV with filters: {}", filters);
-        
-        List<VaccinationRecord> records = getFilteredRecords(filters);
-        logger.debug("Found {} records to export", records.size());
-        
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        OutputStreamWriter writer = new OutputStreamWriter(out);
-        
-        try (CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT
-                .withHeader("Student ID", "Student Name", "Vaccine", "Date", "Grade", "Status", "Dose Number", "Batch Number", "Administered By"))) {
-            
-            for (VaccinationRecord record : records) {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.builder()
+                .setHeader("Student ID", "Student Name", "Vaccine", "Date", "Grade", "Status", "Dose Number", "Batch Number", "Administered By")
+                .build());
+
+        int exported = 0;
+        try (Stream<VaccinationReportEntry> records = streamFilteredRecords(filters)) {
+            Iterator<VaccinationReportEntry> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                VaccinationReportEntry record = iterator.next();
                 csvPrinter.printRecord(
-                    record.getStudent().getStudentId(),
-                    record.getStudent().getName(),
-                    record.getVaccinationDrive().getVaccine().getName(),
+                    record.getStudentId(),
+                    record.getStudentName(),
+                    record.getVaccineName(),
                     record.getVaccinationDate().format(DATE_FORMATTER),
-                    record.getStudent().getGrade(),
+                    record.getGrade(),
                     record.getStatus(),
                     record.getDoseNumber(),
                     record.getBatchNumber(),
                     record.getAdministeredBy()
                 );
+                // Push finished rows to the client instead of holding them in the writer
+                if (++exported % csvFlushRows == 0) {
+                    csvPrinter.flush();
+                }
             }
         }
-        
-        logger.debug("Generated CSV export with {} bytes", out.toByteArray().length);
-        return out.toByteArray();
+        csvPrinter.flush();
+
+        logger.debug("Exported {} records to CSV", exported);
     }
 
+    /**
+     * Writes the filtered records as a PDF straight to {@code out}. Rows come from a
+     * database cursor and go into a large table that is flushed every
+     * {@code export.pdf.flush-rows} rows, so finished pages are written out and
+     * released instead of the whole table being laid out at the end.
+     */
     @Transactional(readOnly = true)
-    public byte[] exportToPdf(Map<String, String> filters) throws IOException {
+    public void exportToPdf(Map<String, String> filters, OutputStream out) throws IOException {
         logger.info("Exporting vaccination records to PDF with filters: {}", filters);
-        
-        List<VaccinationRecord> records = getFilteredRecords(filters);
-        logger.debug("Found {} records to export", records.size());
-        
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(out);
-        PdfDocument pdf = new PdfDocument(writer);
-        Document document = new Document(pdf);
-
-        // Add title
-        Paragraph title = new Paragraph("Vaccination Records Report")
-            .setTextAlignment(TextAlignment.CENTER)
-            .setFontSize(20)
-            .setBold();
-        document.add(title);
-
-        // Add filters info
-        if (!filters.isEmpty()) {
-            Paragraph filtersInfo = new Paragraph("Filters Applied:")
-                .setFontSize(12)
-                .setMarginTop(10);
-            document.add(filtersInfo);
-            
-            for (Map.Entry<String, String> entry : filters.entrySet()) {
-                if (entry.getValue() != null && !entry.getValue().isEmpty()) {
-                    document.add(new Paragraph(entry.getKey() + ": " + entry.getValue())
-                        .setFontSize(10)
-                        .setMarginLeft(20));
-                }
-            }
-        }
-
-        // Create table
-        Table table = new Table(UnitValue.createPercentArray(new float[]{15, 15, 15, 10, 10, 10, 15, 10}))
-            .useAllAvailableWidth()
-            .setMarginTop(20);
-
-        // Add headers
-        String[] headers = {"Student ID", "Student Name", "Vaccine", "Date", "Grade", "Status", "Dose", "Batch"};
-        for (String header : headers) {
-            table.addHeaderCell(new Cell()
-                .setBackgroundColor(ColorConstants.LIGHT_GRAY)
-                .setBold()
-                .setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(header)));
+        try (Stream<VaccinationReportEntry> records = streamFilteredRecords(filters)) {
+            writeRecordsPdf(filters, records.iterator(), out);
         }
+    }
 
-        // Add data rows
-        for (VaccinationRecord record : records) {
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(record.getStudent().getStudentId())));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(record.getStudent().getName())));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(record.getVaccinationDrive().getVaccine().getName())));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(record.getVaccinationDate().format(DATE_FORMATTER))));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(record.getStudent().getGrade())));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(record.getStatus())));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(String.valueOf(record.getDoseNumber()))));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(record.getBatchNumber())));
+    int writeRecordsPdf(Map<String, String> filters, Iterator<VaccinationReportEntry> records, OutputStream out) {
+        PdfReport report = PdfReport.open(out, "Vaccination Records Report", filters);
+        Table table = report.startTable(new float[]{15, 15, 15, 10, 10, 10, 15, 10},
+            "Student ID", "Student Name", "Vaccine", "Date", "Grade", "Status", "Dose", "Batch");
+
+        int exported = 0;
+        while (records.hasNext()) {
+            VaccinationReportEntry record = records.next();
+            report.addCell(record.getStudentId());
+            report.addCell(record.getStudentName());
+            report.addCell(record.getVaccineName());
+            report.addCell(record.getVaccinationDate().format(DATE_FORMATTER));
+            report.addCell(record.getGrade());
+            report.addCell(record.getStatus());
+            report.addCell(record.getDoseNumber());
+            report.addCell(record.getBatchNumber());
+            if (++exported % pdfFlushRows == 0) {
+                table.flush();
+            }
         }
+        report.close();
 
-        document.add(table);
-
-        // Add footer with date
-        Paragraph footer = new Paragraph("Generated on: " + LocalDateTime.now().format(DATE_FORMATTER))
-            .setTextAlignment(TextAlignment.CENTER)
-            .setFontSize(10)
-            .setMarginTop(20);
-        document.add(footer);
-
-        document.close();
-        logger.debug("Generated PDF export with {} bytes", out.toByteArray().length);
-        return out.toByteArray();
+        logger.debug("Exported {} records to PDF", exported);
+        return exported;
     }
 
-    private List<VaccinationRecord> getFilteredRecords(Map<String, String> filters) {
-        logger.debug("Filtering vaccination records with criteria - filters: {}", filters);
-        
-        List<VaccinationRecord> records = vaccinationRecordRepository.findAll();
-        
-        return records.stream()
-            .filter(record -> {
-                boolean matches = true;
-
-                // Filter by date range
-                if (filters.containsKey("startDate") && !filters.get("startDate").isEmpty()) {
-                    LocalDateTime startDate = LocalDateTime.parse(filters.get("startDate") + "T00:00:00");
-                    matches &= !record.getVaccinationDate().isBefore(startDate);
-                }
-                if (filters.containsKey("endDate") && !filters.get("endDate").isEmpty()) {
-                    LocalDateTime endDate = LocalDateTime.parse(filters.get("endDate") + "T23:59:59");
-                    matches &= !record.getVaccinationDate().isAfter(endDate);
-                }
-
-                // Filter by vaccine
-                if (filters.containsKey("vaccineName") && !filters.get("vaccineName").isEmpty()) {
-                    matches &= record.getVaccinationDrive().getVaccine().getName()
-                        .equalsIgnoreCase(filters.get("vaccineName"));
-                }
-
-                // Filter by grade
-                if (filters.containsKey("grade") && !filters.get("grade").isEmpty()) {
-                    matches &= record.getStudent().getGrade().equals(filters.get("grade"));
-                }
-
-                // Filter by status
-                if (filters.containsKey("status") && !filters.get("status").isEmpty()) {
-                    matches &= record.getStatus().equals(filters.get("status"));
-                }
+    // Filters are applied by the report table query; dates are yyyy-MM-dd
+    private Stream<VaccinationReportEntry> streamFilteredRecords(Map<String, String> filters) {
+        return vaccinationReportService.streamEntries(
+            filters.get("vaccineName"),
+            filters.get("status"),
+            filters.get("grade"),
+            parseDate(filters.get("startDate")),
+            parseDate(filters.get("endDate")),
+            fetchSize);
+    }
 
-                return matches;
-            })
-            .collect(Collectors.toList());
+    private static LocalDate parseDate(String value) {
+        return value == null || value.isEmpty() ? null : LocalDate.parse(value);
     }
 
     @Transactional(readOnly = true)
@@ -222,7 +189,7 @@ public class ExportService {
                 csvPrinter.printRecord(
                     drive.getId(),
                     drive.getVaccine().getName(),
-                    drive.getDriveDate().format(DATE_FORMATTER),
+                    drive.getDriveDate().format(DRIVE_DATE_FORMATTER),
                     drive.getAvailableDoses(),
                     drive.getApplicableGrades(),
                     drive.getMinimumAge(),
@@ -239,123 +206,40 @@ public class ExportService {
     }
 
     @Transactional(readOnly = true)
-    public byte[] exportDrivesToPdf(Map<String, String> filters) throws IOException {
+    public void exportDrivesToPdf(Map<String, String> filters, OutputStream out) throws IOException {
         logger.info("Exporting vaccination drives to PDF with filters: {}", filters);
         
         List<VaccinationDrive> drives = getFilteredDrives(filters);
         logger.debug("Found {} drives to export", drives.size());
-        
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(out);
-        PdfDocument pdf = new PdfDocument(writer);
-        Document document = new Document(pdf);
-
-        // Add title
-        Paragraph title = new Paragraph("Vaccination Drives Report")
-            .setTextAlignment(TextAlignment.CENTER)
-            .setFontSize(20)
-            .setBold();
-        document.add(title);
-
-        // Add filters info
-        if (!filters.isEmpty()) {
-            Paragraph filtersInfo = new Paragraph("Filters Applied:")
-                .setFontSize(12)
-                .setMarginTop(10);
-            document.add(filtersInfo);
-            
-            for (Map.Entry<String, String> entry : filters.entrySet()) {
-                if (entry.getValue() != null && !entry.getValue().isEmpty()) {
-                    document.add(new Paragraph(entry.getKey() + ": " + entry.getValue())
-                        .setFontSize(10)
-                        .setMarginLeft(20));
-                }
-            }
-        }
-
-        // Create table
-        Table table = new Table(UnitValue.createPercentArray(new float[]{10, 15, 15, 10, 15, 10, 10, 15}))
-            .useAllAvailableWidth()
-            .setMarginTop(20);
 
-        // Add headers
-        String[] headers = {"Drive ID", "Vaccine", "Date", "Doses", "Grades", "Min Age", "Max Age", "Status"};
-        for (String header : headers) {
-            table.addHeaderCell(new Cell()
-                .setBackgroundColor(ColorConstants.LIGHT_GRAY)
-                .setBold()
-                .setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(header)));
-        }
+        PdfReport report = PdfReport.open(out, "Vaccination Drives Report", filters);
+        Table table = report.startTable(new float[]{10, 15, 15, 10, 15, 10, 10, 15},
+            "Drive ID", "Vaccine", "Date", "Doses", "Grades", "Min Age", "Max Age", "Status");
 
-        // Add data rows
+        int exported = 0;
         for (VaccinationDrive drive : drives) {
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(String.valueOf(drive.getId()))));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(drive.getVaccine().getName())));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(drive.getDriveDate().format(DATE_FORMATTER))));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(String.valueOf(drive.getAvailableDoses()))));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(drive.getApplicableGrades())));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(String.valueOf(drive.getMinimumAge()))));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(String.valueOf(drive.getMaximumAge()))));
-            table.addCell(new Cell().setTextAlignment(TextAlignment.CENTER)
-                .add(new Paragraph(drive.getStatus())));
+            report.addCell(drive.getId());
+            report.addCell(drive.getVaccine().getName());
+            report.addCell(drive.getDriveDate().format(DRIVE_DATE_FORMATTER));
+            report.addCell(drive.getAvailableDoses());
+            report.addCell(drive.getApplicableGrades());
+            report.addCell(drive.getMinimumAge());
+            report.addCell(drive.getMaximumAge());
+            report.addCell(drive.getStatus());
+            if (++exported % pdfFlushRows == 0) {
+                table.flush();
+            }
         }
-
-        document.add(table);
-
-        // Add footer with date
-        Paragraph footer = new Paragraph("Generated on: " + LocalDateTime.now().format(DATE_FORMATTER))
-            .setTextAlignment(TextAlignment.CENTER)
-            .setFontSize(10)
-            .setMarginTop(20);
-        document.add(footer);
-
-        document.close();
-        logger.debug("Generated PDF export with {} bytes", out.toByteArray().length);
-        return out.toByteArray();
+        report.close();
     }
 
+    // Filters are applied by the drive query; dates are yyyy-MM-dd
     private List<VaccinationDrive> getFilteredDrives(Map<String, String> filters) {
         logger.debug("Filtering vaccination drives with criteria - filters: {}", filters);
-        
-        List<VaccinationDrive> drives = vaccinationDriveRepository.findAll();
-        
-        return drives.stream()
-            .filter(drive -> {
-                boolean matches = true;
-
-                // Filter by date range
-                if (filters.containsKey("startDate") && !filters.get("startDate").isEmpty()) {
-                    LocalDateTime startDate = LocalDateTime.parse(filters.get("startDate") + "T00:00:00");
-                    LocalDate startDateLocal = startDate.toLocalDate();
-                    matches &= !drive.getDriveDate().isBefore(startDateLocal);
-                }
-                if (filters.containsKey("endDate") && !filters.get("endDate").isEmpty()) {
-                    LocalDateTime endDate = LocalDateTime.parse(filters.get("endDate") + "T23:59:59");
-                    LocalDate endDateLocal = endDate.toLocalDate();
-                    matches &= !drive.getDriveDate().isAfter(endDateLocal);
-                }
-
-                // Filter by status
-                if (filters.containsKey("status") && !filters.get("status").isEmpty()) {
-                    matches &= drive.getStatus().equals(filters.get("status"));
-                }
-
-                // Filter by grade
-                if (filters.containsKey("grade") && !filters.get("grade").isEmpty()) {
-                    matches &= drive.getApplicableGrades().contains(filters.get("grade"));
-                }
-
-                return matches;
-            })
-            .collect(Collectors.toList());
+        return vaccinationDriveRepository.findAll(
+            driveFilter(filters.get("status"), false, filters.get("grade"),
+                parseDate(filters.get("startDate")), parseDate(filters.get("endDate"))),
+            Sort.by("id"));
     }
 
     public ResponseEntity<byte[]> exportVaccinationRecords(
@@ -365,7 +249,7 @@ public class ExportService {
             vaccineName, status, grade, startDate, endDate, format);
         
         try {
-            List<VaccinationRecord> records = getFilteredRecords(vaccineName, status, grade, startDate, endDate);
+            List<VaccinationReportEntry> records = getFilteredRecords(vaccineName, status, grade, startDate, endDate);
             logger.debug("Found {} records to export", records.size());
             
             byte[] content;
@@ -373,12 +257,16 @@ public class ExportService {
             String contentType;
             
             if ("pdf".equalsIgnoreCase(format)) {
-                content = exportToPdf(Map.of("vaccineName", vaccineName, "status", status, "grade", grade, "startDate", startDate.toString(), "endDate", endDate.toString()));
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                exportToPdf(Map.of("vaccineName", vaccineName, "status", status, "grade", grade, "startDate", startDate.toString(), "endDate", endDate.toString()), buffer);
+                content = buffer.toByteArray();
                 filename = "vaccination_records.pdf";
                 contentType = "application/pdf";
                 logger.debug("Generated PDF export with {} bytes", content.length);
             } else {
-                content = exportToCsv(Map.of("vaccineName", vaccineName, "status", status, "grade", grade, "startDate", startDate.toString(), "endDate", endDate.toString()));
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                exportToCsv(Map.of("vaccineName", vaccineName, "status", status, "grade", grade, "startDate", startDate.toString(), "endDate", endDate.toString()), buffer);
+                content = buffer.toByteArray();
                 filename = "vaccination_records.csv";
                 contentType = "text/csv";
                 logger.debug("Generated CSV export with {} bytes", content.length);
@@ -408,7 +296,9 @@ public class ExportService {
             String contentType;
             
             if ("pdf".equalsIgnoreCase(format)) {
-                content = exportDrivesToPdf(Map.of("status", status, "grade", grade, "startDate", startDate.toString(), "endDate", endDate.toString()));
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                exportDrivesToPdf(Map.of("status", status, "grade", grade, "startDate", startDate.toString(), "endDate", endDate.toString()), buffer);
+                content = buffer.toByteArray();
                 filename = "vaccination_drives.pdf";
                 contentType = "application/pdf";
                 logger.debug("Generated PDF export with {} bytes", content.length);
@@ -429,26 +319,12 @@ public class ExportService {
         }
     }
 
-    private List<VaccinationRecord> getFilteredRecords(
+    private List<VaccinationReportEntry> getFilteredRecords(
             String vaccineName, String status, String grade,
             LocalDate startDate, LocalDate endDate) {
         logger.debug("Filtering vaccination records with criteria - vaccineName: {}, status: {}, grade: {}, startDate: {}, endDate: {}", 
             vaccineName, status, grade, startDate, endDate);
-        
-        List<VaccinationRecord> records = vaccinationRecordRepository.findAll();
-        
-        return records.stream()
-                .filter(record -> vaccineName == null || 
-                        record.getVaccinationDrive().getVaccine().getName().equalsIgnoreCase(vaccineName))
-                .filter(record -> status == null || 
-                        record.getStatus().equalsIgnoreCase(status))
-                .filter(record -> grade == null || 
-                        record.getStudent().getGrade().equals(grade))
-                .filter(record -> startDate == null || 
-                        record.getVaccinationDate().toLocalDate().isAfter(startDate.minusDays(1)))
-                .filter(record -> endDate == null || 
-                        record.getVaccinationDate().toLocalDate().isBefore(endDate.plusDays(1)))
-                .collect(Collectors.toList());
+        return vaccinationReportService.findEntries(vaccineName, status, grade, startDate, endDate);
     }
 
     private List<VaccinationDrive> getFilteredDrives(
@@ -456,18 +332,119 @@ public class ExportService {
         logger.debug("Filtering vaccination drives with criteria - status: {}, grade: {}, startDate: {}, endDate: {}", 
             status, grade, startDate, endDate);
         
-        List<VaccinationDrive> drives = vaccinationDriveRepository.findAll();
-        
-        return drives.stream()
-                .filter(drive -> status == null || 
-                        drive.getStatus().equalsIgnoreCase(status))
-                .filter(drive -> grade == null || 
-                        drive.getApplicableGrades().contains(grade))
-                .filter(drive -> startDate == null || 
-                        drive.getDriveDate().isAfter(startDate.minusDays(1)))
-                .filter(drive -> endDate == null || 
-                        drive.getDriveDate().isBefore(endDate.plusDays(1)))
-                .collect(Collectors.toList());
+        return vaccinationDriveRepository.findAll(driveFilter(status, true, grade, startDate, endDate), Sort.by("id"));
+    }
+
+    /**
+     * Drives whose status matches, whose applicable grades list {@code grade} and
+     * whose drive date falls within the inclusive range. Null or empty criteria are skipped.
+     */
+    private static Specification<VaccinationDrive> driveFilter(String status, boolean ignoreCase, String grade,
+                                                               LocalDate startDate, LocalDate endDate) {
+        Specification<VaccinationDrive> spec = Specification.where(null);
+        if (status != null && !status.isEmpty()) {
+            spec = spec.and(ignoreCase
+                ? (root, query, cb) -> cb.equal(cb.lower(root.get("status")), status.toLowerCase(Locale.ROOT))
+                : (root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        if (grade != null && !grade.isEmpty()) {
+            // Whole entries of the comma-separated list, so grade 1 does not match "10,11"
+            String pattern = "%," + escapeLike(grade.trim()) + ",%";
+            spec = spec.and((root, query, cb) -> cb.like(
+                cb.concat(cb.concat(",", root.get("applicableGrades")), ","), pattern, LIKE_ESCAPE));
+        }
+        if (startDate != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("driveDate"), startDate));
+        }
+        if (endDate != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("driveDate"), endDate));
+        }
+        return spec;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * One PDF export being written. Fonts are created once per document, as iText
+     * binds them to it, and every cell shares the same styles instead of carrying
+     * its own. The table is added in large-table mode: rows handed to it after a
+     * {@link Table#flush()} are laid out and written, and the page content released.
+     */
+    private static final class PdfReport {
+        private static final Style CELL_STYLE = new Style().setTextAlignment(TextAlignment.CENTER);
+
+        private final Document document;
+        private final Style headerStyle;
+        private Table table;
+
+        private PdfReport(Document document, PdfFont bold) {
+            this.document = document;
+            this.headerStyle = new Style()
+                .setFont(bold)
+                .setBackgroundColor(ColorConstants.LIGHT_GRAY)
+                .setTextAlignment(TextAlignment.CENTER);
+        }
+
+        static PdfReport open(OutputStream out, String title, Map<String, String> filters) {
+            PdfWriter writer = new PdfWriter(out);
+            // The caller owns the response stream
+            writer.setCloseStream(false);
+            Document document = new Document(new PdfDocument(writer));
+            PdfFont regular;
+            PdfFont bold;
+            try {
+                regular = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+                bold = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            document.setFont(regular);
+
+            document.add(new Paragraph(title)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setFontSize(20)
+                .setFont(bold));
+
+            if (!filters.isEmpty()) {
+                document.add(new Paragraph("Filters Applied:")
+                    .setFontSize(12)
+                    .setMarginTop(10));
+                for (Map.Entry<String, String> entry : filters.entrySet()) {
+                    if (entry.getValue() != null && !entry.getValue().isEmpty()) {
+                        document.add(new Paragraph(entry.getKey() + ": " + entry.getValue())
+                            .setFontSize(10)
+                            .setMarginLeft(20));
+                    }
+                }
+            }
+            return new PdfReport(document, bold);
+        }
+
+        Table startTable(float[] columnWidths, String... headers) {
+            table = new Table(UnitValue.createPercentArray(columnWidths), true)
+                .useAllAvailableWidth()
+                .setMarginTop(20);
+            for (String header : headers) {
+                table.addHeaderCell(new Cell().addStyle(headerStyle).add(new Paragraph(header)));
+            }
+            document.add(table);
+            return table;
+        }
+
+        void addCell(Object value) {
+            table.addCell(new Cell().addStyle(CELL_STYLE).add(new Paragraph(value == null ? "" : value.toString())));
+        }
+
+        void close() {
+            table.complete();
+            document.add(new Paragraph("Generated on: " + LocalDateTime.now().format(DATE_FORMATTER))
+                .setTextAlignment(TextAlignment.CENTER)
+                .setFontSize(10)
+                .setMarginTop(20));
+            document.close();
+        }
     }
 
     private byte[] generatePdf(List<?> data) throws IOException {
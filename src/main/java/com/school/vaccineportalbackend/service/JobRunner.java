@@ -0,0 +1,129 @@
+package com.school.vaccineportalbackend.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The worker pool and job bookkeeping behind the background job services: a fixed
+ * pool of daemon workers behind a bounded queue, the job states reported to
+ * callers, and removal of finished jobs once they pass the retention period.
+ */
+final class JobRunner<J extends JobRunner.Job> {
+    private static final Logger logger = LogManager.getLogger(JobRunner.class);
+
+    static final String QUEUED = "QUEUED";
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+    static final String EXPIRED = "EXPIRED";
+
+    /** The work of one job; throwing marks the job failed. */
+    @FunctionalInterface
+    interface Task {
+        void run() throws Exception;
+    }
+
+    abstract static class Job {
+        final String id = UUID.randomUUID().toString();
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        volatile String state = QUEUED;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile String failure;
+    }
+
+    private final String name;
+    private final long retentionMinutes;
+    private final Consumer<J> onFinished;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, J> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param name       prefix for worker thread names, e.g. {@code student-import}
+     * @param onFinished called on the worker after a job completes or fails
+     */
+    JobRunner(String name, int workers, int queueCapacity, long retentionMinutes, Consumer<J> onFinished) {
+        this.name = name;
+        this.retentionMinutes = retentionMinutes;
+        this.onFinished = onFinished;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Registers the job and queues its task.
+     *
+     * @throws RejectedExecutionException if the queue is full; the job is not kept
+     */
+    void submit(J job, Task task) {
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+    }
+
+    Optional<J> get(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    Collection<J> jobs() {
+        return jobs.values();
+    }
+
+    private void run(J job, Task task) {
+        job.state = RUNNING;
+        job.startedAt = LocalDateTime.now();
+        try {
+            task.run();
+            // finishedAt first, so a finished state always comes with its time
+            job.finishedAt = LocalDateTime.now();
+            job.state = COMPLETED;
+        } catch (Exception e) {
+            logger.error("{} job {} failed", name, job.id, e);
+            job.failure = e.getMessage();
+            job.finishedAt = LocalDateTime.now();
+            job.state = FAILED;
+        }
+        onFinished.accept(job);
+    }
+
+    /** Drops jobs that finished before the retention period, passing each to {@code onEvict}. */
+    void evictFinished(Consumer<J> onEvict) {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || !job.finishedAt.isBefore(cutoff)) {
+                return false;
+            }
+            onEvict.accept(job);
+            return true;
+        });
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
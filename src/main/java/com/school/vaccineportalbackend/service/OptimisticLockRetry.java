@@ -0,0 +1,74 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.exception.ConcurrentUpdateException;
+import jakarta.persistence.OptimisticLockException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write in its own transaction and runs it again when the
+ * commit loses a {@code @Version} race, after a short randomized backoff. The work
+ * must re-read the entity it changes, so each attempt applies its changes to the
+ * row that won. Conflicts left after the last attempt surface as
+ * {@link ConcurrentUpdateException}.
+ */
+@Component
+public class OptimisticLockRetry {
+    private static final Logger logger = LogManager.getLogger(OptimisticLockRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${optimistic-lock.retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${optimistic-lock.retry.initial-backoff-ms:20}")
+    private long initialBackoffMs;
+
+    @Value("${optimistic-lock.retry.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    @Autowired
+    public OptimisticLockRetry(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public <T> T execute(String entity, Supplier<T> work) {
+        // Inside a caller's transaction the stale entity stays in its persistence context, so a retry cannot help
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        long backoff = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    logger.warn("Giving up on {} update after {} conflicting attempts", entity, attempt);
+                    throw new ConcurrentUpdateException(entity + " is being modified concurrently, please retry", e);
+                }
+                logger.debug("Optimistic lock conflict on {} (attempt {}), retrying", entity, attempt);
+                sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1), e);
+                backoff = Math.min(backoff * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    private static void sleep(long millis, RuntimeException conflict) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
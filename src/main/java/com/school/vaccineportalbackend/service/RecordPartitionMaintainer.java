@@ -0,0 +1,52 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+/**
+ * Creates the school-year partitions of vaccination_records ahead of time, so new
+ * records never land in the default partition. A school year runs from April 1 to
+ * March 31 and is named by the calendar year it starts in. Does nothing unless the
+ * database was set up from schema_fixed.sql or the partitioning migration.
+ */
+@Component
+public class RecordPartitionMaintainer {
+    private static final Logger logger = LogManager.getLogger(RecordPartitionMaintainer.class);
+
+    @Autowired
+    private VaccinationRecordRepository vaccinationRecordRepository;
+
+    @Value("${vaccination-record.partition.years-ahead:1}")
+    private int yearsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${vaccination-record.partition.cron:0 0 3 1 * *}")
+    @Transactional
+    public void ensurePartitions() {
+        if (vaccinationRecordRepository.countPartitionFunctions() == 0) {
+            logger.debug("vaccination_records is not partitioned, skipping partition maintenance");
+            return;
+        }
+        int current = schoolYearOf(LocalDate.now());
+        for (int year = current; year <= current + yearsAhead; year++) {
+            if (vaccinationRecordRepository.createSchoolYearPartition(year)) {
+                logger.info("Created vaccination_records partition for school year {}-{}", year, year + 1);
+            }
+        }
+    }
+
+    static int schoolYearOf(LocalDate date) {
+        return date.getMonthValue() >= Month.APRIL.getValue() ? date.getYear() : date.getYear() - 1;
+    }
+}
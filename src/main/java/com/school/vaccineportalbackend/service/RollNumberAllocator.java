@@ -0,0 +1,126 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.model.RollNumberSequence;
+import com.school.vaccineportalbackend.repository.RollNumberSequenceRepository;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out {@code ROLL-YYYY-NNNN} roll numbers from blocks reserved in the
+ * {@code roll_number_sequences} table. A block is committed before any of its
+ * numbers are used, so a restart skips the unused tail of a block instead of
+ * reusing it. Within a block allocation is a single atomic increment.
+ */
+@Component
+public class RollNumberAllocator {
+    private static final Logger logger = LogManager.getLogger(RollNumberAllocator.class);
+
+    private final RollNumberSequenceRepository sequenceRepository;
+    private final StudentRepository studentRepository;
+    private final TransactionTemplate requiresNew;
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0, 0));
+
+    @Value("${student.roll-number.block-size:50}")
+    private int blockSize;
+
+    @Autowired
+    public RollNumberAllocator(RollNumberSequenceRepository sequenceRepository,
+                               StudentRepository studentRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.sequenceRepository = sequenceRepository;
+        this.studentRepository = studentRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String next() {
+        int year = Year.now().getValue();
+        while (true) {
+            Block block = current.get();
+            if (block.year == year) {
+                long value = block.cursor.getAndIncrement();
+                if (value < block.end) {
+                    return String.format("ROLL-%d-%04d", year, value);
+                }
+            }
+            refill(block, year);
+        }
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Number of roll numbers left in the block held by this instance for the current year.
+     */
+    public long remainingInCurrentBlock() {
+        Block block = current.get();
+        if (block.year != Year.now().getValue()) {
+            return 0;
+        }
+        return Math.max(0, block.end - block.cursor.get());
+    }
+
+    private synchronized void refill(Block exhausted, int year) {
+        if (current.get() != exhausted) {
+            return; // another thread already swapped in a fresh block
+        }
+        Block block;
+        try {
+            block = reserveBlock(year);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the counter row for this year first
+            block = reserveBlock(year);
+        }
+        logger.debug("Reserved roll numbers {}-{} for {}", block.start, block.end - 1, year);
+        current.set(block);
+    }
+
+    private Block reserveBlock(int year) {
+        return requiresNew.execute(status -> {
+            RollNumberSequence sequence = sequenceRepository.findByYearForUpdate(year)
+                    .orElseGet(() -> seed(year));
+            long start = sequence.getNextValue();
+            sequence.setNextValue(start + blockSize);
+            sequenceRepository.saveAndFlush(sequence);
+            return new Block(year, start, start + blockSize);
+        });
+    }
+
+    // First block of a year continues after any roll numbers created before the counter existed
+    private RollNumberSequence seed(int year) {
+        long last = studentRepository.findMaxRollNumber("ROLL-" + year + "-").orElse(0L);
+
+        RollNumberSequence sequence = new RollNumberSequence();
+        sequence.setSequenceYear(year);
+        sequence.setNextValue(last + 1);
+        return sequence;
+    }
+
+    private static final class Block {
+        private final int year;
+        private final long start;
+        private final long end;
+        private final AtomicLong cursor;
+
+        private Block(int year, long start, long end) {
+            this.year = year;
+            this.start = start;
+            this.end = end;
+            this.cursor = new AtomicLong(start);
+        }
+    }
+}
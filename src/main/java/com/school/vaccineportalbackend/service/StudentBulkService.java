@@ -0,0 +1,161 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.dto.BulkDeactivateRequest;
+import com.school.vaccineportalbackend.dto.BulkOperationResult;
+import com.school.vaccineportalbackend.dto.BulkPatchRequest;
+import com.school.vaccineportalbackend.dto.PromoteGradeRequest;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Set-based updates across many students, each in one transaction instead of a
+ * load-and-save per student. Grade-wide operations first lock the grade's active
+ * students with SELECT ... FOR UPDATE, so the update, the name index and the
+ * report all see the same IDs. IDs are updated in chunks of at most
+ * {@value #CHUNK_SIZE}; matched counts the IDs, affected the rows changed.
+ */
+@Service
+public class StudentBulkService {
+    private static final Logger logger = LogManager.getLogger(StudentBulkService.class);
+    private static final int CHUNK_SIZE = 1000;
+
+    // Fields that may be patched in bulk; name and identity changes stay per student
+    private static final Set<String> PATCHABLE_FIELDS =
+            Set.of("grade", "gender", "parentName", "parentEmail", "contactNumber", "address");
+    private static final Set<String> GENDERS = Set.of("MALE", "FEMALE", "OTHER");
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentNameIndex studentNameIndex;
+
+    @Autowired
+    private VaccinationReportService vaccinationReportService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public BulkOperationResult promoteGrade(PromoteGradeRequest request) {
+        long started = System.nanoTime();
+        String fromGrade = request.getFromGrade().trim();
+        String toGrade = request.getToGrade().trim();
+        if (fromGrade.equals(toGrade)) {
+            throw new IllegalArgumentException("Source and target grade must differ");
+        }
+        logger.info("Promoting active students from grade {} to {}", fromGrade, toGrade);
+
+        List<String> studentIds = studentRepository.lockActiveStudentIdsByGrade(fromGrade);
+        LocalDateTime now = LocalDateTime.now();
+        int affected = inChunks(studentIds, chunk -> studentRepository.promoteGrade(chunk, fromGrade, toGrade, now));
+        studentNameIndex.onGradeChanged(studentIds, toGrade);
+        vaccinationReportService.refreshStudents(studentIds);
+        return result("promote", studentIds.size(), affected, started);
+    }
+
+    @Transactional
+    public BulkOperationResult deactivate(BulkDeactivateRequest request) {
+        long started = System.nanoTime();
+        boolean byIds = request.getStudentIds() != null && !request.getStudentIds().isEmpty();
+        boolean byGrade = request.getGrade() != null && !request.getGrade().isBlank();
+        if (byIds == byGrade) {
+            throw new IllegalArgumentException("Specify either studentIds or grade");
+        }
+
+        List<String> studentIds = byIds
+                ? distinct(request.getStudentIds())
+                : studentRepository.lockActiveStudentIdsByGrade(request.getGrade().trim());
+        logger.info("Deactivating {} students", studentIds.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        int affected = inChunks(studentIds, chunk -> studentRepository.deactivateAll(chunk, now));
+        studentNameIndex.onRemoved(studentIds);
+        return result("deactivate", studentIds.size(), affected, started);
+    }
+
+    @Transactional
+    public BulkOperationResult patch(BulkPatchRequest request) {
+        long started = System.nanoTime();
+        String field = request.getField();
+        if (!PATCHABLE_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Field cannot be patched in bulk: " + field);
+        }
+        String value = request.getValue() != null ? request.getValue().trim() : null;
+        if ("grade".equals(field) && (value == null || value.isEmpty())) {
+            throw new IllegalArgumentException("Grade cannot be empty");
+        }
+        if ("gender".equals(field) && value != null) {
+            value = value.toUpperCase(Locale.ROOT);
+            if (!GENDERS.contains(value)) {
+                throw new IllegalArgumentException("Invalid gender: " + request.getValue());
+            }
+        }
+
+        List<String> studentIds = distinct(request.getStudentIds());
+        logger.info("Setting {} on {} students", field, studentIds.size());
+
+        // Managed students must not overwrite the bulk change on a later flush
+        entityManager.flush();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        LocalDateTime now = LocalDateTime.now();
+        String newValue = value;
+        int affected = inChunks(studentIds, chunk -> {
+            CriteriaUpdate<Student> update = cb.createCriteriaUpdate(Student.class);
+            Root<Student> root = update.from(Student.class);
+            update.set(root.<String>get(field), newValue)
+                    .set(root.<LocalDateTime>get("updatedAt"), now)
+                    .where(root.get("studentId").in(chunk));
+            return entityManager.createQuery(update).executeUpdate();
+        });
+        entityManager.clear();
+
+        if ("grade".equals(field)) {
+            studentNameIndex.onGradeChanged(studentIds, newValue);
+            vaccinationReportService.refreshStudents(studentIds);
+        }
+        return result("patch:" + field, studentIds.size(), affected, started);
+    }
+
+    private static int inChunks(List<String> studentIds, ToIntFunction<List<String>> update) {
+        int affected = 0;
+        for (int from = 0; from < studentIds.size(); from += CHUNK_SIZE) {
+            affected += update.applyAsInt(studentIds.subList(from, Math.min(from + CHUNK_SIZE, studentIds.size())));
+        }
+        return affected;
+    }
+
+    private static List<String> distinct(List<String> studentIds) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String studentId : studentIds) {
+            if (studentId != null && !studentId.isBlank()) {
+                unique.add(studentId.trim());
+            }
+        }
+        return new ArrayList<>(unique);
+    }
+
+    private static BulkOperationResult result(String operation, int matched, int affected, long started) {
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        logger.info("Bulk {} updated {} of {} students in {} ms", operation, affected, matched, millis);
+        return new BulkOperationResult(operation, matched, affected, millis);
+    }
+}
@@ -0,0 +1,149 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.dto.ImportDedupeMode;
+import com.school.vaccineportalbackend.dto.ImportJobStatus;
+import com.school.vaccineportalbackend.dto.ImportResult;
+import jakarta.annotation.PreDestroy;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs student CSV imports in the background. Uploads are spooled to local disk and
+ * processed by a fixed pool of workers behind a bounded queue; callers poll the job
+ * for progress instead of holding a request thread for the whole file.
+ */
+@Service
+public class StudentImportJobService {
+    private static final Logger logger = LogManager.getLogger(StudentImportJobService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final StudentImportService studentImportService;
+    private final Path spoolDirectory;
+    private final JobRunner<Job> runner;
+
+    @Autowired
+    public StudentImportJobService(StudentImportService studentImportService,
+                                   @Value("${student.import.spool-dir:${java.io.tmpdir}/vaccine-portal/imports}") String spoolDir,
+                                   @Value("${student.import.workers:2}") int workers,
+                                   @Value("${student.import.queue-capacity:20}") int queueCapacity,
+                                   @Value("${student.import.job-retention-minutes:60}") long retentionMinutes) throws IOException {
+        this.studentImportService = studentImportService;
+        this.spoolDirectory = Files.createDirectories(Paths.get(spoolDir));
+        this.runner = new JobRunner<>("student-import", workers, queueCapacity, retentionMinutes, job -> { });
+    }
+
+    /**
+     * Spools the upload and queues it for import.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public ImportJobStatus submit(MultipartFile file, ImportDedupeMode dedupeMode) throws IOException {
+        Job job = new Job(file.getOriginalFilename(), dedupeMode);
+        job.spoolFile = spoolDirectory.resolve(job.id + ".csv");
+        file.transferTo(job.spoolFile);
+
+        try {
+            runner.submit(job, () -> run(job));
+        } catch (RejectedExecutionException e) {
+            Files.deleteIfExists(job.spoolFile);
+            throw e;
+        }
+        logger.info("Queued student import job {} for file {}", job.id, job.fileName);
+        return job.toStatus();
+    }
+
+    public Optional<ImportJobStatus> getStatus(String jobId) {
+        return runner.get(jobId).map(Job::toStatus);
+    }
+
+    private void run(Job job) throws IOException {
+        try (InputStream in = Files.newInputStream(job.spoolFile)) {
+            job.update(studentImportService.importStudents(in, job.dedupeMode, job::update));
+        } finally {
+            try {
+                Files.deleteIfExists(job.spoolFile);
+            } catch (IOException e) {
+                logger.warn("Could not delete spooled import {}", job.spoolFile, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${student.import.cleanup-interval-ms:300000}")
+    public void evictFinishedJobs() {
+        runner.evictFinished(job -> { });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdown();
+    }
+
+    private static final class Job extends JobRunner.Job {
+        private final String fileName;
+        private final ImportDedupeMode dedupeMode;
+        private Path spoolFile;
+        private volatile int rowsProcessed;
+        private volatile int imported;
+        private volatile int matched;
+        private volatile int errorCount;
+        private volatile List<String> errors = List.of();
+
+        private Job(String fileName, ImportDedupeMode dedupeMode) {
+            this.fileName = fileName;
+            this.dedupeMode = dedupeMode;
+        }
+
+        // Called from the worker after every committed chunk
+        private void update(ImportResult progress) {
+            rowsProcessed = progress.getTotal();
+            imported = progress.getImported();
+            matched = progress.getMatched();
+            errorCount = progress.getErrors().size();
+            if (errors.size() < MAX_REPORTED_ERRORS && errorCount > errors.size()) {
+                errors = List.copyOf(progress.getErrors().subList(0, Math.min(errorCount, MAX_REPORTED_ERRORS)));
+            }
+        }
+
+        private ImportJobStatus toStatus() {
+            ImportJobStatus status = new ImportJobStatus();
+            status.setJobId(id);
+            status.setFileName(fileName);
+            status.setState(state);
+            status.setRowsProcessed(rowsProcessed);
+            status.setImported(imported);
+            status.setMatched(matched);
+            List<String> reported = new ArrayList<>(errors);
+            if (failure != null) {
+                reported.add("Failed to process file: " + failure);
+            }
+            status.setErrors(reported);
+            status.setErrorCount(errorCount + (failure != null ? 1 : 0));
+            status.setSubmittedAt(submittedAt);
+            status.setStartedAt(startedAt);
+            status.setFinishedAt(finishedAt);
+            if (startedAt != null) {
+                LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+                long millis = Duration.between(startedAt, end).toMillis();
+                status.setRowsPerSecond(millis > 0 ? rowsProcessed * 1000.0 / millis : rowsProcessed);
+            }
+            return status;
+        }
+    }
+}
@@ -0,0 +1,622 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.dto.ImportDedupeMode;
+import com.school.vaccineportalbackend.dto.ImportResult;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import com.school.vaccineportalbackend.util.BloomFilter;
+import com.school.vaccineportalbackend.util.CsvTokenizer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streaming CSV import for students. Rows are tokenized as RFC 4180 records,
+ * validated in parallel, collected into chunks in file order and each chunk is
+ * committed in its own transaction, with inserts sent to the database in JDBC
+ * batches of {@code student.import.batch-size}.
+ */
+@Service
+public class StudentImportService {
+    private static final Logger logger = LogManager.getLogger(StudentImportService.class);
+    private static final String[] REQUIRED_HEADERS = {"name", "grade", "dateofbirth", "gender"};
+
+    @Autowired
+    private RollNumberAllocator rollNumberAllocator;
+
+    @Autowired
+    private StudentNameIndex studentNameIndex;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private VaccinationReportService vaccinationReportService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows per JDBC batch, flushed and cleared from the persistence context together
+    @Value("${student.import.batch-size:500}")
+    private int batchSize;
+
+    // Rows per transaction
+    @Value("${student.import.chunk-size:5000}")
+    private int chunkSize;
+
+    // Threads validating parsed rows; persistence stays on the calling thread
+    @Value("${student.import.parse-parallelism:0}")
+    private int parseParallelism;
+
+    // Rows handed to one validation task
+    @Value("${student.import.parse-block-size:1000}")
+    private int parseBlockSize;
+
+    private ForkJoinPool parsePool;
+
+    @PostConstruct
+    void startParsePool() {
+        int parallelism = parseParallelism > 0 ? parseParallelism : Runtime.getRuntime().availableProcessors();
+        parsePool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    void stopParsePool() {
+        parsePool.shutdownNow();
+    }
+
+    // Memory cap for the Bloom filter over existing students used by de-duplicating imports
+    @Value("${student.import.dedupe-max-bytes:16777216}")
+    private long dedupeMaxBytes;
+
+    public ImportResult importStudents(InputStream in) {
+        return importStudents(in, ImportDedupeMode.NONE, progress -> { });
+    }
+
+    public ImportResult importStudents(InputStream in, Consumer<ImportResult> onProgress) {
+        return importStudents(in, ImportDedupeMode.NONE, onProgress);
+    }
+
+    /**
+     * Imports students from {@code in}, reporting the running result to
+     * {@code onProgress} after every chunk. The calling thread tokenizes the file
+     * into blocks of rows, which are validated in parallel on the parse pool and
+     * drained in file order into the chunks that get persisted. At most twice the
+     * pool's parallelism blocks are in flight, bounding memory on large files.
+     * With {@code SKIP} or {@code UPSERT}, rows matching an active student on
+     * (name, date of birth, parent email) are skipped or update that student.
+     */
+    public ImportResult importStudents(InputStream in, ImportDedupeMode dedupeMode, Consumer<ImportResult> onProgress) {
+        ImportResult result = new ImportResult();
+        result.setTotal(0);
+        result.setImported(0);
+        result.setErrors(new ArrayList<>());
+        result.setDedupeMode(dedupeMode);
+        long started = System.nanoTime();
+        Deduplicator dedupe = dedupeMode == ImportDedupeMode.NONE ? null : new Deduplicator(dedupeMode);
+
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            CsvTokenizer tokenizer = new CsvTokenizer(reader);
+            if (!tokenizer.next()) {
+                result.getErrors().add("Empty file");
+                return result;
+            }
+
+            Map<String, Integer> headerMap = new HashMap<>();
+            for (int i = 0; i < tokenizer.fieldCount(); i++) {
+                headerMap.put(tokenizer.field(i).trim().toLowerCase(), i);
+            }
+
+            // Validate required headers
+            for (String required : REQUIRED_HEADERS) {
+                if (!headerMap.containsKey(required)) {
+                    result.getErrors().add("Missing required header: " + required);
+                    return result;
+                }
+            }
+            Columns columns = new Columns(headerMap, tokenizer.fieldCount());
+
+            Deque<InFlightBlock> inFlight = new ArrayDeque<>();
+            int window = parsePool.getParallelism() * 2;
+            PendingChunk chunk = new PendingChunk(chunkSize);
+            try {
+                RowBlock block = new RowBlock(parseBlockSize);
+                while (tokenizer.next()) {
+                    if (tokenizer.isBlankLine()) {
+                        continue;
+                    }
+                    block.add(tokenizer);
+                    if (block.rows == parseBlockSize) {
+                        RowBlock parsed = block;
+                        inFlight.add(new InFlightBlock(parsed, parsePool.submit(() -> validate(parsed, columns))));
+                        block = new RowBlock(parseBlockSize);
+                        if (inFlight.size() >= window) {
+                            drain(inFlight.poll(), chunk, dedupe, result, onProgress);
+                        }
+                    }
+                }
+                if (block.rows > 0) {
+                    RowBlock parsed = block;
+                    inFlight.add(new InFlightBlock(parsed, parsePool.submit(() -> validate(parsed, columns))));
+                }
+                while (!inFlight.isEmpty()) {
+                    drain(inFlight.poll(), chunk, dedupe, result, onProgress);
+                }
+            } finally {
+                inFlight.forEach(pending -> pending.validated().cancel(true));
+            }
+            if (!chunk.students.isEmpty()) {
+                persistChunk(chunk.students, chunk.firstLine, chunk.lastLine, dedupe, result);
+                onProgress.accept(result);
+            }
+        } catch (IOException e) {
+            logger.error("Error reading student CSV", e);
+            result.getErrors().add("Failed to process file: " + e.getMessage());
+        }
+
+        result.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        result.setRowsPerSecond(rate(result.getImported(), result.getElapsedMillis()));
+        logger.info("Imported {} of {} students in {} ms ({} rows/sec)",
+            result.getImported(), result.getTotal(), result.getElapsedMillis(), Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    // Waits for the oldest block and moves its students into the pending chunk, persisting full chunks
+    private void drain(InFlightBlock pending, PendingChunk chunk, Deduplicator dedupe,
+                       ImportResult result, Consumer<ImportResult> onProgress) throws IOException {
+        ValidatedBlock block;
+        try {
+            block = pending.validated().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } catch (ExecutionException e) {
+            // Reported against every row of the block; the rest of the file is still imported
+            RowBlock rows = pending.rows();
+            logger.error("Failed to validate lines {}-{}", rows.lines[0], rows.lines[rows.rows - 1], e.getCause());
+            block = new ValidatedBlock(rows.rows);
+            for (int row = 0; row < rows.rows; row++) {
+                block.errors.add("Line " + rows.lines[row] + ": Row validation failed: " + e.getCause().getMessage());
+            }
+        }
+
+        result.setTotal(result.getTotal() + block.rows);
+        result.getErrors().addAll(block.errors);
+        for (int i = 0; i < block.students.size(); i++) {
+            if (chunk.students.isEmpty()) {
+                chunk.firstLine = block.lines[i];
+            }
+            chunk.students.add(block.students.get(i));
+            chunk.lastLine = block.lines[i];
+            if (chunk.students.size() >= chunkSize) {
+                persistChunk(chunk.students, chunk.firstLine, chunk.lastLine, dedupe, result);
+                onProgress.accept(result);
+                chunk.students.clear();
+            }
+        }
+    }
+
+    private static ValidatedBlock validate(RowBlock block, Columns columns) {
+        ValidatedBlock validated = new ValidatedBlock(block.rows);
+        for (int row = 0; row < block.rows; row++) {
+            int line = block.lines[row];
+            if (block.errors[row] != null) {
+                validated.errors.add("Line " + line + ": " + block.errors[row]);
+                continue;
+            }
+            if (block.fieldCount(row) < columns.count) {
+                validated.errors.add("Line " + line + ": Invalid number of columns");
+                continue;
+            }
+            try {
+                validated.add(toStudent(block, row, columns), line);
+            } catch (IllegalArgumentException | DateTimeException e) {
+                validated.errors.add("Line " + line + ": " + e.getMessage());
+            } catch (RuntimeException e) {
+                // One unexpected row must not fail the other rows of its block
+                logger.error("Failed to validate line {}", line, e);
+                validated.errors.add("Line " + line + ": Row validation failed: " + e.getMessage());
+            }
+        }
+        return validated;
+    }
+
+    private static Student toStudent(RowBlock block, int row, Columns columns) {
+        Student student = new Student();
+        student.setName(block.required(row, columns.name, "name"));
+        student.setGrade(block.required(row, columns.grade, "grade"));
+        student.setDateOfBirth(block.date(row, columns.dateOfBirth));
+        student.setGender(block.gender(row, columns.gender));
+
+        // Optional fields
+        if (columns.parentName >= 0) {
+            student.setParentName(block.text(row, columns.parentName));
+        }
+        if (columns.parentEmail >= 0) {
+            student.setParentEmail(block.text(row, columns.parentEmail));
+        }
+        if (columns.contactNumber >= 0) {
+            student.setContactNumber(block.text(row, columns.contactNumber));
+        }
+        if (columns.address >= 0) {
+            student.setAddress(block.text(row, columns.address));
+        }
+        student.setActive(true);
+        return student;
+    }
+
+    private void persistChunk(List<Student> chunk, int firstLine, int lastLine, Deduplicator dedupe,
+                              ImportResult result) {
+        long started = System.nanoTime();
+        try {
+            ChunkPlan plan = transactionTemplate.execute(status -> {
+                ChunkPlan resolved = dedupe != null ? dedupe.resolve(chunk) : new ChunkPlan(chunk);
+                if (!resolved.updated.isEmpty()) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+                List<Student> inserts = resolved.inserts;
+                for (int i = 0; i < inserts.size(); i++) {
+                    Student student = inserts.get(i);
+                    student.setStudentId(rollNumberAllocator.next());
+                    entityManager.persist(student);
+                    if ((i + 1) % batchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+                studentNameIndex.onSaved(inserts);
+                studentNameIndex.onSaved(resolved.updated);
+                if (!resolved.updated.isEmpty()) {
+                    List<String> updatedIds = new ArrayList<>(resolved.updated.size());
+                    for (Student student : resolved.updated) {
+                        updatedIds.add(student.getStudentId());
+                    }
+                    vaccinationReportService.refreshStudents(updatedIds);
+                }
+                return resolved;
+            });
+            result.setImported(result.getImported() + plan.inserts.size());
+            result.setMatched(result.getMatched() + plan.matched);
+            result.setSkipped(result.getSkipped() + plan.matched - plan.updated.size());
+            result.setUpdated(result.getUpdated() + plan.updated.size());
+            if (dedupe != null) {
+                dedupe.committed(plan.inserts);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to import lines {}-{}", firstLine, lastLine, e);
+            result.getErrors().add("Lines " + firstLine + "-" + lastLine + ": " + e.getMessage());
+        }
+
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        ImportResult.ChunkTiming timing = new ImportResult.ChunkTiming(
+            result.getChunks().size() + 1, firstLine, chunk.size(), millis, rate(chunk.size(), millis));
+        result.getChunks().add(timing);
+        logger.debug("Committed chunk {} ({} rows) in {} ms", timing.getChunk(), timing.getRows(), millis);
+    }
+
+    private static String dedupeKey(String name, LocalDate dateOfBirth, String parentEmail) {
+        return normalizeName(name) + '\u001F' + dateOfBirth + '\u001F'
+            + (parentEmail == null ? "" : parentEmail.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds rows that duplicate an active student. A Bloom filter over the keys of
+     * all active students, bounded by {@code student.import.dedupe-max-bytes},
+     * screens each row in memory; only rows it flags are confirmed with one query
+     * per chunk. Keys of committed rows are added so later duplicates in the same
+     * file are caught as well: a repeat within one chunk is skipped, while one in a
+     * later chunk matches the committed student like any other existing row.
+     */
+    private final class Deduplicator {
+        private static final int LOOKUP_SIZE = 1000;
+
+        private final ImportDedupeMode mode;
+        private final BloomFilter existingKeys;
+
+        private Deduplicator(ImportDedupeMode mode) {
+            this.mode = mode;
+            long started = System.nanoTime();
+            this.existingKeys = transactionTemplate.execute(status -> {
+                long active = studentRepository.countActiveStudents();
+                BloomFilter filter = BloomFilter.create(active + chunkSize, dedupeMaxBytes);
+                try (Stream<Object[]> rows = studentRepository.streamActiveStudentKeys()) {
+                    rows.forEach(row -> filter.add(dedupeKey((String) row[0], (LocalDate) row[1], (String) row[2])));
+                }
+                logger.info("Built import de-duplication filter over {} students ({} KB) in {} ms",
+                    active, filter.sizeInBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+                return filter;
+            });
+        }
+
+        // Runs inside the chunk transaction so upserted students are managed and flushed with it
+        private ChunkPlan resolve(List<Student> chunk) {
+            List<Student> candidates = new ArrayList<>();
+            for (Student student : chunk) {
+                if (existingKeys.mightContain(dedupeKey(student.getName(), student.getDateOfBirth(), student.getParentEmail()))) {
+                    candidates.add(student);
+                }
+            }
+            Map<String, Student> existing = new HashMap<>();
+            for (int from = 0; from < candidates.size(); from += LOOKUP_SIZE) {
+                List<Student> lookup = candidates.subList(from, Math.min(from + LOOKUP_SIZE, candidates.size()));
+                Set<String> names = new HashSet<>();
+                Set<LocalDate> dates = new HashSet<>();
+                for (Student student : lookup) {
+                    names.add(normalizeName(student.getName()));
+                    dates.add(student.getDateOfBirth());
+                }
+                for (Student match : studentRepository.findActiveByNamesAndDatesOfBirth(names, dates)) {
+                    existing.putIfAbsent(dedupeKey(match.getName(), match.getDateOfBirth(), match.getParentEmail()), match);
+                }
+            }
+
+            ChunkPlan plan = new ChunkPlan(new ArrayList<>(chunk.size()));
+            Set<String> seen = new HashSet<>();
+            for (Student student : chunk) {
+                String key = dedupeKey(student.getName(), student.getDateOfBirth(), student.getParentEmail());
+                Student match = existing.get(key);
+                if (match != null) {
+                    plan.matched++;
+                    if (mode == ImportDedupeMode.UPSERT) {
+                        match.setGrade(student.getGrade());
+                        match.setGender(student.getGender());
+                        match.setParentName(student.getParentName());
+                        match.setContactNumber(student.getContactNumber());
+                        match.setAddress(student.getAddress());
+                        plan.updated.add(match);
+                    }
+                } else if (!seen.add(key)) {
+                    // Repeated within this chunk; the first occurrence is inserted
+                    plan.matched++;
+                } else {
+                    plan.inserts.add(student);
+                }
+            }
+            return plan;
+        }
+
+        private void committed(List<Student> inserted) {
+            for (Student student : inserted) {
+                existingKeys.add(dedupeKey(student.getName(), student.getDateOfBirth(), student.getParentEmail()));
+            }
+        }
+    }
+
+    private static final class ChunkPlan {
+        private final List<Student> inserts;
+        private final List<Student> updated = new ArrayList<>();
+        private int matched;
+
+        private ChunkPlan(List<Student> inserts) {
+            this.inserts = inserts;
+        }
+    }
+
+    private static double rate(int rows, long millis) {
+        return millis > 0 ? rows * 1000.0 / millis : rows;
+    }
+
+    // Column positions resolved once from the header row; -1 for absent optional columns
+    private static final class Columns {
+        private final int count;
+        private final int name;
+        private final int grade;
+        private final int dateOfBirth;
+        private final int gender;
+        private final int parentName;
+        private final int parentEmail;
+        private final int contactNumber;
+        private final int address;
+
+        private Columns(Map<String, Integer> headerMap, int count) {
+            this.count = count;
+            name = headerMap.get("name");
+            grade = headerMap.get("grade");
+            dateOfBirth = headerMap.get("dateofbirth");
+            gender = headerMap.get("gender");
+            parentName = headerMap.getOrDefault("parentname", -1);
+            parentEmail = headerMap.getOrDefault("parentemail", -1);
+            contactNumber = headerMap.getOrDefault("contactnumber", -1);
+            address = headerMap.getOrDefault("address", -1);
+        }
+    }
+
+    /**
+     * Raw rows copied out of the tokenizer: the characters of all rows share one
+     * array and each field is a pair of offsets into it.
+     */
+    private static final class RowBlock {
+        private char[] chars = new char[8192];
+        private int length;
+        private int[] bounds = new int[1024];
+        private int boundCount;
+        private final int[] firstBound;
+        private final int[] lines;
+        private final String[] errors;
+        private int rows;
+
+        private RowBlock(int capacity) {
+            firstBound = new int[capacity + 1];
+            lines = new int[capacity];
+            errors = new String[capacity];
+        }
+
+        private void add(CsvTokenizer tokenizer) {
+            int fields = tokenizer.fieldCount();
+            if (boundCount + 2 * fields > bounds.length) {
+                bounds = Arrays.copyOf(bounds, Math.max(bounds.length * 2, boundCount + 2 * fields));
+            }
+            int recordLength = tokenizer.end(fields - 1);
+            if (length + recordLength > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + recordLength));
+            }
+            System.arraycopy(tokenizer.chars(), 0, chars, length, recordLength);
+            for (int i = 0; i < fields; i++) {
+                bounds[boundCount++] = length + tokenizer.start(i);
+                bounds[boundCount++] = length + tokenizer.end(i);
+            }
+            length += recordLength;
+            lines[rows] = tokenizer.recordLine();
+            errors[rows] = tokenizer.error();
+            rows++;
+            firstBound[rows] = boundCount;
+        }
+
+        private int fieldCount(int row) {
+            return (firstBound[row + 1] - firstBound[row]) / 2;
+        }
+
+        // Field start and end with surrounding whitespace trimmed
+        private int start(int row, int field) {
+            int start = bounds[firstBound[row] + 2 * field];
+            int end = bounds[firstBound[row] + 2 * field + 1];
+            while (start < end && Character.isWhitespace(chars[start])) {
+                start++;
+            }
+            return start;
+        }
+
+        private int end(int row, int field) {
+            int start = bounds[firstBound[row] + 2 * field];
+            int end = bounds[firstBound[row] + 2 * field + 1];
+            while (end > start && Character.isWhitespace(chars[end - 1])) {
+                end--;
+            }
+            return end;
+        }
+
+        private String text(int row, int field) {
+            int start = start(row, field);
+            return new String(chars, start, end(row, field) - start);
+        }
+
+        private String required(int row, int field, String column) {
+            if (start(row, field) == end(row, field)) {
+                throw new IllegalArgumentException("Missing " + column);
+            }
+            return text(row, field);
+        }
+
+        // Parses an ISO yyyy-MM-dd date straight from the characters
+        private LocalDate date(int row, int field) {
+            int start = start(row, field);
+            int end = end(row, field);
+            if (end - start != 10 || chars[start + 4] != '-' || chars[start + 7] != '-') {
+                throw new IllegalArgumentException("Invalid dateOfBirth '" + text(row, field) + "', expected yyyy-MM-dd");
+            }
+            int year = digits(start, 4, row, field);
+            int month = digits(start + 5, 2, row, field);
+            int day = digits(start + 8, 2, row, field);
+            return LocalDate.of(year, month, day);
+        }
+
+        private int digits(int from, int count, int row, int field) {
+            int value = 0;
+            for (int i = from; i < from + count; i++) {
+                char c = chars[i];
+                if (c < '0' || c > '9') {
+                    throw new IllegalArgumentException("Invalid dateOfBirth '" + text(row, field) + "', expected yyyy-MM-dd");
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+
+        // Normalizes M/Male, F/Female and O/Other in any case to the stored constants
+        private String gender(int row, int field) {
+            int start = start(row, field);
+            int length = end(row, field) - start;
+            if (matches(start, length, "m") || matches(start, length, "male")) {
+                return "MALE";
+            }
+            if (matches(start, length, "f") || matches(start, length, "female")) {
+                return "FEMALE";
+            }
+            if (matches(start, length, "o") || matches(start, length, "other")) {
+                return "OTHER";
+            }
+            if (length == 0) {
+                throw new IllegalArgumentException("Missing gender");
+            }
+            throw new IllegalArgumentException("Invalid gender '" + text(row, field) + "'");
+        }
+
+        private boolean matches(int start, int length, String expected) {
+            return length == expected.length()
+                && String.valueOf(chars, start, length).equalsIgnoreCase(expected);
+        }
+    }
+
+    private static final class ValidatedBlock {
+        private final int rows;
+        private final List<Student> students;
+        private final int[] lines;
+        private final List<String> errors = new ArrayList<>();
+
+        private ValidatedBlock(int rows) {
+            this.rows = rows;
+            this.students = new ArrayList<>(rows);
+            this.lines = new int[rows];
+        }
+
+        private void add(Student student, int line) {
+            lines[students.size()] = line;
+            students.add(student);
+        }
+    }
+
+    // A block submitted to the parse pool, kept so a failed validation can still name its lines
+    private record InFlightBlock(RowBlock rows, Future<ValidatedBlock> validated) {
+    }
+
+    private static final class PendingChunk {
+        private final List<Student> students;
+        private int firstLine;
+        private int lastLine;
+
+        private PendingChunk(int capacity) {
+            students = new ArrayList<>(capacity);
+        }
+    }
+}
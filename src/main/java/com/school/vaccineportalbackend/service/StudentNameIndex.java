@@ -0,0 +1,421 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over the names of active students, with bigram postings
+ * for two-character queries. Every document has a sequential id, so posting lists
+ * stay sorted and can be intersected without sorting. Results are ordered by each
+ * document's precomputed position in name order. Updates append a new document and mark the old one dead; the index
+ * compacts itself once dead documents outweigh a quarter of the live ones.
+ * Writes applied while a rebuild reads the table are replayed onto the rebuilt
+ * index before it replaces the current one, so none committed meanwhile is lost.
+ */
+@Component
+public class StudentNameIndex {
+    private static final Logger logger = LogManager.getLogger(StudentNameIndex.class);
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private volatile boolean ready;
+    private Snapshot data = new Snapshot();
+    // Writes applied since the running rebuild started, or null when none is running
+    private List<Consumer<Snapshot>> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            // Before the query, so any write it cannot see is recorded; replaying one it did see is harmless
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Snapshot fresh = new Snapshot();
+            try (Stream<Object[]> rows = studentRepository.streamActiveStudentNames()) {
+                rows.forEach(row -> fresh.add((String) row[0], (String) row[1], (String) row[2]));
+            } catch (RuntimeException e) {
+                discardPending();
+                throw e;
+            }
+            int replayed;
+            lock.writeLock().lock();
+            try {
+                replayed = pending.size();
+                pending.forEach(change -> change.accept(fresh));
+                pending = null;
+                data = fresh;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Built student name index: {} students, {} trigrams, {} concurrent writes replayed in {} ms",
+                fresh.liveCount, fresh.postings.size(), replayed, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of active students whose name contains {@code query} (case-insensitive),
+     * optionally restricted to one grade, ordered by name.
+     */
+    public List<String> search(String query, String grade) {
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            Snapshot snapshot = data;
+            int[] matches;
+            int count = 0;
+            if (needle.length() < 2) {
+                // A single character is in most names: walk them in name order, so nothing needs sorting
+                int[] order = snapshot.nameOrder();
+                matches = new int[order.length];
+                for (int doc : order) {
+                    if (snapshot.matches(doc, needle, grade)) {
+                        matches[count++] = doc;
+                    }
+                }
+            } else {
+                matches = snapshot.candidates(needle);
+                for (int doc : matches) {
+                    if (snapshot.matches(doc, needle, grade)) {
+                        matches[count++] = doc;
+                    }
+                }
+                snapshot.sortByName(matches, count);
+            }
+            List<String> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add(snapshot.studentIds.get(matches[i]));
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void onSaved(Student student) {
+        onSaved(List.of(student));
+    }
+
+    /**
+     * Applies saved students to the index once the surrounding transaction commits.
+     */
+    public void onSaved(Collection<Student> students) {
+        List<String[]> rows = new ArrayList<>(students.size());
+        for (Student student : students) {
+            rows.add(new String[]{student.getStudentId(), student.getName(), student.getGrade(),
+                student.isActive() ? "Y" : "N"});
+        }
+        afterCommit(() -> write(snapshot -> {
+            for (String[] row : rows) {
+                snapshot.remove(row[0]);
+                if ("Y".equals(row[3])) {
+                    snapshot.add(row[0], row[1], row[2]);
+                }
+            }
+        }));
+    }
+
+    public void onRemoved(String studentId) {
+        afterCommit(() -> write(snapshot -> snapshot.remove(studentId)));
+    }
+
+    public void onRemoved(Collection<String> studentIds) {
+        List<String> ids = List.copyOf(studentIds);
+        afterCommit(() -> write(snapshot -> ids.forEach(snapshot::remove)));
+    }
+
+    /**
+     * Moves indexed students to {@code grade} in place once the surrounding
+     * transaction commits; names are unchanged so no trigrams are touched.
+     */
+    public void onGradeChanged(Collection<String> studentIds, String grade) {
+        List<String> ids = List.copyOf(studentIds);
+        afterCommit(() -> write(snapshot -> ids.forEach(id -> snapshot.setGrade(id, grade))));
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("ready", ready);
+            stats.put("students", data.liveCount);
+            stats.put("deadEntries", data.studentIds.size() - data.liveCount);
+            stats.put("trigrams", data.postings.size());
+            stats.put("bigrams", data.bigrams.size());
+            stats.put("estimatedBytes", data.estimateBytes());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Consumer<Snapshot> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(data);
+            if (pending != null) {
+                pending.add(change);
+            }
+            int dead = data.studentIds.size() - data.liveCount;
+            if (dead > 1024 && dead > data.liveCount / 4) {
+                data = data.compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void discardPending() {
+        lock.writeLock().lock();
+        try {
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+
+    private static long bigram(String value, int start) {
+        return ((long) value.charAt(start) << 16) | value.charAt(start + 1);
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        private void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        private boolean contains(int doc) {
+            return Arrays.binarySearch(docs, 0, size, doc) >= 0;
+        }
+    }
+
+    private static final class Snapshot {
+        private final List<String> studentIds = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<String> grades = new ArrayList<>();
+        private final BitSet live = new BitSet();
+        private final Map<String, Integer> docByStudentId = new HashMap<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private final Map<Long, Postings> bigrams = new HashMap<>();
+        private int liveCount;
+        // Documents sorted by (name, student id) and each document's position in that order,
+        // extended on the next search after documents are added; dead documents stay in place
+        private int[] nameOrder = new int[0];
+        private int[] nameRank = new int[0];
+
+        private void add(String studentId, String name, String grade) {
+            int doc = studentIds.size();
+            String normalized = normalize(name);
+            studentIds.add(studentId);
+            names.add(normalized);
+            grades.add(grade);
+            live.set(doc);
+            liveCount++;
+            docByStudentId.put(studentId, doc);
+
+            for (int i = 0; i + 2 <= normalized.length(); i++) {
+                post(bigrams, bigram(normalized, i), doc);
+                if (i + 3 <= normalized.length()) {
+                    post(postings, trigram(normalized, i), doc);
+                }
+            }
+        }
+
+        private static void post(Map<Long, Postings> index, long gram, int doc) {
+            Postings list = index.computeIfAbsent(gram, k -> new Postings());
+            // A name repeating a gram must only be posted once
+            if (list.size == 0 || list.docs[list.size - 1] != doc) {
+                list.add(doc);
+            }
+        }
+
+        private void remove(String studentId) {
+            Integer doc = docByStudentId.remove(studentId);
+            if (doc != null && live.get(doc)) {
+                live.clear(doc);
+                liveCount--;
+            }
+        }
+
+        private void setGrade(String studentId, String grade) {
+            Integer doc = docByStudentId.get(studentId);
+            if (doc != null) {
+                grades.set(doc, grade);
+            }
+        }
+
+        private boolean matches(int doc, String needle, String grade) {
+            return live.get(doc)
+                    && (grade == null || grade.equals(grades.get(doc)))
+                    && names.get(doc).contains(needle);
+        }
+
+        // Documents containing every trigram (or for two characters, the bigram) of the needle, walking the shortest list
+        private int[] candidates(String needle) {
+            boolean trigrams = needle.length() >= 3;
+            int gramLength = trigrams ? 3 : 2;
+            List<Postings> lists = new ArrayList<>();
+            for (int i = 0; i + gramLength <= needle.length(); i++) {
+                Postings list = trigrams ? postings.get(trigram(needle, i)) : bigrams.get(bigram(needle, i));
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            Postings shortest = lists.get(0);
+            int[] result = new int[shortest.size];
+            int count = 0;
+            for (int i = 0; i < shortest.size; i++) {
+                int doc = shortest.docs[i];
+                boolean inAll = true;
+                for (int j = 1; j < lists.size() && inAll; j++) {
+                    inAll = lists.get(j).contains(doc);
+                }
+                if (inAll) {
+                    result[count++] = doc;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        // Callers hold the read lock, so only other searches can race to extend the order
+        private synchronized int[] nameOrder() {
+            int ordered = nameOrder.length;
+            int size = studentIds.size();
+            if (ordered == size) {
+                return nameOrder;
+            }
+            Comparator<Integer> byName = Comparator.<Integer, String>comparing(names::get).thenComparing(studentIds::get);
+            List<Integer> added = new ArrayList<>(size - ordered);
+            for (int doc = ordered; doc < size; doc++) {
+                added.add(doc);
+            }
+            added.sort(byName);
+            int[] merged = new int[size];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < size; k++) {
+                if (j == added.size() || (i < ordered && byName.compare(nameOrder[i], added.get(j)) <= 0)) {
+                    merged[k] = nameOrder[i++];
+                } else {
+                    merged[k] = added.get(j++);
+                }
+            }
+            int[] rank = new int[size];
+            for (int k = 0; k < size; k++) {
+                rank[merged[k]] = k;
+            }
+            nameRank = rank;
+            nameOrder = merged;
+            return merged;
+        }
+
+        private synchronized int[] nameRank() {
+            nameOrder();
+            return nameRank;
+        }
+
+        // Sorts docs[0..count) into name order as (rank, doc) pairs packed into primitive longs
+        private void sortByName(int[] docs, int count) {
+            int[] rank = nameRank();
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = ((long) rank[docs[i]] << 32) | docs[i];
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < count; i++) {
+                docs[i] = (int) keys[i];
+            }
+        }
+
+        private Snapshot compact() {
+            Snapshot compacted = new Snapshot();
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                compacted.add(studentIds.get(doc), names.get(doc), grades.get(doc));
+            }
+            return compacted;
+        }
+
+        // Rough heap footprint: strings, posting arrays and hash map entries
+        private long estimateBytes() {
+            long bytes = 0;
+            for (int doc = 0; doc < studentIds.size(); doc++) {
+                bytes += 2 * 40L + studentIds.get(doc).length() + names.get(doc).length();
+            }
+            bytes += (long) studentIds.size() * 3 * 8;
+            bytes += (long) docByStudentId.size() * 48;
+            for (Postings list : postings.values()) {
+                bytes += 16 + 16 + 4L * list.docs.length + 48;
+            }
+            for (Postings list : bigrams.values()) {
+                bytes += 16 + 16 + 4L * list.docs.length + 48;
+            }
+            bytes += 8L * nameOrder.length;
+            bytes += live.size() / 8;
+            return bytes;
+        }
+    }
+}
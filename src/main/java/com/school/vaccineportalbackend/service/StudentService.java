@@ -1,129 +1,198 @@
 package com.school.vaccineportalbackend.service;
 
+import com.school.vaccineportalbackend.dto.ImportDedupeMode;
 import com.school.vaccineportalbackend.dto.ImportResult;
 import com.school.vaccineportalbackend.model.Student;
 import com.school.vaccineportalbackend.repository.StudentRepository;
+import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
 import com.school.vaccineportalbackend.dto.StudentDTO;
+import com.school.vaccineportalbackend.dto.StudentProfileDTO;
+import com.school.vaccineportalbackend.dto.VaccinationHistoryEntryDTO;
+import com.school.vaccineportalbackend.dto.CursorPage;
+import com.school.vaccineportalbackend.util.CursorCodec;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.time.LocalDate;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.Year;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class StudentService {
     private static final Logger logger = LogManager.getLogger(StudentService.class);
+    private static final String STUDENT_CURSOR = "student";
 
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private VaccinationRecordRepository vaccinationRecordRepository;
+
+    @Autowired
+    private VaccinationReportService vaccinationReportService;
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private RollNumberAllocator rollNumberAllocator;
+
+    @Autowired
+    private StudentNameIndex studentNameIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Transactional(readOnly = true)
     public Page<StudentDTO> getAllStudents(Pageable pageable) {
         logger.info("Getting all students with pagination");
-        Page<Student> students = studentRepository.findAll(pageable);
+        Page<StudentDTO> students = studentRepository.findAllDTOs(pageable);
         logger.debug("Found {} students", students.getTotalElements());
-        return students.map(student -> {
-            StudentDTO dto = StudentDTO.fromEntity(student);
-            dto.setHasVaccinationRecords(studentRepository.hasVaccinationRecords(student.getStudentId()));
-            return dto;
-        });
+        return withRecordFlags(students);
+    }
+
+    // Candidate ids come from the in-memory name index; only the requested page is loaded
+    private Page<StudentDTO> searchIndexedStudents(String name, String grade, Pageable pageable) {
+        List<String> matchingIds = studentNameIndex.search(name, grade);
+        int from = (int) Math.min(pageable.getOffset(), matchingIds.size());
+        int to = Math.min(from + pageable.getPageSize(), matchingIds.size());
+        List<String> pageIds = matchingIds.subList(from, to);
+
+        Map<String, StudentDTO> byId = pageIds.isEmpty()
+                ? Map.of()
+                : studentRepository.findDTOsByStudentIdIn(pageIds).stream()
+                        .collect(Collectors.toMap(StudentDTO::getStudentId, Function.identity()));
+        List<StudentDTO> content = pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, matchingIds.size());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<StudentDTO> getStudentsAfter(String after, int limit) {
+        logger.info("Getting students after cursor: {} with limit: {}", after, limit);
+        // Fetch one extra row to learn whether another slice follows
+        Pageable rows = PageRequest.of(0, limit + 1);
+        List<StudentDTO> students = after == null
+                ? studentRepository.findFirstDTOs(rows)
+                : studentRepository.findDTOsAfter(CursorCodec.decode(after, STUDENT_CURSOR, 2)[1], rows);
+
+        boolean hasMore = students.size() > limit;
+        List<StudentDTO> slice = hasMore ? students.subList(0, limit) : students;
+        String next = hasMore ? CursorCodec.encode(STUDENT_CURSOR, slice.get(limit - 1).getStudentId()) : null;
+        setRecordFlags(slice);
+        return new CursorPage<>(slice, slice.size(), next);
+    }
+
+    private Page<StudentDTO> withRecordFlags(Page<StudentDTO> students) {
+        setRecordFlags(students.getContent());
+        return students;
+    }
+
+    // Resolves hasVaccinationRecords for all students with a single query
+    private void setRecordFlags(List<StudentDTO> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        Set<String> withRecords = studentRepository.findStudentIdsWithVaccinationRecords(
+                students.stream().map(StudentDTO::getStudentId).collect(Collectors.toList()));
+        students.forEach(dto -> dto.setHasVaccinationRecords(withRecords.contains(dto.getStudentId())));
     }
 
     @Transactional(readOnly = true)
     public Optional<StudentDTO> getStudentById(String studentId) {
         logger.info("Getting student by ID: {}", studentId);
-        return studentRepository.findById(studentId)
-                .map(student -> {
-                    StudentDTO dto = StudentDTO.fromEntity(student);
+        return studentRepository.findDTOById(studentId)
+                .map(dto -> {
                     dto.setHasVaccinationRecords(studentRepository.hasVaccinationRecords(studentId));
-                    logger.debug("Found student: {}", student.getName());
+                    logger.debug("Found student: {}", dto.getName());
                     return dto;
                 });
     }
 
+    /**
+     * Student and full vaccination history for the detail screen: one query for
+     * the student row and one for the records with their drive and vaccine.
+     */
+    @Transactional(readOnly = true)
+    public Optional<StudentProfileDTO> getStudentProfile(String studentId) {
+        logger.info("Getting profile for student ID: {}", studentId);
+        return studentRepository.findDTOById(studentId)
+                .map(student -> {
+                    List<VaccinationHistoryEntryDTO> history = vaccinationRecordRepository.findHistoryByStudentId(studentId);
+                    student.setHasVaccinationRecords(!history.isEmpty());
+                    return new StudentProfileDTO(student, history);
+                });
+    }
+
     @Transactional(readOnly = true)
     public Page<StudentDTO> getStudentsByGrade(String grade, Pageable pageable) {
         logger.info("Getting students by grade: {}", grade);
-        Page<Student> students = studentRepository.findByGrade(grade, pageable);
+        Page<StudentDTO> students = studentRepository.findDTOsByGrade(grade, pageable);
         logger.debug("Found {} students in grade: {}", students.getTotalElements(), grade);
-        return students.map(student -> {
-            StudentDTO dto = StudentDTO.fromEntity(student);
-            dto.setHasVaccinationRecords(studentRepository.hasVaccinationRecords(student.getStudentId()));
-            return dto;
-        });
+        return withRecordFlags(students);
     }
 
     @Transactional(readOnly = true)
     public Page<StudentDTO> searchStudents(String name, String grade, Pageable pageable) {
         logger.info("Searching students with name: {} and grade: {}", name, grade);
-        Page<Student> students;
+        Page<StudentDTO> students;
         
-        if (name != null && grade != null) {
-            students = studentRepository.findByNameContainingAndGrade(name, grade, pageable);
+        if (name != null && studentNameIndex.isReady()) {
+            students = searchIndexedStudents(name, grade, pageable);
+        } else if (name != null && grade != null) {
+            students = studentRepository.findDTOsByNameContainingAndGrade(name, grade, pageable);
         } else if (name != null) {
-            students = studentRepository.findByNameContaining(name, pageable);
+            students = studentRepository.findDTOsByNameContaining(name, pageable);
         } else if (grade != null) {
-            students = studentRepository.findByGrade(grade, pageable);
+            students = studentRepository.findDTOsByGrade(grade, pageable);
         } else {
-            students = studentRepository.findAll(pageable);
+            students = studentRepository.findAllDTOs(pageable);
         }
         
         logger.debug("Found {} students matching search criteria", students.getTotalElements());
-        return students.map(student -> {
-            StudentDTO dto = StudentDTO.fromEntity(student);
-            dto.setHasVaccinationRecords(studentRepository.hasVaccinationRecords(student.getStudentId()));
-            return dto;
-        });
-    }
-
-    private String generateRollNumber() {
-        int currentYear = Year.now().getValue();
-        String yearPrefix = String.valueOf(currentYear);
-        
-        // Find the last roll number for the current year
-        String lastRollNumber = studentRepository.findTopByStudentIdStartingWithOrderByStudentIdDesc("ROLL-" + yearPrefix)
-                .map(Student::getStudentId)
-                .orElse("ROLL-" + yearPrefix + "-0000");
-        
-        // Extract the sequence number and increment it
-        int sequence = 0;
-        if (lastRollNumber.length() >= 4) {
-            try {
-                sequence = Integer.parseInt(lastRollNumber.substring(lastRollNumber.length() - 4));
-            } catch (NumberFormatException e) {
-                // If parsing fails, start from 1
-                sequence = 0;
-            }
-        }
-        
-        // Generate new roll number
-        return String.format("ROLL-%s-%04d", yearPrefix, sequence + 1);
+        return withRecordFlags(students);
     }
 
     @Transactional
     public StudentDTO createStudent(Student student) {
         logger.info("Creating new student: {}", student.getName());
         
-        // Generate a new roll number
-        String rollNumber = generateRollNumber();
+        // Take the next roll number from the reserved block
+        String rollNumber = rollNumberAllocator.next();
         student.setStudentId(rollNumber);
         
         Student savedStudent = studentRepository.save(student);
+        studentNameIndex.onSaved(savedStudent);
         logger.debug("Created student with ID: {}", savedStudent.getStudentId());
         
         StudentDTO dto = StudentDTO.fromEntity(savedStudent);
@@ -131,6 +200,18 @@ public class StudentService {
         return dto;
     }
 
+    public Map<String, Object> getNameIndexStats() {
+        return studentNameIndex.getStats();
+    }
+
+    public Map<String, Object> getRollNumberAllocation() {
+        Map<String, Object> allocation = new HashMap<>();
+        allocation.put("year", Year.now().getValue());
+        allocation.put("blockSize", rollNumberAllocator.getBlockSize());
+        allocation.put("remainingInBlock", rollNumberAllocator.remainingInCurrentBlock());
+        return allocation;
+    }
+
     @Transactional
     public StudentDTO updateStudent(String studentId, Student student) {
         logger.info("Updating student with ID: {}", studentId);
@@ -149,6 +230,8 @@ public class StudentService {
         
         // Save the updated student
         Student savedStudent = studentRepository.save(student);
+        studentNameIndex.onSaved(savedStudent);
+        vaccinationReportService.refreshStudents(List.of(studentId));
         logger.debug("Updated student: {}", savedStudent.getName());
         
         // Create and return the DTO
@@ -170,137 +253,55 @@ public class StudentService {
             .orElseThrow(() -> new RuntimeException("Student not found"));
         student.setActive(false);
         studentRepository.save(student);
+        studentNameIndex.onRemoved(studentId);
         logger.debug("Successfully deleted student with ID: {}", studentId);
     }
 
-    @Transactional
-    public ImportResult importStudentsFromCSV(MultipartFile file) {
+    public ImportResult importStudentsFromCSV(MultipartFile file, ImportDedupeMode dedupeMode) {
         logger.info("Importing students from CSV file: {}", file.getOriginalFilename());
-        
-        ImportResult result = new ImportResult();
-        result.setTotal(0);
-        result.setImported(0);
-        result.setErrors(new ArrayList<>());
-        
+
         try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()));
-            String headerLine = reader.readLine();
-            if (headerLine == null) {
-                result.getErrors().add("Empty file");
-                return result;
-            }
-            
-            String[] headers = headerLine.split(",");
-            Map<String, Integer> headerMap = new HashMap<>();
-            for (int i = 0; i < headers.length; i++) {
-                headerMap.put(headers[i].trim().toLowerCase(), i);
-            }
-            
-            // Validate required headers
-            String[] requiredHeaders = {"name", "grade", "dateofbirth", "gender"};
-            for (String required : requiredHeaders) {
-                if (!headerMap.containsKey(required)) {
-                    result.getErrors().add("Missing required header: " + required);
-                    return result;
-                }
-            }
-            
-            String line;
-            int lineNumber = 1;
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                result.setTotal(result.getTotal() + 1);
-                
-                try {
-                    String[] values = line.split(",");
-                    if (values.length < headers.length) {
-                        result.getErrors().add("Line " + lineNumber + ": Invalid number of columns");
-                        continue;
-                    }
-                    
-                    Student student = new Student();
-                    student.setName(values[headerMap.get("name")].trim());
-                    student.setGrade(values[headerMap.get("grade")].trim());
-                    student.setDateOfBirth(LocalDate.parse(values[headerMap.get("dateofbirth")].trim()));
-                    student.setGender(values[headerMap.get("gender")].trim());
-                    
-                    // Optional fields
-                    if (headerMap.containsKey("parentname")) {
-                        student.setParentName(values[headerMap.get("parentname")].trim());
-                    }
-                    if (headerMap.containsKey("parentemail")) {
-                        student.setParentEmail(values[headerMap.get("parentemail")].trim());
-                    }
-                    if (headerMap.containsKey("contactnumber")) {
-                        student.setContactNumber(values[headerMap.get("contactnumber")].trim());
-                    }
-                    if (headerMap.containsKey("address")) {
-                        student.setAddress(values[headerMap.get("address")].trim());
-                    }
-                    
-                    // Generate student ID
-                    student.setStudentId(generateRollNumber());
-                    student.setActive(true);
-                    
-                    // Save student
-                    studentRepository.save(student);
-                    result.setImported(result.getImported() + 1);
-                    
-                } catch (Exception e) {
-                    result.getErrors().add("Line " + lineNumber + ": " + e.getMessage());
-                }
-            }
-            
-            logger.debug("Successfully imported {} students", result.getImported());
-        } catch (Exception e) {
+            return studentImportService.importStudents(file.getInputStream(), dedupeMode, progress -> { });
+        } catch (IOException e) {
             logger.error("Error importing students from CSV", e);
-            result.getErrors().add("Failed to process file: " + e.getMessage());
+            ImportResult result = new ImportResult();
+            result.setErrors(new ArrayList<>(List.of("Failed to process file: " + e.getMessage())));
+            return result;
         }
-        
-        return result;
     }
 
     @Transactional(readOnly = true)
-    public byte[] exportStudentsToCSV() {
+    public void exportStudentsToCSV(OutputStream out) throws IOException {
         logger.info("Exporting students to CSV");
-        
-        try {
-            List<Student> students = studentRepository.findAll();
-            
-            StringBuilder csv = new StringBuilder();
-            // Add headers
-            csv.append("Student ID,Name,Grade,Date of Birth,Gender,Parent Name,Parent Email,Contact Number,Address\n");
-            
-            // Add data rows
-            for (Student student : students) {
-                csv.append(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s\n",
-                    escapeCsvField(student.getStudentId()),
-                    escapeCsvField(student.getName()),
-                    escapeCsvField(student.getGrade()),
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.builder()
+                .setHeader("Student ID", "Name", "Grade", "Date of Birth", "Gender", "Parent Name", "Parent Email", "Contact Number", "Address")
+                .build());
+
+        int exported = 0;
+        try (Stream<Student> students = studentRepository.streamAllBy()) {
+            Iterator<Student> iterator = students.iterator();
+            while (iterator.hasNext()) {
+                Student student = iterator.next();
+                csvPrinter.printRecord(
+                    student.getStudentId(),
+                    student.getName(),
+                    student.getGrade(),
                     student.getDateOfBirth(),
-                    escapeCsvField(student.getGender()),
-                    escapeCsvField(student.getParentName()),
-                    escapeCsvField(student.getParentEmail()),
-                    escapeCsvField(student.getContactNumber()),
-                    escapeCsvField(student.getAddress())
-                ));
+                    student.getGender(),
+                    student.getParentName(),
+                    student.getParentEmail(),
+                    student.getContactNumber(),
+                    student.getAddress()
+                );
+                // Keep the persistence context from growing with the table
+                entityManager.detach(student);
+                exported++;
             }
-            
-            logger.debug("Successfully exported {} students to CSV", studentRepository.count());
-            return csv.toString().getBytes();
-        } catch (Exception e) {
-            logger.error("Error exporting students to CSV", e);
-            throw new RuntimeException("Error exporting students to CSV", e);
         }
+        csvPrinter.flush();
+
+        logger.debug("Successfully exported {} students to CSV", exported);
     }
-    
-    private String escapeCsvField(String field) {
-        if (field == null) {
-            return "";
-        }
-        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
-            return "\"" + field.replace("\"", "\"\"") + "\"";
-        }
-        return field;
-    }
-} 
\ No newline at end of file
+}
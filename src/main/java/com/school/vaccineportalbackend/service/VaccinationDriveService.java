@@ -1,7 +1,8 @@
 package com.school.vaccineportalbackend.service;
 
 import com.school.vaccineportalbackend.dto.VaccinationDriveDTO;
-import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.dto.VaccinationRecordView;
+import com.school.vaccineportalbackend.exception.PreconditionFailedException;
 import com.school.vaccineportalbackend.model.VaccinationDrive;
 import com.school.vaccineportalbackend.model.VaccinationRecord;
 import com.school.vaccineportalbackend.model.Vaccine;
@@ -33,59 +34,66 @@ public class VaccinationDriveService {
     private static final Logger logger = LogManager.getLogger(VaccinationDriveService.class);
     private final VaccinationDriveRepository vaccinationDriveRepository;
     private final VaccinationRecordRepository vaccinationRecordRepository;
+    private final VaccinationReportService vaccinationReportService;
+    private final OptimisticLockRetry optimisticLockRetry;
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
     private static final int MIN_DAYS_BEFORE_DRIVE = 15;
 
     @Autowired
     public VaccinationDriveService(VaccinationDriveRepository vaccinationDriveRepository,
-                                 VaccinationRecordRepository vaccinationRecordRepository) {
+                                 VaccinationRecordRepository vaccinationRecordRepository,
+                                 VaccinationReportService vaccinationReportService,
+                                 OptimisticLockRetry optimisticLockRetry) {
         this.vaccinationDriveRepository = vaccinationDriveRepository;
         this.vaccinationRecordRepository = vaccinationRecordRepository;
+        this.vaccinationReportService = vaccinationReportService;
+        this.optimisticLockRetry = optimisticLockRetry;
     }
 
     @Transactional(readOnly = true)
     public Page<VaccinationDriveDTO> getAllDrives(Pageable pageable) {
         logger.info("Getting all vaccination drives with pagination");
-        Page<VaccinationDrive> drives = vaccinationDriveRepository.findAll(pageable);
+        Page<VaccinationDriveDTO> drives = vaccinationDriveRepository.findAllDTOs(pageable);
         logger.debug("Found {} vaccination drives", drives.getTotalElements());
-        return drives.map(this::convertToDTO);
+        return drives;
     }
 
     @Transactional(readOnly = true)
     public VaccinationDriveDTO getDriveById(Long id) {
         logger.info("Getting vaccination drive by ID: {}", id);
-        VaccinationDrive drive = vaccinationDriveRepository.findById(id)
+        VaccinationDriveDTO drive = vaccinationDriveRepository.findDTOById(id)
             .orElseThrow(() -> {
                 logger.error("Vaccination drive not found with ID: {}", id);
                 return new RuntimeException("Vaccination drive not found with id: " + id);
             });
-        logger.debug("Found vaccination drive for vaccine: {}", drive.getVaccine().getName());
-        return convertToDTO(drive);
+        logger.debug("Found vaccination drive for vaccine: {}",
+            drive.getVaccine() != null ? drive.getVaccine().getName() : null);
+        return drive;
     }
 
     @Transactional(readOnly = true)
     public Page<VaccinationDriveDTO> getUpcomingDrives(LocalDate startDate, LocalDate endDate, Pageable pageable) {
         logger.info("Getting upcoming vaccination drives between dates: {} and {}", startDate, endDate);
-        Page<VaccinationDrive> drives = vaccinationDriveRepository.findByDriveDateBetween(startDate, endDate, pageable);
+        Page<VaccinationDriveDTO> drives = vaccinationDriveRepository.findDTOsByDriveDateBetween(startDate, endDate, pageable);
         logger.debug("Found {} upcoming vaccination drives", drives.getTotalElements());
-        return drives.map(this::convertToDTO);
+        return drives;
     }
 
     @Transactional(readOnly = true)
     public Page<VaccinationDriveDTO> getDrivesByGrade(String grade, Pageable pageable) {
         logger.info("Getting vaccination drives for grade: {}", grade);
-        Page<VaccinationDrive> drives = vaccinationDriveRepository.findByApplicableGradesContaining(grade, pageable);
+        Page<VaccinationDriveDTO> drives = vaccinationDriveRepository.findDTOsByApplicableGradesContaining(grade, pageable);
         logger.debug("Found {} vaccination drives for grade: {}", drives.getTotalElements(), grade);
-        return drives.map(this::convertToDTO);
+        return drives;
     }
 
     @Transactional(readOnly = true)
-    public Page<VaccinationRecordDTO> getVaccinationRecordsForDrive(Long driveId, Pageable pageable) {
+    public Page<VaccinationRecordView> getVaccinationRecordsForDrive(Long driveId, Pageable pageable) {
         logger.info("Getting vaccination records for drive ID: {}", driveId);
-        VaccinationDrive drive = vaccinationDriveRepository.findById(driveId)
-                .orElseThrow(() -> new RuntimeException("Vaccination drive not found with id: " + driveId));
-        return vaccinationRecordRepository.findByVaccinationDrive(drive, pageable)
-                .map(this::convertToRecordDTO);
+        if (!vaccinationDriveRepository.existsById(driveId)) {
+            throw new RuntimeException("Vaccination drive not found with id: " + driveId);
+        }
+        return vaccinationRecordRepository.findViewsByDriveId(driveId, pageable);
     }
 
     @Transactional
@@ -100,8 +108,15 @@ public class VaccinationDriveService {
         return savedDrive;
     }
 
-    @Transactional
-    public VaccinationDrive updateDrive(Long id, VaccinationDrive updatedDrive) {
+    /**
+     * Applies the update to the current row, retrying on a concurrent write. With
+     * {@code expectedVersion} set the update only applies to that version.
+     */
+    public VaccinationDrive updateDrive(Long id, VaccinationDrive updatedDrive, Long expectedVersion) {
+        return optimisticLockRetry.execute("Vaccination drive", () -> applyUpdate(id, updatedDrive, expectedVersion));
+    }
+
+    private VaccinationDrive applyUpdate(Long id, VaccinationDrive updatedDrive, Long expectedVersion) {
         logger.info("Updating vaccination drive with ID: {}", id);
         
         VaccinationDrive existingDrive = vaccinationDriveRepository.findById(id)
@@ -109,6 +124,9 @@ public class VaccinationDriveService {
                 logger.error("Vaccination drive not found with ID: {}", id);
                 return new RuntimeException("Drive not found");
             });
+        if (expectedVersion != null && !expectedVersion.equals(existingDrive.getVersion())) {
+            throw new PreconditionFailedException("Vaccination drive has been modified since version " + expectedVersion);
+        }
 
         // Check if drive is in the past
         if (existingDrive.getDriveDate().isBefore(LocalDate.now())) {
@@ -130,7 +148,8 @@ public class VaccinationDriveService {
         existingDrive.setStatus(updatedDrive.getStatus());
         existingDrive.setActive(updatedDrive.isActive());
         
-        VaccinationDrive updatedDriveEntity = vaccinationDriveRepository.save(existingDrive);
+        VaccinationDrive updatedDriveEntity = vaccinationDriveRepository.saveAndFlush(existingDrive);
+        vaccinationReportService.refreshDrive(id);
         logger.debug("Updated vaccination drive for vaccine: {}", updatedDriveEntity.getVaccine().getName());
         
         return updatedDriveEntity;
@@ -185,32 +204,11 @@ public class VaccinationDriveService {
         if (drive.getUpdatedAt() != null) {
             dto.setUpdatedAt(drive.getUpdatedAt().format(DATE_TIME_FORMATTER));
         }
+        dto.setVersion(drive.getVersion());
         
         return dto;
     }
 
-    private VaccinationRecordDTO convertToRecordDTO(VaccinationRecord record) {
-        VaccinationRecordDTO dto = new VaccinationRecordDTO();
-        dto.setId(record.getId());
-        dto.setStudentId(record.getStudent().getStudentId());
-        dto.setStudentName(record.getStudent().getName());
-        dto.setDriveId(record.getVaccinationDrive().getId());
-        dto.setDoseNumber(record.getDoseNumber());
-        dto.setVaccinationDate(record.getVaccinationDate().format(DATE_TIME_FORMATTER));
-        dto.setBatchNumber(record.getBatchNumber());
-        dto.setAdministeredBy(record.getAdministeredBy());
-        dto.setVaccinationSite(record.getVaccinationSite());
-        dto.setStatus(record.getStatus());
-        dto.setSideEffects(record.getSideEffects());
-        if (record.getNextDoseDate() != null) {
-            dto.setNextDoseDate(record.getNextDoseDate().format(DATE_TIME_FORMATTER));
-        }
-        dto.setNotes(record.getNotes());
-        dto.setCreatedAt(record.getCreatedAt().format(DATE_TIME_FORMATTER));
-        dto.setUpdatedAt(record.getUpdatedAt().format(DATE_TIME_FORMATTER));
-        return dto;
-    }
-
     private void validateDriveSchedule(VaccinationDrive drive) {
         LocalDate today = LocalDate.now();
         LocalDate driveDate = drive.getDriveDate();
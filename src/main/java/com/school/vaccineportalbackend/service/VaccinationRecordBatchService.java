@@ -0,0 +1,587 @@
+package com.school.vaccineportalbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.vaccineportalbackend.dto.BulkRecordResult;
+import com.school.vaccineportalbackend.dto.CursorPage;
+import com.school.vaccineportalbackend.dto.SyncRequest;
+import com.school.vaccineportalbackend.dto.SyncResult;
+import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.dto.VaccinationRecordView;
+import com.school.vaccineportalbackend.model.RecordSyncKey;
+import com.school.vaccineportalbackend.model.RecordSyncPosition;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.VaccinationRecord;
+import com.school.vaccineportalbackend.repository.RecordSyncKeyRepository;
+import com.school.vaccineportalbackend.repository.RecordSyncPositionRepository;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import com.school.vaccineportalbackend.repository.VaccinationDriveRepository;
+import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import com.school.vaccineportalbackend.util.CursorCodec;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk ingestion of vaccination records for drive days. Records are processed in
+ * chunks: students, drives and the last dose of each pair are looked up with one
+ * query each, the valid records are inserted in JDBC batches inside one
+ * transaction, and every submitted record is counted as created or rejected.
+ */
+@Service
+public class VaccinationRecordBatchService {
+    private static final Logger logger = LogManager.getLogger(VaccinationRecordBatchService.class);
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String SYNC_CURSOR = "sync";
+    private static final String SYNC_KEY_CONSTRAINT = "uk_record_sync_keys_key";
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private VaccinationDriveRepository vaccinationDriveRepository;
+
+    @Autowired
+    private VaccinationRecordRepository vaccinationRecordRepository;
+
+    @Autowired
+    private RecordSyncKeyRepository recordSyncKeyRepository;
+
+    @Autowired
+    private RecordSyncPositionRepository recordSyncPositionRepository;
+
+    @Autowired
+    private VaccinationReportService vaccinationReportService;
+
+    @Autowired
+    private DoseStateCache doseStateCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Records per transaction
+    @Value("${vaccination-record.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    // Records per JDBC batch, flushed and cleared from the persistence context together
+    @Value("${vaccination-record.bulk.batch-size:500}")
+    private int batchSize;
+
+    // Rejections listed in the result of a streamed ingest; the rest are only counted
+    @Value("${vaccination-record.bulk.max-reported-rejections:1000}")
+    private int maxReportedRejections;
+
+    public BulkRecordResult ingest(List<VaccinationRecordDTO> records) {
+        BulkRecordResult result = new BulkRecordResult();
+        long started = System.nanoTime();
+        for (int from = 0; from < records.size(); from += chunkSize) {
+            List<VaccinationRecordDTO> chunk = records.subList(from, Math.min(from + chunkSize, records.size()));
+            List<BulkRecordResult.Item> outcomes = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                outcomes.add(null);
+            }
+            persistChunk(from, chunk, outcomes, result, false);
+        }
+        return finish(result, started);
+    }
+
+    /**
+     * Reads newline-delimited JSON records from {@code in}, committing a chunk at a
+     * time. A line that is not a valid record is rejected on its own. Created
+     * records are only counted and at most {@code max-reported-rejections}
+     * rejections are listed, so memory stays bounded however long the stream is.
+     */
+    public BulkRecordResult ingest(InputStream in) throws IOException {
+        BulkRecordResult result = new BulkRecordResult();
+        long started = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<VaccinationRecordDTO> chunk = new ArrayList<>(chunkSize);
+        List<BulkRecordResult.Item> outcomes = new ArrayList<>(chunkSize);
+        int index = 0;
+        int chunkStart = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(objectMapper.readValue(line, VaccinationRecordDTO.class));
+                outcomes.add(null);
+            } catch (JsonProcessingException e) {
+                // Keep the position so results line up with the submitted records
+                chunk.add(null);
+                outcomes.add(BulkRecordResult.Item.rejected(index, "Malformed JSON: " + e.getOriginalMessage()));
+            }
+            index++;
+            if (chunk.size() == chunkSize) {
+                persistChunk(chunkStart, chunk, outcomes, result, true);
+                chunk.clear();
+                outcomes.clear();
+                chunkStart = index;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persistChunk(chunkStart, chunk, outcomes, result, true);
+        }
+        return finish(result, started);
+    }
+
+    /**
+     * Applies a batch of queued device writes in one transaction. Each item carries
+     * a client idempotency key: keys already on the server (or repeated within the
+     * batch) resolve to their record without validation, so a replay costs one key
+     * lookup plus the inserts of whatever is genuinely new. New records get the dose
+     * checks of a single create against one last-dose query for the batch. A record
+     * that conflicts with one committed meanwhile, such as a dose recorded twice, is
+     * rejected on its own.
+     */
+    public SyncResult sync(List<SyncRequest.Item> items) {
+        long started = System.nanoTime();
+        seedSyncPosition();
+        SyncResult result;
+        try {
+            result = applySyncRetryingKeyConflict(items);
+        } catch (RuntimeException e) {
+            String constraint = violatedConstraint(e);
+            if (constraint == null) {
+                throw e;
+            }
+            // Which item broke the constraint is unknown, so apply them one at a time
+            logger.info("Constraint {} violated while syncing {} items, applying them one at a time",
+                constraint, items.size());
+            result = applyEachItem(items);
+        }
+        result.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        logger.info("Synced {} items: {} created, {} duplicates, {} rejected in {} ms", items.size(),
+            result.getCreated(), result.getDuplicates(), result.getRejected(), result.getElapsedMillis());
+        return result;
+    }
+
+    private SyncResult applySyncRetryingKeyConflict(List<SyncRequest.Item> items) {
+        try {
+            return transactionTemplate.execute(status -> applySync(items));
+        } catch (RuntimeException e) {
+            String constraint = violatedConstraint(e);
+            if (constraint == null || !constraint.contains(SYNC_KEY_CONSTRAINT)) {
+                throw e;
+            }
+            // A concurrent replay committed one of these keys after our lookup; on retry it is a duplicate
+            logger.info("Idempotency key conflict while syncing {} items, retrying once", items.size());
+            return transactionTemplate.execute(status -> applySync(items));
+        }
+    }
+
+    private SyncResult applyEachItem(List<SyncRequest.Item> items) {
+        SyncResult result = new SyncResult();
+        long position = 0;
+        for (SyncRequest.Item item : items) {
+            SyncResult.Item outcome;
+            try {
+                SyncResult single = applySyncRetryingKeyConflict(List.of(item));
+                outcome = single.getItems().get(0);
+                if (single.getCursor() != null) {
+                    position = Math.max(position, Long.parseLong(CursorCodec.decode(single.getCursor(), SYNC_CURSOR, 2)[1]));
+                }
+            } catch (RuntimeException e) {
+                String constraint = violatedConstraint(e);
+                if (constraint == null) {
+                    throw e;
+                }
+                logger.info("Rejected sync item {}: constraint {} violated", item.getIdempotencyKey(), constraint);
+                outcome = SyncResult.Item.of(item.getIdempotencyKey(), "REJECTED", null, "Conflicts with an existing record");
+            }
+            count(result, outcome);
+        }
+        result.setCursor(position > 0 ? CursorCodec.encode(SYNC_CURSOR, Long.toString(position)) : null);
+        return result;
+    }
+
+    private SyncResult applySync(List<SyncRequest.Item> items) {
+        // First occurrence of every key in the batch
+        Map<String, Integer> firstIndex = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            firstIndex.putIfAbsent(items.get(i).getIdempotencyKey(), i);
+        }
+        Map<String, RecordSyncKey> known = new HashMap<>();
+        for (RecordSyncKey key : recordSyncKeyRepository.findByIdempotencyKeyIn(firstIndex.keySet())) {
+            known.put(key.getIdempotencyKey(), key);
+        }
+
+        Set<String> studentIds = new HashSet<>();
+        Set<Long> driveIds = new HashSet<>();
+        for (Map.Entry<String, Integer> entry : firstIndex.entrySet()) {
+            VaccinationRecordDTO dto = items.get(entry.getValue()).getRecord();
+            if (!known.containsKey(entry.getKey()) && dto.getStudentId() != null && dto.getDriveId() != null) {
+                studentIds.add(dto.getStudentId());
+                driveIds.add(dto.getDriveId());
+            }
+        }
+        Set<String> knownStudents = studentIds.isEmpty() ? Set.of() : studentRepository.findExistingIds(studentIds);
+        Set<Long> knownDrives = driveIds.isEmpty() ? Set.of() : vaccinationDriveRepository.findExistingIds(driveIds);
+        Map<DoseStateCache.Key, Integer> lastDoses = new HashMap<>();
+        if (!studentIds.isEmpty()) {
+            for (Object[] row : vaccinationRecordRepository.findLastDoses(studentIds, driveIds)) {
+                lastDoses.put(new DoseStateCache.Key((String) row[0], (Long) row[1]), (Integer) row[2]);
+            }
+        }
+
+        Map<String, SyncResult.Item> outcomes = new HashMap<>();
+        Map<String, VaccinationRecord> inserted = new LinkedHashMap<>();
+        Set<DoseStateCache.Key> touched = new HashSet<>();
+        for (Map.Entry<String, Integer> entry : firstIndex.entrySet()) {
+            String key = entry.getKey();
+            RecordSyncKey existing = known.get(key);
+            if (existing != null) {
+                outcomes.put(key, SyncResult.Item.of(key, "DUPLICATE", existing.getRecordId(), null));
+                continue;
+            }
+            VaccinationRecordDTO dto = items.get(entry.getValue()).getRecord();
+            String error = validate(dto, knownStudents, knownDrives);
+            if (error == null) {
+                error = checkDose(dto, lastDoses);
+            }
+            if (error != null) {
+                outcomes.put(key, SyncResult.Item.of(key, "REJECTED", null, error));
+                continue;
+            }
+            VaccinationRecord record = toEntity(dto);
+            entityManager.persist(record);
+            inserted.put(key, record);
+            touched.add(new DoseStateCache.Key(dto.getStudentId(), dto.getDriveId()));
+            if (inserted.size() % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<RecordSyncKey> keys = new ArrayList<>(inserted.size());
+        List<Long> recordIds = new ArrayList<>(inserted.size());
+        for (Map.Entry<String, VaccinationRecord> entry : inserted.entrySet()) {
+            RecordSyncKey key = new RecordSyncKey();
+            key.setIdempotencyKey(entry.getKey());
+            key.setRecordId(entry.getValue().getId());
+            keys.add(key);
+            recordIds.add(entry.getValue().getId());
+            outcomes.put(entry.getKey(), SyncResult.Item.of(entry.getKey(), "CREATED", entry.getValue().getId(), null));
+        }
+        if (!keys.isEmpty()) {
+            // Held until commit, so a later position can never become visible before this one
+            RecordSyncPosition counter = recordSyncPositionRepository.findByIdForUpdate(RecordSyncPosition.SYNC)
+                .orElseThrow(() -> new IllegalStateException("Sync position counter is missing"));
+            long last = counter.getLastPosition();
+            for (RecordSyncKey key : keys) {
+                key.setSyncPosition(++last);
+            }
+            counter.setLastPosition(last);
+            recordSyncPositionRepository.save(counter);
+        }
+        // Flushed so a key committed concurrently fails here, as a uk_record_sync_keys_key violation
+        recordSyncKeyRepository.saveAllAndFlush(keys);
+        vaccinationReportService.refreshRecords(recordIds);
+        doseStateCache.invalidate(touched);
+
+        SyncResult result = new SyncResult();
+        long position = 0;
+        for (RecordSyncKey key : known.values()) {
+            position = Math.max(position, key.getSyncPosition());
+        }
+        for (RecordSyncKey key : keys) {
+            position = Math.max(position, key.getSyncPosition());
+        }
+        for (int i = 0; i < items.size(); i++) {
+            String key = items.get(i).getIdempotencyKey();
+            SyncResult.Item outcome = outcomes.get(key);
+            if (firstIndex.get(key) != i && !"REJECTED".equals(outcome.getStatus())) {
+                // A repeat within the batch resolves to the record of its first occurrence
+                outcome = SyncResult.Item.of(key, "DUPLICATE", outcome.getRecordId(), null);
+            }
+            count(result, outcome);
+        }
+        result.setCursor(position > 0 ? CursorCodec.encode(SYNC_CURSOR, Long.toString(position)) : null);
+        return result;
+    }
+
+    private static void count(SyncResult result, SyncResult.Item outcome) {
+        switch (outcome.getStatus()) {
+            case "CREATED" -> result.setCreated(result.getCreated() + 1);
+            case "DUPLICATE" -> result.setDuplicates(result.getDuplicates() + 1);
+            default -> result.setRejected(result.getRejected() + 1);
+        }
+        result.getItems().add(outcome);
+    }
+
+    // Lower-cased name of the database constraint behind e, or null if e is not a constraint violation
+    private static String violatedConstraint(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName();
+                if (name == null) {
+                    return "unknown";
+                }
+                // H2 names the backing index and its table, e.g. "PUBLIC.UK_..._INDEX_A ON PUBLIC.TABLE(...)"
+                name = name.replace("\"", "").trim().split("\\s", 2)[0];
+                return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records synced after a cursor from {@link #sync} or from a previous call,
+     * oldest first, so a device can pull what other devices have written.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<VaccinationRecordView> getSyncedAfter(String after, int limit) {
+        long position = after == null ? 0 : Long.parseLong(CursorCodec.decode(after, SYNC_CURSOR, 2)[1]);
+        List<RecordSyncKey> keys = recordSyncKeyRepository.findBySyncPositionGreaterThanOrderBySyncPosition(
+            position, PageRequest.of(0, limit + 1));
+        boolean hasMore = keys.size() > limit;
+        List<RecordSyncKey> slice = hasMore ? keys.subList(0, limit) : keys;
+
+        List<Long> recordIds = new ArrayList<>(slice.size());
+        for (RecordSyncKey key : slice) {
+            recordIds.add(key.getRecordId());
+        }
+        Map<Long, VaccinationRecordView> views = new HashMap<>();
+        if (!recordIds.isEmpty()) {
+            for (VaccinationRecordView view : vaccinationRecordRepository.findViewsByIdIn(recordIds)) {
+                views.put(view.getId(), view);
+            }
+        }
+        // Records deleted since they were synced are skipped
+        List<VaccinationRecordView> content = new ArrayList<>(slice.size());
+        for (Long recordId : recordIds) {
+            VaccinationRecordView view = views.get(recordId);
+            if (view != null) {
+                content.add(view);
+            }
+        }
+        String next = hasMore
+            ? CursorCodec.encode(SYNC_CURSOR, slice.get(limit - 1).getSyncPosition().toString())
+            : null;
+        return new CursorPage<>(content, content.size(), next);
+    }
+
+    // Creates the counter row on first use, continuing after any positions already handed out
+    private void seedSyncPosition() {
+        if (recordSyncPositionRepository.existsById(RecordSyncPosition.SYNC)) {
+            return;
+        }
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                RecordSyncPosition counter = new RecordSyncPosition();
+                counter.setId(RecordSyncPosition.SYNC);
+                counter.setLastPosition(recordSyncKeyRepository.findFirstByOrderBySyncPositionDesc()
+                    .map(RecordSyncKey::getSyncPosition)
+                    .orElse(0L));
+                recordSyncPositionRepository.saveAndFlush(counter);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the counter row first
+        }
+    }
+
+    // outcomes holds a preset rejection or null for each record of the chunk
+    private void persistChunk(int firstIndex, List<VaccinationRecordDTO> chunk, List<BulkRecordResult.Item> outcomes,
+                              BulkRecordResult result, boolean rejectionsOnly) {
+        Set<String> studentIds = new HashSet<>();
+        Set<Long> driveIds = new HashSet<>();
+        for (VaccinationRecordDTO dto : chunk) {
+            if (dto != null && dto.getStudentId() != null && dto.getDriveId() != null) {
+                studentIds.add(dto.getStudentId());
+                driveIds.add(dto.getDriveId());
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> knownStudents = studentIds.isEmpty() ? Set.of() : studentRepository.findExistingIds(studentIds);
+                Set<Long> knownDrives = driveIds.isEmpty() ? Set.of() : vaccinationDriveRepository.findExistingIds(driveIds);
+                Map<DoseStateCache.Key, Integer> lastDoses = new HashMap<>();
+                if (!studentIds.isEmpty()) {
+                    for (Object[] row : vaccinationRecordRepository.findLastDoses(studentIds, driveIds)) {
+                        lastDoses.put(new DoseStateCache.Key((String) row[0], (Long) row[1]), (Integer) row[2]);
+                    }
+                }
+
+                List<VaccinationRecord> inserted = new ArrayList<>(chunk.size());
+                Set<DoseStateCache.Key> touched = new HashSet<>();
+                List<Integer> insertedAt = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (outcomes.get(i) != null) {
+                        continue;
+                    }
+                    VaccinationRecordDTO dto = chunk.get(i);
+                    String error = validate(dto, knownStudents, knownDrives);
+                    if (error == null) {
+                        error = checkDose(dto, lastDoses);
+                    }
+                    if (error != null) {
+                        outcomes.set(i, BulkRecordResult.Item.rejected(firstIndex + i, error));
+                        continue;
+                    }
+                    VaccinationRecord record = toEntity(dto);
+                    entityManager.persist(record);
+                    inserted.add(record);
+                    touched.add(new DoseStateCache.Key(dto.getStudentId(), dto.getDriveId()));
+                    insertedAt.add(i);
+                    if (inserted.size() % batchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+                List<Long> ids = new ArrayList<>(inserted.size());
+                for (VaccinationRecord record : inserted) {
+                    ids.add(record.getId());
+                }
+                vaccinationReportService.refreshRecords(ids);
+                // The cache has not seen these rows, so dose states for their pairs are dropped
+                doseStateCache.invalidate(touched);
+                for (int j = 0; j < inserted.size(); j++) {
+                    int i = insertedAt.get(j);
+                    outcomes.set(i, BulkRecordResult.Item.created(firstIndex + i, inserted.get(j).getId()));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to ingest vaccination records {}-{}", firstIndex, firstIndex + chunk.size() - 1, e);
+            for (int i = 0; i < chunk.size(); i++) {
+                BulkRecordResult.Item outcome = outcomes.get(i);
+                if (outcome == null || "CREATED".equals(outcome.getStatus())) {
+                    outcomes.set(i, BulkRecordResult.Item.rejected(firstIndex + i, "Batch failed: " + e.getMessage()));
+                }
+            }
+        }
+
+        for (BulkRecordResult.Item outcome : outcomes) {
+            if ("CREATED".equals(outcome.getStatus())) {
+                result.setCreated(result.getCreated() + 1);
+                if (!rejectionsOnly) {
+                    result.getItems().add(outcome);
+                }
+            } else {
+                result.setRejected(result.getRejected() + 1);
+                if (!rejectionsOnly || result.getItems().size() < maxReportedRejections) {
+                    result.getItems().add(outcome);
+                } else {
+                    result.setItemsTruncated(true);
+                }
+            }
+        }
+        result.setReceived(result.getReceived() + chunk.size());
+    }
+
+    // The checks createRecord applies through DoseStateCache, against the batch's lastDoses
+    private static String checkDose(VaccinationRecordDTO dto, Map<DoseStateCache.Key, Integer> lastDoses) {
+        if ("COMPLETED".equals(dto.getStatus())
+                && LocalDateTime.parse(dto.getVaccinationDate(), DATE_TIME_FORMATTER).isAfter(LocalDateTime.now())) {
+            return "Vaccination date cannot be in the future";
+        }
+        DoseStateCache.Key key = new DoseStateCache.Key(dto.getStudentId(), dto.getDriveId());
+        int lastDose = lastDoses.getOrDefault(key, 0);
+        if (dto.getDoseNumber() == lastDose) {
+            return "This dose number already exists for this student and drive";
+        }
+        if (dto.getDoseNumber() < lastDose) {
+            return "Invalid dose number sequence";
+        }
+        // Later records of the same pair in this chunk must follow this one
+        lastDoses.put(key, dto.getDoseNumber());
+        return null;
+    }
+
+    private static String validate(VaccinationRecordDTO dto, Set<String> knownStudents, Set<Long> knownDrives) {
+        if (dto.getStudentId() == null || dto.getDriveId() == null) {
+            return "studentId and driveId are required";
+        }
+        if (!knownStudents.contains(dto.getStudentId())) {
+            return "Student not found with ID: " + dto.getStudentId();
+        }
+        if (!knownDrives.contains(dto.getDriveId())) {
+            return "Vaccination drive not found with ID: " + dto.getDriveId();
+        }
+        if (dto.getDoseNumber() == null) {
+            return "doseNumber is required";
+        }
+        if (dto.getVaccinationDate() == null) {
+            return "vaccinationDate is required";
+        }
+        try {
+            LocalDateTime.parse(dto.getVaccinationDate(), DATE_TIME_FORMATTER);
+            if (dto.getNextDoseDate() != null) {
+                LocalDateTime.parse(dto.getNextDoseDate(), DATE_TIME_FORMATTER);
+            }
+        } catch (DateTimeParseException e) {
+            return "Invalid date format. Expected format: yyyy-MM-dd'T'HH:mm:ss";
+        }
+        return null;
+    }
+
+    // Students and drives are referenced by id only; their existence was checked in bulk
+    private VaccinationRecord toEntity(VaccinationRecordDTO dto) {
+        VaccinationRecord record = new VaccinationRecord();
+        record.setStudent(entityManager.getReference(Student.class, dto.getStudentId()));
+        record.setVaccinationDrive(entityManager.getReference(VaccinationDrive.class, dto.getDriveId()));
+        record.setVaccinationDate(LocalDateTime.parse(dto.getVaccinationDate(), DATE_TIME_FORMATTER));
+        if (dto.getNextDoseDate() != null) {
+            record.setNextDoseDate(LocalDateTime.parse(dto.getNextDoseDate(), DATE_TIME_FORMATTER));
+        }
+        record.setDoseNumber(dto.getDoseNumber());
+        record.setBatchNumber(dto.getBatchNumber());
+        record.setAdministeredBy(dto.getAdministeredBy());
+        record.setVaccinationSite(dto.getVaccinationSite());
+        record.setStatus(dto.getStatus() != null ? dto.getStatus() : "SCHEDULED");
+        record.setSideEffects(dto.getSideEffects());
+        record.setNotes(dto.getNotes());
+        return record;
+    }
+
+    private static BulkRecordResult finish(BulkRecordResult result, long started) {
+        result.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        result.setRecordsPerSecond(result.getElapsedMillis() > 0
+            ? result.getCreated() * 1000.0 / result.getElapsedMillis()
+            : result.getCreated());
+        logger.info("Ingested {} of {} vaccination records in {} ms ({} records/sec)",
+            result.getCreated(), result.getReceived(), result.getElapsedMillis(), Math.round(result.getRecordsPerSecond()));
+        return result;
+    }
+}
@@ -5,13 +5,17 @@ import com.school.vaccineportalbackend.model.VaccinationDrive;
 import com.school.vaccineportalbackend.model.VaccinationRecord;
 import com.school.vaccineportalbackend.repository.StudentRepository;
 import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import com.school.vaccineportalbackend.dto.CursorPage;
 import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.dto.VaccinationRecordView;
+import com.school.vaccineportalbackend.exception.PreconditionFailedException;
+import com.school.vaccineportalbackend.util.CursorCodec;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -19,7 +23,6 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
@@ -34,10 +37,20 @@ public class VaccinationRecordService {
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private VaccinationReportService vaccinationReportService;
+
+    @Autowired
+    private DoseStateCache doseStateCache;
+
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
+
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String ID_CURSOR = "id";
+    private static final String DATE_CURSOR = "vaccinationDate";
 
     private VaccinationRecordDTO convertToDTO(VaccinationRecord record) {
-        logger.debug("Converting vaccination record to DTO - ID: {}", record.getId());
         VaccinationRecordDTO dto = new VaccinationRecordDTO();
         dto.setId(record.getId());
         dto.setStudentId(record.getStudent().getStudentId());
@@ -56,6 +69,7 @@ public class VaccinationRecordService {
         dto.setNotes(record.getNotes());
         dto.setCreatedAt(record.getCreatedAt().format(DATE_TIME_FORMATTER));
         dto.setUpdatedAt(record.getUpdatedAt().format(DATE_TIME_FORMATTER));
+        dto.setVersion(record.getVersion());
         return dto;
     }
 
@@ -95,59 +109,113 @@ public class VaccinationRecordService {
     }
 
     @Transactional(readOnly = true)
-    public Page<VaccinationRecordDTO> getAllRecords(Pageable pageable) {
-        return vaccinationRecordRepository.findAll(pageable).map(this::convertToDTO);
+    public Page<VaccinationRecordView> getAllRecords(Pageable pageable) {
+        return vaccinationRecordRepository.findAllViews(pageable);
+    }
+
+    /**
+     * Keyset-paginated records ordered by {@code id} or by {@code vaccinationDate}
+     * (ties broken by id). The cursor is the position of the last row returned.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<VaccinationRecordView> getRecordsAfter(String order, String after, int limit) {
+        // Fetch one extra row to learn whether another slice follows
+        Pageable rows = PageRequest.of(0, limit + 1);
+        List<VaccinationRecordView> records;
+        if (DATE_CURSOR.equals(order)) {
+            if (after == null) {
+                records = vaccinationRecordRepository.findFirstViewsByVaccinationDate(rows);
+            } else {
+                String[] key = CursorCodec.decode(after, DATE_CURSOR, 3);
+                records = vaccinationRecordRepository.findViewsAfterVaccinationDate(
+                    LocalDateTime.parse(key[1], DATE_TIME_FORMATTER), Long.valueOf(key[2]), rows);
+            }
+        } else if (ID_CURSOR.equals(order)) {
+            records = after == null
+                ? vaccinationRecordRepository.findFirstViewsById(rows)
+                : vaccinationRecordRepository.findViewsAfterId(Long.valueOf(CursorCodec.decode(after, ID_CURSOR, 2)[1]), rows);
+        } else {
+            throw new IllegalArgumentException("Unsupported order: " + order);
+        }
+
+        boolean hasMore = records.size() > limit;
+        List<VaccinationRecordView> slice = hasMore ? records.subList(0, limit) : records;
+        String next = null;
+        if (hasMore) {
+            VaccinationRecordView last = slice.get(limit - 1);
+            next = DATE_CURSOR.equals(order)
+                ? CursorCodec.encode(DATE_CURSOR, last.getVaccinationDate().format(DATE_TIME_FORMATTER), last.getId().toString())
+                : CursorCodec.encode(ID_CURSOR, last.getId().toString());
+        }
+        return new CursorPage<>(slice, slice.size(), next);
     }
 
     @Transactional(readOnly = true)
     public VaccinationRecordDTO getRecordById(Long id) {
-        return vaccinationRecordRepository.findById(id)
-                .map(this::convertToDTO)
+        return vaccinationRecordRepository.findDTOById(id)
                 .orElseThrow(() -> new RuntimeException("Vaccination record not found"));
     }
 
     @Transactional(readOnly = true)
-    public Page<VaccinationRecordDTO> getRecordsByStudentId(String studentId, Pageable pageable) {
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
-        return vaccinationRecordRepository.findByStudent(student, pageable).map(this::convertToDTO);
+    public Page<VaccinationRecordView> getRecordsByStudentId(String studentId, Pageable pageable) {
+        if (!studentRepository.existsById(studentId)) {
+            throw new RuntimeException("Student not found");
+        }
+        return vaccinationRecordRepository.findViewsByStudentId(studentId, pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<VaccinationRecordDTO> getRecordsByDrive(Long driveId, Pageable pageable) {
-        VaccinationDrive drive = vaccinationRecordRepository.findVaccinationDriveById(driveId)
-                .orElseThrow(() -> new RuntimeException("Vaccination drive not found"));
-        return vaccinationRecordRepository.findByVaccinationDrive(drive, pageable).map(this::convertToDTO);
+    public Page<VaccinationRecordView> getRecordsByDrive(Long driveId, Pageable pageable) {
+        if (!vaccinationRecordRepository.existsVaccinationDriveById(driveId)) {
+            throw new RuntimeException("Vaccination drive not found");
+        }
+        return vaccinationRecordRepository.findViewsByDriveId(driveId, pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<VaccinationRecordDTO> getRecordsByStudentAndStatus(String studentId, String status, Pageable pageable) {
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
-        return vaccinationRecordRepository.findByStudentAndStatus(student, status, pageable).map(this::convertToDTO);
+    public Page<VaccinationRecordView> getRecordsByStudentAndStatus(String studentId, String status, Pageable pageable) {
+        if (!studentRepository.existsById(studentId)) {
+            throw new RuntimeException("Student not found");
+        }
+        return vaccinationRecordRepository.findViewsByStudentIdAndStatus(studentId, status, pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<VaccinationRecordDTO> getRecordsByDriveAndStatus(Long driveId, String status, Pageable pageable) {
-        VaccinationDrive drive = vaccinationRecordRepository.findVaccinationDriveById(driveId)
-                .orElseThrow(() -> new RuntimeException("Vaccination drive not found"));
-        return vaccinationRecordRepository.findByVaccinationDriveAndStatus(drive, status, pageable).map(this::convertToDTO);
+    public Page<VaccinationRecordView> getRecordsByDriveAndStatus(Long driveId, String status, Pageable pageable) {
+        if (!vaccinationRecordRepository.existsVaccinationDriveById(driveId)) {
+            throw new RuntimeException("Vaccination drive not found");
+        }
+        return vaccinationRecordRepository.findViewsByDriveIdAndStatus(driveId, status, pageable);
     }
 
     @Transactional(readOnly = true)
-    public Page<VaccinationRecordDTO> getRecordsByDateRange(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
-        return vaccinationRecordRepository.findByVaccinationDateBetween(startDate, endDate, pageable).map(this::convertToDTO);
+    public Page<VaccinationRecordView> getRecordsByDateRange(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+        return vaccinationRecordRepository.findViewsByVaccinationDateBetween(startDate, endDate, pageable);
     }
 
     @Transactional
     public VaccinationRecordDTO createRecord(VaccinationRecordDTO recordDTO) {
         VaccinationRecord record = convertToEntity(recordDTO);
+        validateRecord(record);
         VaccinationRecord savedRecord = vaccinationRecordRepository.save(record);
+        doseStateCache.onRecorded(recordDTO.getStudentId(), recordDTO.getDriveId(),
+            savedRecord.getDoseNumber(), savedRecord.getStatus());
+        vaccinationReportService.refreshRecords(List.of(savedRecord.getId()));
         return convertToDTO(savedRecord);
     }
 
-    @Transactional
-    public VaccinationRecordDTO updateRecord(Long id, VaccinationRecordDTO recordDTO) {
+    /**
+     * Applies the non-null fields of {@code recordDTO} to the current row. A write
+     * that loses a race with another update is re-applied to the winner's version,
+     * so concurrent edits to different fields both survive. With
+     * {@code expectedVersion} set (from If-Match) the update only applies to that
+     * version and fails with {@link PreconditionFailedException} otherwise.
+     */
+    public VaccinationRecordDTO updateRecord(Long id, VaccinationRecordDTO recordDTO, Long expectedVersion) {
+        return optimisticLockRetry.execute("Vaccination record", () -> applyUpdate(id, recordDTO, expectedVersion));
+    }
+
+    private VaccinationRecordDTO applyUpdate(Long id, VaccinationRecordDTO recordDTO, Long expectedVersion) {
         logger.info("Updating vaccination record with ID: {}", id);
         
         VaccinationRecord existingRecord = vaccinationRecordRepository.findById(id)
@@ -155,6 +223,12 @@ public class VaccinationRecordService {
                     logger.error("Vaccination record not found with ID: {}", id);
                     return new RuntimeException("Vaccination record not found");
                 });
+        if (expectedVersion != null && !expectedVersion.equals(existingRecord.getVersion())) {
+            logger.error("Vaccination record {} is at version {}, not {}", id, existingRecord.getVersion(), expectedVersion);
+            throw new PreconditionFailedException("Vaccination record has been modified since version " + expectedVersion);
+        }
+        String previousStudentId = existingRecord.getStudent().getStudentId();
+        Long previousDriveId = existingRecord.getVaccinationDrive().getId();
         
         // Validate student if provided
         if (recordDTO.getStudentId() != null) {
@@ -179,11 +253,10 @@ public class VaccinationRecordService {
         // Update dose number if provided
         if (recordDTO.getDoseNumber() != null) {
             // Validate dose number sequence
-            Optional<VaccinationRecord> lastDose = vaccinationRecordRepository
-                .findFirstByStudentAndVaccinationDriveOrderByDoseNumberDesc(
-                    existingRecord.getStudent(), existingRecord.getVaccinationDrive());
+            DoseStateCache.DoseState lastDose = doseStateCache.get(
+                existingRecord.getStudent().getStudentId(), existingRecord.getVaccinationDrive().getId());
             
-            if (lastDose.isPresent() && recordDTO.getDoseNumber() <= lastDose.get().getDoseNumber()) {
+            if (recordDTO.getDoseNumber() <= lastDose.lastDose()) {
                 logger.error("Invalid dose number sequence for student: {} and drive: {}", 
                     existingRecord.getStudent().getStudentId(), existingRecord.getVaccinationDrive().getId());
                 throw new RuntimeException("Invalid dose number sequence");
@@ -194,12 +267,7 @@ public class VaccinationRecordService {
         // Update vaccination date if provided
         if (recordDTO.getVaccinationDate() != null) {
             try {
-                LocalDateTime vaccinationDate = LocalDateTime.parse(recordDTO.getVaccinationDate(), DATE_TIME_FORMATTER);
-                if (vaccinationDate.isAfter(LocalDateTime.now())) {
-                    logger.error("Vaccination date cannot be in the future");
-                    throw new RuntimeException("Vaccination date cannot be in the future");
-                }
-                existingRecord.setVaccinationDate(vaccinationDate);
+                existingRecord.setVaccinationDate(LocalDateTime.parse(recordDTO.getVaccinationDate(), DATE_TIME_FORMATTER));
             } catch (DateTimeParseException e) {
                 logger.error("Invalid vaccination date format: {}", recordDTO.getVaccinationDate());
                 throw new RuntimeException("Invalid vaccination date format. Expected format: yyyy-MM-dd'T'HH:mm:ss");
@@ -236,6 +304,11 @@ public class VaccinationRecordService {
             }
             existingRecord.setStatus(newStatus);
         }
+        // Checked on the resulting record, so a scheduled dose can be moved ahead but not completed ahead
+        if ("COMPLETED".equals(existingRecord.getStatus()) && existingRecord.getVaccinationDate().isAfter(LocalDateTime.now())) {
+            logger.error("Vaccination date cannot be in the future");
+            throw new RuntimeException("Vaccination date cannot be in the future");
+        }
         if (recordDTO.getSideEffects() != null) {
             existingRecord.setSideEffects(recordDTO.getSideEffects());
         }
@@ -243,7 +316,14 @@ public class VaccinationRecordService {
             existingRecord.setNotes(recordDTO.getNotes());
         }
         
-        VaccinationRecord savedRecord = vaccinationRecordRepository.save(existingRecord);
+        VaccinationRecord savedRecord = vaccinationRecordRepository.saveAndFlush(existingRecord);
+        vaccinationReportService.refreshRecords(List.of(savedRecord.getId()));
+        String studentId = savedRecord.getStudent().getStudentId();
+        Long driveId = savedRecord.getVaccinationDrive().getId();
+        if (!studentId.equals(previousStudentId) || !driveId.equals(previousDriveId)) {
+            doseStateCache.invalidate(previousStudentId, previousDriveId);
+        }
+        doseStateCache.onRecorded(studentId, driveId, savedRecord.getDoseNumber(), savedRecord.getStatus());
         logger.debug("Successfully updated vaccination record with ID: {}", savedRecord.getId());
         return convertToDTO(savedRecord);
     }
@@ -265,65 +345,40 @@ public class VaccinationRecordService {
         VaccinationRecord record = vaccinationRecordRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Vaccination record not found"));
         vaccinationRecordRepository.delete(record);
+        vaccinationReportService.removeRecord(id);
+        doseStateCache.invalidate(record.getStudent().getStudentId(), record.getVaccinationDrive().getId());
     }
 
     private void validateRecord(VaccinationRecord record) {
-        if (record.getVaccinationDate().isAfter(LocalDateTime.now())) {
+        // Scheduled doses are booked ahead; only a dose already given must be dated in the past
+        if ("COMPLETED".equals(record.getStatus()) && record.getVaccinationDate().isAfter(LocalDateTime.now())) {
             throw new RuntimeException("Vaccination date cannot be in the future");
         }
 
-        // Check if this dose number already exists for this student and drive
-        if (vaccinationRecordRepository.existsByStudentAndVaccinationDriveAndDoseNumber(
-                record.getStudent(), record.getVaccinationDrive(), record.getDoseNumber())) {
-            throw new RuntimeException("This dose number already exists for this student and drive");
+        if (record.getDoseNumber() == null) {
+            throw new RuntimeException("Dose number is required");
         }
 
-        // Validate dose number sequence
-        Optional<VaccinationRecord> lastDose = vaccinationRecordRepository
-                .findFirstByStudentAndVaccinationDriveOrderByDoseNumberDesc(
-                        record.getStudent(), record.getVaccinationDrive());
-
-        if (lastDose.isPresent() && record.getDoseNumber() <= lastDose.get().getDoseNumber()) {
+        // Doses must follow the last recorded one; the unique constraint catches anything a stale cache misses
+        DoseStateCache.DoseState lastDose = doseStateCache.get(
+                record.getStudent().getStudentId(), record.getVaccinationDrive().getId());
+        if (record.getDoseNumber() == lastDose.lastDose()) {
+            throw new RuntimeException("This dose number already exists for this student and drive");
+        }
+        if (record.getDoseNumber() < lastDose.lastDose()) {
             throw new RuntimeException("Invalid dose number sequence");
         }
     }
 
+    // Served from the denormalized report table rather than the live record/student/drive/vaccine join
     @Transactional(readOnly = true)
-    public Page<VaccinationRecordDTO> generateVaccinationReport(
+    public Page<VaccinationRecordView> generateVaccinationReport(
             String vaccineName,
             String status,
             String grade,
             LocalDate startDate,
             LocalDate endDate,
             Pageable pageable) {
-        
-        Specification<VaccinationRecord> spec = Specification.where(null);
-        
-        if (vaccineName != null && !vaccineName.isEmpty()) {
-            spec = spec.and((root, query, cb) -> 
-                cb.equal(root.get("vaccinationDrive").get("vaccine").get("name"), vaccineName));
-        }
-        
-        if (status != null && !status.isEmpty()) {
-            spec = spec.and((root, query, cb) -> 
-                cb.equal(root.get("status"), status));
-        }
-        
-        if (grade != null && !grade.isEmpty()) {
-            spec = spec.and((root, query, cb) -> 
-                cb.equal(root.get("student").get("grade"), grade));
-        }
-        
-        if (startDate != null) {
-            spec = spec.and((root, query, cb) -> 
-                cb.greaterThanOrEqualTo(root.get("vaccinationDate"), startDate.atStartOfDay()));
-        }
-        
-        if (endDate != null) {
-            spec = spec.and((root, query, cb) -> 
-                cb.lessThanOrEqualTo(root.get("vaccinationDate"), endDate.atTime(23, 59, 59)));
-        }
-        
-        return vaccinationRecordRepository.findAll(spec, pageable).map(this::convertToDTO);
+        return vaccinationReportService.findReport(vaccineName, status, grade, startDate, endDate, pageable);
     }
-}
\ No newline at end of file
+}
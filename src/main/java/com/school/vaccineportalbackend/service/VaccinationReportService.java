@@ -0,0 +1,238 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.dto.VaccinationRecordView;
+import com.school.vaccineportalbackend.model.VaccinationReportEntry;
+import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import com.school.vaccineportalbackend.repository.VaccinationReportEntryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the denormalized vaccination_report_entries table in step with records,
+ * students, drives and vaccines, and serves the report and record exports from it.
+ * Writers call the refresh methods inside their own transaction, so a report row
+ * commits or rolls back together with the change it reflects. A refresh deletes
+ * the affected rows and re-inserts them from the live join in two statements.
+ */
+@Service
+public class VaccinationReportService {
+    private static final Logger logger = LogManager.getLogger(VaccinationReportService.class);
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private VaccinationReportEntryRepository reportEntryRepository;
+
+    @Autowired
+    private VaccinationRecordRepository vaccinationRecordRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Seeded from the clock so stamps handed out before a restart never match new data
+    private final AtomicLong dataVersion = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Rebuilds the table at startup when its fingerprint, the row count and latest
+     * updated_at, no longer matches the records', e.g. after a fresh schema or
+     * records inserted, deleted or edited outside the application. Edits made
+     * outside it to students, drives or vaccines alone are not detected.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfStale() {
+        long records = vaccinationRecordRepository.count();
+        long entries = reportEntryRepository.count();
+        LocalDateTime recordsUpdated = vaccinationRecordRepository.findLastUpdatedAt().orElse(null);
+        LocalDateTime entriesUpdated = reportEntryRepository.findLastUpdatedAt().orElse(null);
+        if (records != entries || !Objects.equals(recordsUpdated, entriesUpdated)) {
+            logger.info("Report table has {} rows updated up to {} for {} vaccination records updated up to {}, rebuilding",
+                entries, entriesUpdated, records, recordsUpdated);
+            rebuild();
+        }
+    }
+
+    @Transactional
+    public void rebuild() {
+        long started = System.nanoTime();
+        reportEntryRepository.deleteAllEntries();
+        int inserted = reportEntryRepository.insertAll();
+        changed();
+        logger.info("Rebuilt vaccination report table: {} rows in {} ms", inserted, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Transactional
+    public void refreshRecords(Collection<Long> recordIds) {
+        inChunks(recordIds, ids -> {
+            reportEntryRepository.deleteByRecordIds(ids);
+            reportEntryRepository.insertByRecordIds(ids);
+        });
+        changed();
+    }
+
+    @Transactional
+    public void removeRecord(Long recordId) {
+        reportEntryRepository.deleteByRecordIds(List.of(recordId));
+        changed();
+    }
+
+    // Student name or grade may have changed
+    @Transactional
+    public void refreshStudents(Collection<String> studentIds) {
+        inChunks(studentIds, ids -> {
+            reportEntryRepository.deleteByStudentIds(ids);
+            reportEntryRepository.insertByStudentIds(ids);
+        });
+        changed();
+    }
+
+    // The drive may now point at another vaccine
+    @Transactional
+    public void refreshDrive(Long driveId) {
+        reportEntryRepository.deleteByDriveIds(List.of(driveId));
+        reportEntryRepository.insertByDriveIds(List.of(driveId));
+        changed();
+    }
+
+    @Transactional
+    public void refreshVaccine(Long vaccineId) {
+        reportEntryRepository.deleteByVaccineId(vaccineId);
+        reportEntryRepository.insertByVaccineId(vaccineId);
+        changed();
+    }
+
+    /**
+     * Stamp of the report table's contents. It moves forward after every commit
+     * that refreshed report rows, so anything derived from the report can be
+     * cached under it. Writes made by other instances are not seen.
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    // Moved after commit: bumping earlier would let a reader take the new stamp while still seeing the old rows
+    private void changed() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dataVersion.incrementAndGet();
+                }
+            });
+        } else {
+            dataVersion.incrementAndGet();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Page<VaccinationRecordView> findReport(String vaccineName, String status, String grade,
+                                                  LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        return reportEntryRepository.findAll(filter(vaccineName, false, status, grade, startDate, endDate), pageable)
+                .map(VaccinationReportService::toView);
+    }
+
+    /**
+     * Entries for the record exports, in report order. The vaccine name matches
+     * case-insensitively, as the exports always have.
+     */
+    @Transactional(readOnly = true)
+    public List<VaccinationReportEntry> findEntries(String vaccineName, String status, String grade,
+                                                    LocalDate startDate, LocalDate endDate) {
+        return reportEntryRepository.findAll(filter(vaccineName, true, status, grade, startDate, endDate),
+                Sort.by("vaccinationDate", "id"));
+    }
+
+    /**
+     * Same entries as {@link #findEntries}, read through a forward-only cursor
+     * {@code fetchSize} rows at a time. Each entry is detached as it is handed out,
+     * so memory stays flat however many rows match. Close the stream before the
+     * surrounding transaction ends.
+     */
+    @Transactional(readOnly = true)
+    public Stream<VaccinationReportEntry> streamEntries(String vaccineName, String status, String grade,
+                                                       LocalDate startDate, LocalDate endDate, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<VaccinationReportEntry> query = cb.createQuery(VaccinationReportEntry.class);
+        Root<VaccinationReportEntry> root = query.from(VaccinationReportEntry.class);
+        Predicate predicate = filter(vaccineName, true, status, grade, startDate, endDate).toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("vaccinationDate")), cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(entry -> {
+                    entityManager.detach(entry);
+                    return entry;
+                });
+    }
+
+    private static Specification<VaccinationReportEntry> filter(String vaccineName, boolean ignoreCase, String status,
+                                                                String grade, LocalDate startDate, LocalDate endDate) {
+        Specification<VaccinationReportEntry> spec = Specification.where(null);
+        if (vaccineName != null && !vaccineName.isEmpty()) {
+            spec = spec.and(ignoreCase
+                ? (root, query, cb) -> cb.equal(cb.lower(root.get("vaccineName")), vaccineName.toLowerCase(Locale.ROOT))
+                : (root, query, cb) -> cb.equal(root.get("vaccineName"), vaccineName));
+        }
+        if (status != null && !status.isEmpty()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        if (grade != null && !grade.isEmpty()) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("grade"), grade));
+        }
+        if (startDate != null) {
+            spec = spec.and((root, query, cb) ->
+                cb.greaterThanOrEqualTo(root.get("vaccinationDate"), startDate.atStartOfDay()));
+        }
+        if (endDate != null) {
+            spec = spec.and((root, query, cb) ->
+                cb.lessThanOrEqualTo(root.get("vaccinationDate"), endDate.atTime(23, 59, 59)));
+        }
+        return spec;
+    }
+
+    private static VaccinationRecordView toView(VaccinationReportEntry entry) {
+        return new VaccinationRecordView(entry.getId(), entry.getStudentId(), entry.getStudentName(),
+            entry.getDriveId(), entry.getDoseNumber(), entry.getVaccinationDate(), entry.getBatchNumber(),
+            entry.getAdministeredBy(), entry.getVaccinationSite(), entry.getStatus(), entry.getSideEffects(),
+            entry.getNextDoseDate(), entry.getNotes(), entry.getCreatedAt(), entry.getUpdatedAt());
+    }
+
+    private static <T> void inChunks(Collection<T> values, Consumer<List<T>> action) {
+        List<T> all = new ArrayList<>(values);
+        for (int from = 0; from < all.size(); from += IN_CHUNK_SIZE) {
+            action.accept(all.subList(from, Math.min(from + IN_CHUNK_SIZE, all.size())));
+        }
+    }
+}
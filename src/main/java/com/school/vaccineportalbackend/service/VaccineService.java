@@ -4,6 +4,7 @@ import com.school.vaccineportalbackend.model.Vaccine;
 import com.school.vaccineportalbackend.model.VaccinationRecord;
 import com.school.vaccineportalbackend.repository.VaccineRepository;
 import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import com.school.vaccineportalbackend.exception.PreconditionFailedException;
 import com.school.vaccineportalbackend.exception.ResourceNotFoundException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -23,12 +24,18 @@ public class VaccineService {
     
     private final VaccineRepository vaccineRepository;
     private final VaccinationRecordRepository vaccinationRecordRepository;
+    private final VaccinationReportService vaccinationReportService;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     @Autowired
     public VaccineService(VaccineRepository vaccineRepository, 
-                         VaccinationRecordRepository vaccinationRecordRepository) {
+                         VaccinationRecordRepository vaccinationRecordRepository,
+                         VaccinationReportService vaccinationReportService,
+                         OptimisticLockRetry optimisticLockRetry) {
         this.vaccineRepository = vaccineRepository;
         this.vaccinationRecordRepository = vaccinationRecordRepository;
+        this.vaccinationReportService = vaccinationReportService;
+        this.optimisticLockRetry = optimisticLockRetry;
     }
 
     @Transactional(readOnly = true)
@@ -75,7 +82,15 @@ public class VaccineService {
         return savedVaccine;
     }
 
-    public Vaccine updateVaccine(Long id, Vaccine vaccine) {
+    /**
+     * Applies the update to the current row, retrying on a concurrent write. With
+     * {@code expectedVersion} set the update only applies to that version.
+     */
+    public Vaccine updateVaccine(Long id, Vaccine vaccine, Long expectedVersion) {
+        return optimisticLockRetry.execute("Vaccine", () -> applyUpdate(id, vaccine, expectedVersion));
+    }
+
+    private Vaccine applyUpdate(Long id, Vaccine vaccine, Long expectedVersion) {
         logger.info("Updating vaccine with ID: {}", id);
         
         Vaccine existingVaccine = vaccineRepository.findById(id)
@@ -83,9 +98,13 @@ public class VaccineService {
                 logger.error("Vaccine not found with ID: {}", id);
                 return new ResourceNotFoundException("Vaccine not found");
             });
+        if (expectedVersion != null && !expectedVersion.equals(existingVaccine.getVersion())) {
+            throw new PreconditionFailedException("Vaccine has been modified since version " + expectedVersion);
+        }
         
         // Check if name is being changed and if it already exists
-        if (!existingVaccine.getName().equals(vaccine.getName()) && 
+        boolean renamed = !existingVaccine.getName().equals(vaccine.getName());
+        if (renamed && 
             vaccineRepository.existsByName(vaccine.getName())) {
             logger.error("Vaccine already exists with name: {}", vaccine.getName());
             throw new IllegalArgumentException("Vaccine with this name already exists");
@@ -100,7 +119,10 @@ public class VaccineService {
         existingVaccine.setAvailableDoses(vaccine.getAvailableDoses());
         existingVaccine.setPrice(vaccine.getPrice());
         
-        Vaccine updatedVaccine = vaccineRepository.save(existingVaccine);
+        Vaccine updatedVaccine = vaccineRepository.saveAndFlush(existingVaccine);
+        if (renamed) {
+            vaccinationReportService.refreshVaccine(id);
+        }
         logger.debug("Updated vaccine: {}", updatedVaccine.getName());
         
         return updatedVaccine;
@@ -0,0 +1,77 @@
+package com.school.vaccineportalbackend.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size Bloom filter over strings. The bit array is sized for the expected
+ * number of keys at a 1% false-positive rate, capped at a byte budget; under the
+ * cap the false-positive rate rises instead of memory, so callers must confirm
+ * hits with an exact check. Not thread-safe.
+ */
+public final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.bits = new long[(int) ((bitCount + 63) / 64)];
+        this.bitCount = bits.length * 64L;
+        this.hashCount = hashCount;
+    }
+
+    public static BloomFilter create(long expectedKeys, long maxBytes) {
+        long keys = Math.max(expectedKeys, 1);
+        long optimalBits = (long) Math.ceil(-keys * Math.log(0.01) / (LN2 * LN2));
+        long bitCount = Math.max(64, Math.min(optimalBits, Math.min(maxBytes, Integer.MAX_VALUE * 8L) * 8));
+        int hashCount = (int) Math.max(1, Math.min(16, Math.round((double) bitCount / keys * LN2)));
+        return new BloomFilter(bitCount, hashCount);
+    }
+
+    public void add(String key) {
+        long h1 = hash(key);
+        long h2 = (h1 >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /** False means the key was never added; true means it probably was. */
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = (h1 >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return bits.length * 8L;
+    }
+
+    // Double hashing: the i-th probe is h1 + i * h2
+    private long index(long combined) {
+        return Math.floorMod(combined, bitCount);
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with a murmur3 mix for better bit spread
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe9d2a3e5L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,63 @@
+package com.school.vaccineportalbackend.util;
+
+import com.school.vaccineportalbackend.exception.RangeNotSatisfiableException;
+
+/**
+ * A single byte range from an HTTP {@code Range} header, with an inclusive end
+ * already clamped to the resource size.
+ */
+public record ByteRange(long start, long end) {
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    /**
+     * Parses {@code bytes=first-last}, {@code bytes=first-} or {@code bytes=-suffix}.
+     * Returns null when the header is absent, malformed, not in bytes or asks for
+     * several ranges; the whole resource is then served, as RFC 7233 allows.
+     *
+     * @throws RangeNotSatisfiableException if the range starts past the end of the resource
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        long first;
+        long last;
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || size == 0) {
+                    throw new RangeNotSatisfiableException("Empty suffix range");
+                }
+                first = Math.max(0, size - suffix);
+                last = size - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash));
+                last = dash == spec.length() - 1 ? size - 1 : Long.parseLong(spec.substring(dash + 1));
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (first >= size) {
+            throw new RangeNotSatisfiableException("Range starts past the end of the file");
+        }
+        if (last < first) {
+            return null;
+        }
+        return new ByteRange(first, Math.min(last, size - 1));
+    }
+}
@@ -0,0 +1,181 @@
+package com.school.vaccineportalbackend.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * RFC 4180 record reader. Quoted fields may contain commas, doubled quotes and line
+ * breaks; records end at CRLF, LF or a lone CR. The unescaped characters of the
+ * current record are kept in one reusable array and fields are exposed as offsets
+ * into it, so nothing is allocated per field unless the caller asks for a String.
+ */
+public final class CsvTokenizer {
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[16 * 1024];
+    private int pos;
+    private int limit;
+
+    private char[] chars = new char[256];
+    private int length;
+    private int[] bounds = new int[32];
+    private int fieldCount;
+
+    private int line = 1;
+    private int recordLine;
+    private String error;
+
+    public CsvTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record, returning {@code false} at end of input. A record that
+     * breaks the quoting rules is still returned with whatever could be read; check
+     * {@link #error()} before using it.
+     */
+    public boolean next() throws IOException {
+        length = 0;
+        fieldCount = 0;
+        error = null;
+        recordLine = line;
+        if (peek() == EOF) {
+            return false;
+        }
+        while (true) {
+            int start = length;
+            int c = read();
+            if (c == '"') {
+                c = readQuoted();
+            } else {
+                while (c != ',' && c != '\r' && c != '\n' && c != EOF) {
+                    append((char) c);
+                    c = read();
+                }
+            }
+            addField(start, length);
+            if (c == ',') {
+                continue;
+            }
+            if (c == '\r' && peek() == '\n') {
+                read();
+            }
+            if (c != EOF) {
+                line++;
+            }
+            return true;
+        }
+    }
+
+    // Consumes a quoted field after its opening quote and returns the character that ended it
+    private int readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                error = "Unterminated quoted field";
+                return EOF;
+            }
+            if (c == '"') {
+                if (peek() == '"') {
+                    read();
+                    append('"');
+                    continue;
+                }
+                c = read();
+                if (c != ',' && c != '\r' && c != '\n' && c != EOF) {
+                    // Text after the closing quote; keep it so the row can still be reported
+                    error = "Unexpected character after closing quote";
+                    while (c != ',' && c != '\r' && c != '\n' && c != EOF) {
+                        append((char) c);
+                        c = read();
+                    }
+                }
+                return c;
+            }
+            if (c == '\n' || (c == '\r' && peek() != '\n')) {
+                line++;
+            }
+            append((char) c);
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /** Physical line on which the current record starts. */
+    public int recordLine() {
+        return recordLine;
+    }
+
+    public String error() {
+        return error;
+    }
+
+    /** Backing array of the current record; valid until the next call to {@link #next()}. */
+    public char[] chars() {
+        return chars;
+    }
+
+    public int start(int field) {
+        return bounds[2 * field];
+    }
+
+    public int end(int field) {
+        return bounds[2 * field + 1];
+    }
+
+    public String field(int field) {
+        return new String(chars, start(field), end(field) - start(field));
+    }
+
+    /** True for an empty line, which tokenizes as a single empty field. */
+    public boolean isBlankLine() {
+        return fieldCount == 1 && length == 0 && error == null;
+    }
+
+    private void addField(int start, int end) {
+        if (2 * fieldCount + 2 > bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        bounds[2 * fieldCount] = start;
+        bounds[2 * fieldCount + 1] = end;
+        fieldCount++;
+    }
+
+    private void append(char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, chars.length * 2);
+        }
+        chars[length++] = c;
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[pos];
+    }
+
+    private boolean fill() throws IOException {
+        int n;
+        do {
+            n = reader.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package com.school.vaccineportalbackend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset positions as opaque, URL-safe cursor strings. A cursor is a list
+ * of key parts; the first part names the ordering it belongs to.
+ */
+public final class CursorCodec {
+    private static final String SEPARATOR = "\u001F";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String... parts) {
+        String joined = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode}, checking that it was issued for
+     * {@code kind} and carries {@code expectedParts} parts including the kind.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or of another kind
+     */
+    public static String[] decode(String cursor, String kind, int expectedParts) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != expectedParts || !parts[0].equals(kind)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+}
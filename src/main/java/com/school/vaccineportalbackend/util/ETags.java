@@ -0,0 +1,39 @@
+package com.school.vaccineportalbackend.util;
+
+import com.school.vaccineportalbackend.exception.PreconditionFailedException;
+
+/**
+ * Entity tags for versioned entities. The tag is the quoted {@code @Version}
+ * value, so it changes exactly when the row does.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Parses an {@code If-Match} header into the version the client expects.
+     * Returns null when the header is absent or {@code *}, meaning any version.
+     *
+     * @throws PreconditionFailedException if the header holds a tag this server
+     *         never issued; weak tags never match under If-Match's strong comparison
+     */
+    public static Long parseIfMatch(String header) {
+        if (header == null || header.isBlank() || header.trim().equals("*")) {
+            return null;
+        }
+        String tag = header.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the precondition failure below
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current version");
+    }
+}
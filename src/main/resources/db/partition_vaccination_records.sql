@@ -0,0 +1,179 @@
+-- Converts an existing, unpartitioned vaccination_records table to the school-year
+-- partitioned layout of schema_fixed.sql, keeping ids, the id sequence and all rows. The
+-- sequence is switched to the increment of 50 the entity's pooled id generator expects.
+-- Needs PostgreSQL 13 or later. Run once, in a maintenance window, with:
+--   psql -d vaccination_portal -v ON_ERROR_STOP=1 -f partition_vaccination_records.sql
+-- Everything runs in one transaction; on any error (e.g. duplicate doses for a student
+-- and drive, which the new dose table rejects) nothing is changed. Running it again on a
+-- partitioned table fails the same way. RecordPartitionMigrationTest runs it against an
+-- embedded PostgreSQL (skipped when the build runs as root, which PostgreSQL refuses).
+
+BEGIN;
+
+-- A second run would move the partitioned table aside and drop its partitions with it
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'vaccination_records'::regclass) THEN
+        RAISE EXCEPTION 'vaccination_records is already partitioned, nothing to migrate';
+    END IF;
+END
+$$;
+
+LOCK TABLE vaccination_records IN ACCESS EXCLUSIVE MODE;
+
+-- Tables created before optimistic locking lack the version column
+ALTER TABLE vaccination_records ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Move the old table aside and free the names the partitioned table reuses
+ALTER TABLE vaccination_records RENAME TO vaccination_records_unpartitioned;
+ALTER SEQUENCE vaccination_records_id_seq OWNED BY NONE;
+ALTER TABLE vaccination_records_unpartitioned DROP CONSTRAINT IF EXISTS vaccination_records_pkey;
+ALTER TABLE vaccination_records_unpartitioned DROP CONSTRAINT IF EXISTS uk_vaccination_records_student_drive_dose;
+DROP INDEX IF EXISTS idx_vaccination_records_student;
+DROP INDEX IF EXISTS idx_vaccination_records_drive;
+DROP INDEX IF EXISTS idx_vaccination_records_status;
+DROP INDEX IF EXISTS idx_vaccination_records_date;
+DROP INDEX IF EXISTS idx_vaccination_records_date_id;
+DROP TRIGGER IF EXISTS update_vaccination_records_updated_at ON vaccination_records_unpartitioned;
+
+-- Nullability and types follow the VaccinationRecord mapping, which is what Hibernate-created tables have
+CREATE TABLE vaccination_records (
+    id BIGINT NOT NULL DEFAULT nextval('vaccination_records_id_seq'),
+    student_id VARCHAR(50) NOT NULL REFERENCES students(student_id),
+    vaccination_drive_id BIGINT NOT NULL REFERENCES vaccination_drives(id),
+    dose_number INTEGER NOT NULL,
+    vaccination_date TIMESTAMP NOT NULL,
+    batch_number VARCHAR(100),
+    administered_by VARCHAR(255),
+    vaccination_site VARCHAR(255),
+    status VARCHAR(20) NOT NULL DEFAULT 'SCHEDULED',
+    side_effects TEXT,
+    next_dose_date TIMESTAMP,
+    notes TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, vaccination_date)
+) PARTITION BY RANGE (vaccination_date);
+ALTER SEQUENCE vaccination_records_id_seq OWNED BY vaccination_records.id;
+
+CREATE TABLE vaccination_records_default PARTITION OF vaccination_records DEFAULT;
+
+CREATE INDEX idx_vaccination_records_student ON vaccination_records(student_id);
+CREATE INDEX idx_vaccination_records_drive ON vaccination_records(vaccination_drive_id);
+CREATE INDEX idx_vaccination_records_status ON vaccination_records(status);
+CREATE INDEX idx_vaccination_records_date ON vaccination_records(vaccination_date);
+CREATE INDEX idx_vaccination_records_date_id ON vaccination_records(vaccination_date, id);
+
+-- Recreated rather than reused so a copy left by an earlier attempt cannot keep stale rows or names
+DROP TABLE IF EXISTS vaccination_record_doses;
+CREATE TABLE vaccination_record_doses (
+    student_id VARCHAR(50) NOT NULL,
+    vaccination_drive_id BIGINT NOT NULL,
+    dose_number INTEGER NOT NULL,
+    CONSTRAINT pk_vaccination_record_doses PRIMARY KEY (student_id, vaccination_drive_id, dose_number)
+);
+
+-- Same definitions as schema_fixed.sql
+CREATE OR REPLACE FUNCTION update_updated_at_column()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at = CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER update_vaccination_records_updated_at
+    BEFORE UPDATE ON vaccination_records
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE OR REPLACE FUNCTION sync_vaccination_record_doses()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        DELETE FROM vaccination_record_doses
+        WHERE student_id = OLD.student_id
+          AND vaccination_drive_id = OLD.vaccination_drive_id
+          AND dose_number = OLD.dose_number;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO vaccination_record_doses (student_id, vaccination_drive_id, dose_number)
+        VALUES (NEW.student_id, NEW.vaccination_drive_id, NEW.dose_number);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER vaccination_records_doses_insert_delete
+    AFTER INSERT OR DELETE ON vaccination_records
+    FOR EACH ROW
+    EXECUTE FUNCTION sync_vaccination_record_doses();
+
+CREATE TRIGGER vaccination_records_doses_update
+    AFTER UPDATE ON vaccination_records
+    FOR EACH ROW
+    WHEN (OLD.student_id IS DISTINCT FROM NEW.student_id
+          OR OLD.vaccination_drive_id IS DISTINCT FROM NEW.vaccination_drive_id
+          OR OLD.dose_number IS DISTINCT FROM NEW.dose_number)
+    EXECUTE FUNCTION sync_vaccination_record_doses();
+
+CREATE OR REPLACE FUNCTION create_vaccination_records_partition(school_year INTEGER)
+RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT := format('vaccination_records_sy%s', school_year);
+    range_start TIMESTAMP := make_timestamp(school_year, 4, 1, 0, 0, 0);
+    range_end TIMESTAMP := make_timestamp(school_year + 1, 4, 1, 0, 0, 0);
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    LOCK TABLE vaccination_records_default IN ACCESS EXCLUSIVE MODE;
+    DROP TABLE IF EXISTS pg_temp.vaccination_records_moving;
+    CREATE TEMP TABLE vaccination_records_moving ON COMMIT DROP AS
+        SELECT * FROM vaccination_records_default WHERE false;
+    WITH moved AS (
+        DELETE FROM vaccination_records_default
+        WHERE vaccination_date >= range_start AND vaccination_date < range_end
+        RETURNING *
+    )
+    INSERT INTO vaccination_records_moving SELECT * FROM moved;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF vaccination_records FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    INSERT INTO vaccination_records SELECT * FROM vaccination_records_moving;
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- One partition per school year from the oldest record through next year, created
+-- while the partitioned table is still empty so nothing has to move
+SELECT create_vaccination_records_partition(school_year)
+FROM generate_series(
+    (SELECT COALESCE(MIN(EXTRACT(YEAR FROM vaccination_date - INTERVAL '3 months')),
+                     EXTRACT(YEAR FROM CURRENT_DATE - INTERVAL '3 months'))
+     FROM vaccination_records_unpartitioned)::INTEGER,
+    (EXTRACT(YEAR FROM CURRENT_DATE - INTERVAL '3 months'))::INTEGER + 1) AS school_year;
+
+-- Column list spelled out: tables created by Hibernate order their columns differently
+INSERT INTO vaccination_records (id, student_id, vaccination_drive_id, dose_number, vaccination_date,
+        batch_number, administered_by, vaccination_site, status, side_effects, next_dose_date, notes,
+        created_at, updated_at, version)
+SELECT id, student_id, vaccination_drive_id, dose_number, vaccination_date,
+       batch_number, administered_by, vaccination_site, status, side_effects, next_dose_date, notes,
+       created_at, updated_at, version
+FROM vaccination_records_unpartitioned;
+
+-- VaccinationRecord draws ids from a pooled sequence (allocationSize 50), as in schema_fixed.sql:
+-- each nextval reserves the 50 ids up to the value it returns, so the next block starts past every id used so far
+ALTER SEQUENCE vaccination_records_id_seq INCREMENT BY 50;
+SELECT setval('vaccination_records_id_seq',
+              GREATEST((SELECT last_value FROM vaccination_records_id_seq),
+                       (SELECT COALESCE(MAX(id), 1) FROM vaccination_records_unpartitioned)));
+
+DROP TABLE vaccination_records_unpartitioned;
+
+COMMIT;
+
+ANALYZE vaccination_records;
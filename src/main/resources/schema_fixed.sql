@@ -1,8 +1,13 @@
 -- Drop existing tables if they exist
+DROP TABLE IF EXISTS record_sync_keys;
+DROP TABLE IF EXISTS record_sync_positions;
+DROP TABLE IF EXISTS vaccination_report_entries;
 DROP TABLE IF EXISTS vaccination_records;
+DROP TABLE IF EXISTS vaccination_record_doses;
 DROP TABLE IF EXISTS vaccination_drives;
 DROP TABLE IF EXISTS vaccines;
 DROP TABLE IF EXISTS students;
+DROP TABLE IF EXISTS roll_number_sequences;
 DROP TABLE IF EXISTS users;
 
 -- Create users table
@@ -26,7 +31,8 @@ CREATE TABLE vaccines (
     available_doses INTEGER NOT NULL,
     price DECIMAL(10, 2) NOT NULL,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 -- Create students table
@@ -45,6 +51,13 @@ CREATE TABLE students (
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Create roll_number_sequences table (next unreserved roll number per year)
+CREATE TABLE roll_number_sequences (
+    sequence_year INTEGER PRIMARY KEY,
+    next_value BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Create vaccination_drives table
 CREATE TABLE vaccination_drives (
     id BIGSERIAL PRIMARY KEY,
@@ -59,12 +72,16 @@ CREATE TABLE vaccination_drives (
     is_active BOOLEAN NOT NULL DEFAULT TRUE,
     notes TEXT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
--- Create vaccination_records table
+-- Create vaccination_records table, range-partitioned by school year (April 1 to March 31)
+-- on vaccination_date so date-bounded queries only scan the years they ask for.
+-- Keys of a partitioned table must contain the partition key, so the primary key is
+-- (id, vaccination_date); ids still come from one sequence and stay unique on their own.
 CREATE TABLE vaccination_records (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGSERIAL,
     student_id VARCHAR(50) NOT NULL REFERENCES students(student_id),
     vaccination_drive_id BIGINT NOT NULL REFERENCES vaccination_drives(id),
     dose_number INTEGER NOT NULL,
@@ -77,9 +94,68 @@ CREATE TABLE vaccination_records (
     next_dose_date DATE,
     notes TEXT,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, vaccination_date)
+) PARTITION BY RANGE (vaccination_date);
+
+-- Catches rows outside every school-year partition
+CREATE TABLE vaccination_records_default PARTITION OF vaccination_records DEFAULT;
+
+-- Record ids come from a pooled sequence (allocationSize 50 in VaccinationRecord)
+ALTER SEQUENCE vaccination_records_id_seq INCREMENT BY 50;
+
+-- One dose per student and drive. A unique constraint on vaccination_records would have to
+-- include vaccination_date, so the rule is enforced here, kept in step by triggers below.
+CREATE TABLE vaccination_record_doses (
+    student_id VARCHAR(50) NOT NULL,
+    vaccination_drive_id BIGINT NOT NULL,
+    dose_number INTEGER NOT NULL,
+    CONSTRAINT pk_vaccination_record_doses PRIMARY KEY (student_id, vaccination_drive_id, dose_number)
+);
+
+-- Idempotency keys of records written by field devices through the sync endpoint
+CREATE TABLE record_sync_keys (
+    id BIGINT PRIMARY KEY,
+    idempotency_key VARCHAR(100) NOT NULL,
+    record_id BIGINT NOT NULL,
+    sync_position BIGINT NOT NULL,
+    synced_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_record_sync_keys_key UNIQUE (idempotency_key),
+    CONSTRAINT uk_record_sync_keys_position UNIQUE (sync_position)
+);
+CREATE SEQUENCE record_sync_keys_id_seq INCREMENT BY 50;
+
+-- Last sync position handed out; locked by each sync until it commits so positions commit in order
+CREATE TABLE record_sync_positions (
+    id INTEGER PRIMARY KEY,
+    last_position BIGINT NOT NULL,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Denormalized copy of vaccination_records for the report and record exports,
+-- maintained by VaccinationReportService and rebuilt at startup when counts differ
+CREATE TABLE vaccination_report_entries (
+    record_id BIGINT PRIMARY KEY,
+    student_id VARCHAR(50) NOT NULL,
+    student_name VARCHAR(255) NOT NULL,
+    grade VARCHAR(50) NOT NULL,
+    drive_id BIGINT NOT NULL,
+    vaccine_id BIGINT NOT NULL,
+    vaccine_name VARCHAR(255) NOT NULL,
+    dose_number INTEGER NOT NULL,
+    vaccination_date TIMESTAMP NOT NULL,
+    batch_number VARCHAR(100),
+    administered_by VARCHAR(255),
+    vaccination_site VARCHAR(255),
+    status VARCHAR(20) NOT NULL,
+    side_effects TEXT,
+    next_dose_date TIMESTAMP,
+    notes TEXT,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
 -- Create indexes
 CREATE INDEX idx_students_grade ON students(grade);
 CREATE INDEX idx_students_name ON students(name);
@@ -93,6 +169,14 @@ CREATE INDEX idx_vaccination_records_student ON vaccination_records(student_id);
 CREATE INDEX idx_vaccination_records_drive ON vaccination_records(vaccination_drive_id);
 CREATE INDEX idx_vaccination_records_status ON vaccination_records(status);
 CREATE INDEX idx_vaccination_records_date ON vaccination_records(vaccination_date);
+CREATE INDEX idx_vaccination_records_date_id ON vaccination_records(vaccination_date, id);
+CREATE INDEX idx_report_entries_date ON vaccination_report_entries(vaccination_date, record_id);
+CREATE INDEX idx_report_entries_vaccine_date ON vaccination_report_entries(vaccine_name, vaccination_date);
+CREATE INDEX idx_report_entries_grade_date ON vaccination_report_entries(grade, vaccination_date);
+CREATE INDEX idx_report_entries_status_date ON vaccination_report_entries(status, vaccination_date);
+CREATE INDEX idx_report_entries_student ON vaccination_report_entries(student_id);
+CREATE INDEX idx_report_entries_drive ON vaccination_report_entries(drive_id);
+CREATE INDEX idx_report_entries_vaccine ON vaccination_report_entries(vaccine_id);
 
 -- Create triggers for updated_at
 CREATE OR REPLACE FUNCTION update_updated_at_column()
@@ -121,4 +205,74 @@ CREATE TRIGGER update_vaccination_drives_updated_at
 CREATE TRIGGER update_vaccination_records_updated_at
     BEFORE UPDATE ON vaccination_records
     FOR EACH ROW
-    EXECUTE FUNCTION update_updated_at_column(); 
\ No newline at end of file
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Keep vaccination_record_doses in step with vaccination_records. An update that moves a
+-- row to another partition fires the delete and insert triggers instead of the update one.
+CREATE OR REPLACE FUNCTION sync_vaccination_record_doses()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        DELETE FROM vaccination_record_doses
+        WHERE student_id = OLD.student_id
+          AND vaccination_drive_id = OLD.vaccination_drive_id
+          AND dose_number = OLD.dose_number;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO vaccination_record_doses (student_id, vaccination_drive_id, dose_number)
+        VALUES (NEW.student_id, NEW.vaccination_drive_id, NEW.dose_number);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER vaccination_records_doses_insert_delete
+    AFTER INSERT OR DELETE ON vaccination_records
+    FOR EACH ROW
+    EXECUTE FUNCTION sync_vaccination_record_doses();
+
+CREATE TRIGGER vaccination_records_doses_update
+    AFTER UPDATE ON vaccination_records
+    FOR EACH ROW
+    WHEN (OLD.student_id IS DISTINCT FROM NEW.student_id
+          OR OLD.vaccination_drive_id IS DISTINCT FROM NEW.vaccination_drive_id
+          OR OLD.dose_number IS DISTINCT FROM NEW.dose_number)
+    EXECUTE FUNCTION sync_vaccination_record_doses();
+
+-- Creates the partition for the school year starting April 1 of school_year, moving any of
+-- its rows out of the default partition first (the new bound is rejected while they are
+-- there). Returns false when the partition already exists. Called at startup and monthly
+-- by RecordPartitionMaintainer, so the coming year's partition exists before it is needed.
+CREATE OR REPLACE FUNCTION create_vaccination_records_partition(school_year INTEGER)
+RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT := format('vaccination_records_sy%s', school_year);
+    range_start TIMESTAMP := make_timestamp(school_year, 4, 1, 0, 0, 0);
+    range_end TIMESTAMP := make_timestamp(school_year + 1, 4, 1, 0, 0, 0);
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    LOCK TABLE vaccination_records_default IN ACCESS EXCLUSIVE MODE;
+    DROP TABLE IF EXISTS pg_temp.vaccination_records_moving;
+    CREATE TEMP TABLE vaccination_records_moving ON COMMIT DROP AS
+        SELECT * FROM vaccination_records_default WHERE false;
+    WITH moved AS (
+        DELETE FROM vaccination_records_default
+        WHERE vaccination_date >= range_start AND vaccination_date < range_end
+        RETURNING *
+    )
+    INSERT INTO vaccination_records_moving SELECT * FROM moved;
+
+    EXECUTE format('CREATE TABLE %I PARTITION OF vaccination_records FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    INSERT INTO vaccination_records SELECT * FROM vaccination_records_moving;
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Current and next school year; older years are created by the migration that loads them
+SELECT create_vaccination_records_partition(
+    (EXTRACT(YEAR FROM CURRENT_DATE - INTERVAL '3 months'))::INTEGER + offset_years)
+FROM generate_series(0, 1) AS offset_years; 
\ No newline at end of file
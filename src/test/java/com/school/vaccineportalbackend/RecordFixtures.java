@@ -0,0 +1,62 @@
+package com.school.vaccineportalbackend;
+
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.VaccinationRecord;
+import com.school.vaccineportalbackend.model.Vaccine;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Unsaved entities for tests that need a vaccine, a drive, students and their
+ * records. Every required column is filled with a valid value, so a test only
+ * sets what it asserts on and then persists them however it commits.
+ */
+public final class RecordFixtures {
+
+    private RecordFixtures() {
+    }
+
+    public static Vaccine vaccine(String name, int dosesRequired) {
+        Vaccine vaccine = new Vaccine();
+        vaccine.setName(name);
+        vaccine.setManufacturer("Acme");
+        vaccine.setDosesRequired(dosesRequired);
+        vaccine.setDaysBetweenDoses(30);
+        vaccine.setExpiryDate(LocalDate.now().plusYears(1));
+        vaccine.setAvailableDoses(100);
+        vaccine.setPrice(10.0);
+        return vaccine;
+    }
+
+    /** A drive held today for {@code applicableGrades}. */
+    public static VaccinationDrive drive(Vaccine vaccine, String applicableGrades) {
+        VaccinationDrive drive = new VaccinationDrive();
+        drive.setVaccine(vaccine);
+        drive.setDriveDate(LocalDate.now());
+        drive.setAvailableDoses(100);
+        drive.setApplicableGrades(applicableGrades);
+        return drive;
+    }
+
+    public static Student student(String studentId, String name, String grade, LocalDate dateOfBirth) {
+        Student student = new Student();
+        student.setStudentId(studentId);
+        student.setName(name);
+        student.setGrade(grade);
+        student.setDateOfBirth(dateOfBirth);
+        return student;
+    }
+
+    public static VaccinationRecord record(Student student, VaccinationDrive drive, int doseNumber,
+                                           LocalDateTime vaccinationDate, String status) {
+        VaccinationRecord record = new VaccinationRecord();
+        record.setStudent(student);
+        record.setVaccinationDrive(drive);
+        record.setDoseNumber(doseNumber);
+        record.setVaccinationDate(vaccinationDate);
+        record.setStatus(status);
+        return record;
+    }
+}
@@ -0,0 +1,171 @@
+package com.school.vaccineportalbackend.benchmark;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.dto.StudentDTO;
+import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.dto.VaccinationRecordView;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.VaccinationRecord;
+import com.school.vaccineportalbackend.model.Vaccine;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import com.school.vaccineportalbackend.repository.VaccinationDriveRepository;
+import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import com.school.vaccineportalbackend.repository.VaccineRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of students and of vaccination records read from an in-memory H2, as
+ * entities mapped to DTOs (the read path before projections) and as the constructor
+ * projections the list endpoints use now. Each read runs in its own read-only
+ * transaction, like a request. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadProjectionBenchmark {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final int STUDENTS = 2000;
+
+    @Param({"20", "500"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private StudentRepository studentRepository;
+    private VaccinationRecordRepository vaccinationRecordRepository;
+    private TransactionTemplate readOnly;
+    private Pageable page;
+    private Pageable studentPage;
+
+    // Only JPA and the repositories; no services, schedulers or web layer
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan("com.school.vaccineportalbackend.model")
+    @EnableJpaRepositories("com.school.vaccineportalbackend.repository")
+    static class Persistence {
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Persistence.class)
+            .web(WebApplicationType.NONE)
+            // Arguments, so they win over application.properties
+            .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.sql.init.mode=never",
+                "--logging.level.root=WARN");
+        studentRepository = context.getBean(StudentRepository.class);
+        vaccinationRecordRepository = context.getBean(VaccinationRecordRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        page = PageRequest.of(1, pageSize, Sort.by("id"));
+        studentPage = PageRequest.of(1, pageSize, Sort.by("studentId"));
+
+        Vaccine vaccine = context.getBean(VaccineRepository.class).save(RecordFixtures.vaccine("Polio", 3));
+        VaccinationDrive drive = context.getBean(VaccinationDriveRepository.class).save(RecordFixtures.drive(vaccine, "3"));
+        List<Student> students = new ArrayList<>(STUDENTS);
+        List<VaccinationRecord> records = new ArrayList<>(STUDENTS);
+        LocalDateTime start = LocalDateTime.of(2025, 6, 2, 9, 0);
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = RecordFixtures.student(String.format("ROLL-2025-%04d", i), "Student " + i, "3",
+                LocalDate.of(2017, 1, 1).plusDays(i % 365));
+            student.setParentEmail("parent" + i + "@example.com");
+            students.add(student);
+            records.add(RecordFixtures.record(student, drive, 1, start.plusMinutes(7L * i), "COMPLETED"));
+        }
+        studentRepository.saveAll(students);
+        vaccinationRecordRepository.saveAll(records);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<StudentDTO> studentEntities() {
+        return readOnly.execute(status -> studentRepository.findAll(studentPage)
+            .map(StudentDTO::fromEntity).getContent());
+    }
+
+    @Benchmark
+    public List<StudentDTO> studentProjections() {
+        return readOnly.execute(status -> studentRepository.findAllDTOs(studentPage)
+            .getContent());
+    }
+
+    @Benchmark
+    public List<VaccinationRecordDTO> recordEntities() {
+        return readOnly.execute(status -> {
+            Page<VaccinationRecord> records = vaccinationRecordRepository.findAll(page);
+            return records.map(ReadProjectionBenchmark::toDTO).getContent();
+        });
+    }
+
+    @Benchmark
+    public List<VaccinationRecordView> recordProjections() {
+        return readOnly.execute(status -> vaccinationRecordRepository.findAllViews(page).getContent());
+    }
+
+    // The mapping VaccinationRecordService applied to every listed entity
+    private static VaccinationRecordDTO toDTO(VaccinationRecord record) {
+        VaccinationRecordDTO dto = new VaccinationRecordDTO();
+        dto.setId(record.getId());
+        dto.setStudentId(record.getStudent().getStudentId());
+        dto.setStudentName(record.getStudent().getName());
+        dto.setDriveId(record.getVaccinationDrive().getId());
+        dto.setDoseNumber(record.getDoseNumber());
+        dto.setVaccinationDate(record.getVaccinationDate().format(DATE_TIME_FORMATTER));
+        dto.setBatchNumber(record.getBatchNumber());
+        dto.setAdministeredBy(record.getAdministeredBy());
+        dto.setVaccinationSite(record.getVaccinationSite());
+        dto.setStatus(record.getStatus());
+        dto.setSideEffects(record.getSideEffects());
+        if (record.getNextDoseDate() != null) {
+            dto.setNextDoseDate(record.getNextDoseDate().format(DATE_TIME_FORMATTER));
+        }
+        dto.setNotes(record.getNotes());
+        dto.setCreatedAt(record.getCreatedAt().format(DATE_TIME_FORMATTER));
+        dto.setUpdatedAt(record.getUpdatedAt().format(DATE_TIME_FORMATTER));
+        dto.setVersion(record.getVersion());
+        return dto;
+    }
+}
@@ -0,0 +1,112 @@
+package com.school.vaccineportalbackend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.dto.VaccinationRecordView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of vaccination records written as JSON three ways:
+ * <ul>
+ *   <li>{@code dto}: the previous path, dates formatted into VaccinationRecordDTO strings,
+ *       then Jackson's bean serializer</li>
+ *   <li>{@code viewDefaultSerializer}: VaccinationRecordView through Jackson's bean
+ *       serializer and JavaTimeModule, with the same date format</li>
+ *   <li>{@code viewHandWritten}: VaccinationRecordView through its own Serializer</li>
+ * </ul>
+ * All three produce the same bytes. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordSerializationBenchmark {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    private List<VaccinationRecordView> views;
+    private ObjectMapper objectMapper;
+    private ObjectMapper defaultObjectMapper;
+
+    // Switches VaccinationRecordView back to Jackson's bean serializer
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class DefaultSerialization {
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        LocalDateTime start = LocalDateTime.of(2025, 6, 2, 9, 0);
+        views = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            LocalDateTime vaccinated = start.plusMinutes(7L * i);
+            views.add(new VaccinationRecordView((long) i, String.format("ROLL-2025-%04d", i), "Student " + i,
+                3L, 1 + i % 3, vaccinated, "B-" + (i % 20), "Nurse Joy", "Room 4", "COMPLETED", null,
+                i % 3 == 2 ? null : vaccinated.plusDays(30), null, vaccinated, vaccinated.plusSeconds(i)));
+        }
+
+        objectMapper = new ObjectMapper();
+        defaultObjectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule().addSerializer(LocalDateTime.class,
+                new LocalDateTimeSerializer(DATE_TIME_FORMATTER)))
+            .addMixIn(VaccinationRecordView.class, DefaultSerialization.class);
+
+        String expected = objectMapper.writeValueAsString(views);
+        if (!expected.equals(objectMapper.writeValueAsString(dtos()))
+                || !expected.equals(defaultObjectMapper.writeValueAsString(views))) {
+            throw new IllegalStateException("Serializers disagree on the JSON for a page");
+        }
+    }
+
+    @Benchmark
+    public void dto() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), dtos());
+    }
+
+    @Benchmark
+    public void viewDefaultSerializer() throws IOException {
+        defaultObjectMapper.writeValue(OutputStream.nullOutputStream(), views);
+    }
+
+    @Benchmark
+    public void viewHandWritten() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), views);
+    }
+
+    // The conversion the list endpoints did before the view existed
+    private List<VaccinationRecordDTO> dtos() {
+        List<VaccinationRecordDTO> dtos = new ArrayList<>(views.size());
+        for (VaccinationRecordView view : views) {
+            dtos.add(new VaccinationRecordDTO(view.getId(), view.getStudentId(), view.getStudentName(),
+                view.getDriveId(), view.getDoseNumber(), view.getVaccinationDate(), view.getBatchNumber(),
+                view.getAdministeredBy(), view.getVaccinationSite(), view.getStatus(), view.getSideEffects(),
+                view.getNextDoseDate(), view.getNotes(), view.getCreatedAt(), view.getUpdatedAt(), null));
+        }
+        return dtos;
+    }
+}
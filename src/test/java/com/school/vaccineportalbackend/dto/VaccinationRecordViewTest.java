@@ -0,0 +1,24 @@
+package com.school.vaccineportalbackend.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VaccinationRecordViewTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesTheSameJsonAsTheDto() throws Exception {
+        LocalDateTime vaccinated = LocalDateTime.of(2024, 7, 5, 9, 3, 7, 500_000_000);
+        LocalDateTime created = LocalDateTime.of(987, 1, 31, 23, 59, 0);
+        VaccinationRecordView view = new VaccinationRecordView(42L, "STU001", "Jane \"JJ\" Doe", 7L, 2,
+            vaccinated, "B-1", "Nurse", "Room 4", "COMPLETED", null, null, "line\nbreak", created, created);
+        VaccinationRecordDTO dto = new VaccinationRecordDTO(42L, "STU001", "Jane \"JJ\" Doe", 7L, 2,
+            vaccinated, "B-1", "Nurse", "Room 4", "COMPLETED", null, null, "line\nbreak", created, created, null);
+
+        assertEquals(objectMapper.writeValueAsString(dto), objectMapper.writeValueAsString(view));
+    }
+}
@@ -0,0 +1,99 @@
+package com.school.vaccineportalbackend.repository;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.VaccinationRecord;
+import com.school.vaccineportalbackend.model.Vaccine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards against N+1 selects on paged record reads: each page must cost exactly
+ * one select for the rows plus one count, however many rows it maps.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never"
+})
+class VaccinationRecordRepositoryTest {
+    private static final int STUDENTS = 4;
+    private static final int DOSES = 3;
+
+    @Autowired
+    private VaccinationRecordRepository vaccinationRecordRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Vaccine vaccine;
+
+    @BeforeEach
+    void setUp() {
+        vaccine = RecordFixtures.vaccine("Hepatitis B", DOSES);
+        entityManager.persist(vaccine);
+        VaccinationDrive drive = RecordFixtures.drive(vaccine, "9,10");
+        entityManager.persist(drive);
+
+        for (int i = 1; i <= STUDENTS; i++) {
+            Student student = RecordFixtures.student("ROLL-2026-000" + i, "Student " + i, "9", LocalDate.of(2010, 1, i));
+            entityManager.persist(student);
+            for (int dose = 1; dose <= DOSES; dose++) {
+                entityManager.persist(RecordFixtures.record(student, drive, dose, LocalDateTime.now().minusDays(dose), "COMPLETED"));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Touches every association the DTO mappers read
+    private void mapAll(Page<VaccinationRecord> page) {
+        page.forEach(record -> {
+            record.getStudent().getName();
+            record.getVaccinationDrive().getVaccine().getName();
+        });
+    }
+
+    @Test
+    void pagedFindAllUsesOneSelectAndOneCount() {
+        Page<VaccinationRecord> page = vaccinationRecordRepository.findAll(PageRequest.of(0, 5, Sort.by("id")));
+        mapAll(page);
+
+        assertEquals(5, page.getNumberOfElements());
+        assertEquals(STUDENTS * DOSES, page.getTotalElements());
+        assertEquals(2, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void recordsByVaccineUseOneSelectAndOneCount() {
+        Page<VaccinationRecord> page = vaccinationRecordRepository.findByVaccineId(vaccine.getId(), PageRequest.of(0, 5));
+        mapAll(page);
+
+        assertEquals(STUDENTS * DOSES, page.getTotalElements());
+        assertEquals(2, statistics().getPrepareStatementCount());
+    }
+}
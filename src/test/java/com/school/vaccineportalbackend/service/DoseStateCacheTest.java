@@ -0,0 +1,121 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.Vaccine;
+import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never"
+})
+@Import(DoseStateCache.class)
+class DoseStateCacheTest {
+
+    @Autowired
+    private DoseStateCache doseStateCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Student student;
+    private VaccinationDrive drive;
+
+    @BeforeEach
+    void setUp() {
+        Vaccine vaccine = RecordFixtures.vaccine("Tetanus", 3);
+        entityManager.persist(vaccine);
+        drive = RecordFixtures.drive(vaccine, "7");
+        entityManager.persist(drive);
+        student = RecordFixtures.student("ROLL-2026-0001", "Meera Iyer", "7", LocalDate.of(2013, 5, 1));
+        entityManager.persist(student);
+        persistDose(1);
+        entityManager.flush();
+    }
+
+    private void persistDose(int dose) {
+        entityManager.persist(RecordFixtures.record(student, drive, dose, LocalDateTime.now().minusDays(1), "COMPLETED"));
+    }
+
+    @Test
+    void loadsOnMissAndAppliesWritesOnCommit() {
+        assertEquals(1, doseStateCache.get(student.getStudentId(), drive.getId()).lastDose());
+
+        doseStateCache.onRecorded(student.getStudentId(), drive.getId(), 2, "SCHEDULED");
+        assertEquals(1, doseStateCache.get(student.getStudentId(), drive.getId()).lastDose());
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        DoseStateCache.DoseState state = doseStateCache.get(student.getStudentId(), drive.getId());
+        assertEquals(2, state.lastDose());
+        assertEquals("SCHEDULED", state.status());
+
+        // Remove the committed fixture so other tests start from an empty database
+        TestTransaction.start();
+        for (String entity : new String[]{"VaccinationRecord", "Student", "VaccinationDrive", "Vaccine"}) {
+            entityManager.createQuery("DELETE FROM " + entity).executeUpdate();
+        }
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+
+    @Test
+    void rollbackEvictsTheEntry() {
+        doseStateCache.get(student.getStudentId(), drive.getId());
+        doseStateCache.onRecorded(student.getStudentId(), drive.getId(), 2, "SCHEDULED");
+        TestTransaction.end();
+
+        assertEquals(0, doseStateCache.size());
+    }
+
+    @Test
+    void duplicateDosesAreRejectedByTheDatabase() {
+        persistDose(1);
+        assertThrows(PersistenceException.class, () -> entityManager.flush());
+    }
+
+    // The second dose commits after the load read the first, so the load must not be cached
+    @Test
+    void loadOverlappingACommitIsNotCached() {
+        // Outside a transaction onRecorded applies at once, as if its commit landed mid-load
+        TestTransaction.end();
+        DoseStateCache cache = new DoseStateCache(100);
+        VaccinationRecordRepository repository = mock(VaccinationRecordRepository.class);
+        ReflectionTestUtils.setField(cache, "vaccinationRecordRepository", repository);
+        when(repository.findDoseStates(any(), any(), any()))
+            .thenAnswer(invocation -> {
+                cache.onRecorded("ROLL-2026-0001", 1L, 2, "COMPLETED");
+                return List.<Object[]>of(new Object[]{1, "COMPLETED"});
+            })
+            .thenReturn(List.<Object[]>of(new Object[]{2, "COMPLETED"}));
+
+        assertEquals(1, cache.get("ROLL-2026-0001", 1L).lastDose());
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.get("ROLL-2026-0001", 1L).lastDose());
+        assertEquals(2, cache.get("ROLL-2026-0001", 1L).lastDose());
+        verify(repository, times(2)).findDoseStates(any(), any(), any());
+    }
+}
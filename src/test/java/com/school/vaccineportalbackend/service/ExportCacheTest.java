@@ -0,0 +1,105 @@
+package com.school.vaccineportalbackend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never",
+    "export.cache.dir=target/test-export-cache",
+    "export.cache.max-bytes=100"
+})
+// Report refreshes must commit to move the data version
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ExportCache.class, VaccinationReportService.class})
+class ExportCacheTest {
+
+    @Autowired
+    private ExportCache exportCache;
+
+    @Autowired
+    private VaccinationReportService vaccinationReportService;
+
+    private final AtomicInteger generated = new AtomicInteger();
+
+    @Test
+    void servesRepeatedExportsFromTheCacheUntilTheDataChanges() throws IOException {
+        Map<String, String> filters = Map.of("vaccineName", "Polio", "grade", "3", "_", "1697500000");
+        ExportCache.Key key = exportCache.key(filters, "csv");
+        assertEquals("first", export(key, "first"));
+        assertFalse(exportCache.isNotModified(key, "\"other\""));
+
+        // Same filters in another order, case and with an unrelated parameter
+        ExportCache.Key again = exportCache.key(Map.of("grade", "3", "vaccineName", "POLIO"), "CSV");
+        assertEquals(key, again);
+        assertTrue(exportCache.isNotModified(again, "W/" + again.etag()));
+        assertEquals("first", export(again, "second"));
+        assertEquals(1, generated.get());
+
+        vaccinationReportService.refreshRecords(List.of());
+
+        ExportCache.Key changed = exportCache.key(filters, "csv");
+        assertNotEquals(key.etag(), changed.etag());
+        assertFalse(exportCache.isNotModified(changed, key.etag()));
+        assertEquals("third", export(changed, "third"));
+        assertEquals(2, generated.get());
+    }
+
+    // "Aa" and "BB" share a String hash code
+    @Test
+    void filtersWithEqualHashCodesGetDifferentEtags() {
+        ExportCache.Key aa = exportCache.key(Map.of("grade", "Aa"), "csv");
+        ExportCache.Key bb = exportCache.key(Map.of("grade", "BB"), "csv");
+
+        assertEquals(aa.filters().hashCode(), bb.filters().hashCode());
+        assertNotEquals(aa.etag(), bb.etag());
+        assertFalse(exportCache.isNotModified(bb, aa.etag()));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedExportOverTheByteBudget() throws IOException {
+        String body = "x".repeat(40);
+        ExportCache.Key grade1 = exportCache.key(Map.of("grade", "1"), "pdf");
+        ExportCache.Key grade2 = exportCache.key(Map.of("grade", "2"), "pdf");
+        ExportCache.Key grade3 = exportCache.key(Map.of("grade", "3"), "pdf");
+        export(grade1, body);
+        export(grade2, body);
+        // Touch grade 1 so grade 2 is the eldest when grade 3 needs room
+        export(grade1, body);
+        export(grade3, body);
+        assertEquals(3, generated.get());
+
+        export(grade1, body);
+        export(grade3, body);
+        assertEquals(3, generated.get());
+        export(grade2, body);
+        assertEquals(4, generated.get());
+        assertTrue((Long) exportCache.getStats().get("bytes") <= 100);
+    }
+
+    private String export(ExportCache.Key key, String content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportCache.write(key, out, o -> {
+            generated.incrementAndGet();
+            o.write(content.getBytes(StandardCharsets.UTF_8));
+        });
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
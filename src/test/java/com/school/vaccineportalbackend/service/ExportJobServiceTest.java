@@ -0,0 +1,102 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.dto.ExportJobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExportJobServiceTest {
+
+    private static final byte[] CSV = "Student ID,Student Name\nROLL-1,Meera Iyer\nROLL-2,Arjun Rao\n"
+        .getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path spoolDir;
+
+    private ExportJobService exportJobService;
+
+    @AfterEach
+    void tearDown() {
+        exportJobService.shutdown();
+    }
+
+    @Test
+    void spoolsTheExportAndServesAnyByteRange() throws Exception {
+        exportJobService = new ExportJobService(new FixedExport(), spoolDir.toString(), 1, 5, 60, 1024 * 1024);
+
+        ExportJobStatus job = awaitFinished(exportJobService.submit(Map.of("grade", "3"), "csv").getJobId());
+        assertEquals("COMPLETED", job.getState());
+        assertEquals(CSV.length, job.getSize());
+
+        ExportJobService.ExportFile file = exportJobService.getFile(job.getJobId()).orElseThrow();
+        ByteArrayOutputStream resumed = new ByteArrayOutputStream();
+        exportJobService.transfer(file, 0, 10, resumed);
+        exportJobService.transfer(file, 10, file.size() - 10, resumed);
+        assertArrayEquals(CSV, resumed.toByteArray());
+        // Only the finished file is left in the spool
+        try (var files = Files.list(spoolDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void expiresTheOldestFilesOverTheQuota() throws Exception {
+        // Room for one export at a time
+        exportJobService = new ExportJobService(new FixedExport(), spoolDir.toString(), 1, 5, 60, CSV.length);
+
+        String first = awaitFinished(exportJobService.submit(Map.of(), "csv").getJobId()).getJobId();
+        String second = awaitFinished(exportJobService.submit(Map.of(), "csv").getJobId()).getJobId();
+
+        assertEquals("EXPIRED", exportJobService.getStatus(first).orElseThrow().getState());
+        assertTrue(exportJobService.getFile(first).isEmpty());
+        assertFalse(Files.exists(spoolDir.resolve(first + ".csv")));
+        assertEquals("COMPLETED", exportJobService.getStatus(second).orElseThrow().getState());
+    }
+
+    @Test
+    void removesFinishedJobsAfterRetention() throws Exception {
+        exportJobService = new ExportJobService(new FixedExport(), spoolDir.toString(), 1, 5, 0, 1024 * 1024);
+        String jobId = awaitFinished(exportJobService.submit(Map.of(), "csv").getJobId()).getJobId();
+        Thread.sleep(5);
+
+        exportJobService.evictExpiredJobs();
+
+        assertTrue(exportJobService.getStatus(jobId).isEmpty());
+        assertFalse(Files.exists(spoolDir.resolve(jobId + ".csv")));
+    }
+
+    private ExportJobStatus awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ExportJobStatus status = exportJobService.getStatus(jobId).orElseThrow();
+            if (!status.getState().equals("QUEUED") && !status.getState().equals("RUNNING")) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Export job " + jobId + " did not finish");
+    }
+
+    private static final class FixedExport extends ExportService {
+        private FixedExport() {
+            super(null, null);
+        }
+
+        @Override
+        public void exportToCsv(Map<String, String> filters, OutputStream out) throws IOException {
+            out.write(CSV);
+        }
+    }
+}
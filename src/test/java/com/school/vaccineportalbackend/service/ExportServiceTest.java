@@ -0,0 +1,275 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.VaccinationReportEntry;
+import com.school.vaccineportalbackend.model.Vaccine;
+import com.school.vaccineportalbackend.repository.VaccinationDriveRepository;
+import jakarta.persistence.EntityManager;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "export.csv.flush-rows=2"
+})
+@Import({ExportService.class, VaccinationReportService.class})
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private VaccinationDriveRepository vaccinationDriveRepository;
+
+    @Autowired
+    private VaccinationReportService vaccinationReportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private VaccinationDrive firstDrive;
+
+    @BeforeEach
+    void setUp() {
+        Vaccine polio = vaccine("Polio");
+        Vaccine measles = vaccine("Measles");
+        firstDrive = drive(polio, LocalDate.of(2026, 5, 4), "1,2,3", "SCHEDULED");
+        drive(polio, LocalDate.of(2026, 5, 10), "3,4", "COMPLETED");
+        drive(measles, LocalDate.of(2026, 5, 11), "5", "SCHEDULED");
+        drive(measles, LocalDate.of(2026, 6, 1), "2,5", "SCHEDULED");
+        drive(polio, LocalDate.of(2025, 12, 20), "1", "CANCELLED");
+        drive(measles, LocalDate.of(2026, 6, 15), "10,11", "SCHEDULED");
+
+        Student student = RecordFixtures.student("ROLL-2026-0001", "Meera Iyer", "3", LocalDate.of(2017, 8, 14));
+        entityManager.persist(student);
+        for (int day = 1; day <= 5; day++) {
+            entityManager.persist(RecordFixtures.record(student, firstDrive, day, LocalDateTime.of(2026, 5, day, 9, 30), "COMPLETED"));
+        }
+        entityManager.flush();
+        vaccinationReportService.rebuild();
+        entityManager.clear();
+    }
+
+    @Test
+    void driveExportMatchesTheInMemoryFilterInOneQuery() throws IOException {
+        List<Map<String, String>> cases = List.of(
+            filters(null, null, null, null),
+            filters("SCHEDULED", null, null, null),
+            filters(null, "3", null, null),
+            filters(null, "1", null, null),
+            filters(null, "1_", null, null),
+            filters(null, "%", null, null),
+            filters(null, null, "2026-05-04", "2026-05-11"),
+            filters("SCHEDULED", "5", "2026-05-01", "2026-05-31"),
+            filters("scheduled", null, null, null));
+        List<VaccinationDrive> all = vaccinationDriveRepository.findAll();
+
+        for (Map<String, String> filters : cases) {
+            entityManager.clear();
+            Statistics statistics = statistics();
+            statistics.clear();
+
+            List<Long> exported = driveIds(exportService.exportDrivesToCsv(filters));
+
+            assertEquals(inMemoryFilter(all, filters), exported, "filters " + filters);
+            assertEquals(1, statistics.getPrepareStatementCount(), "statements for filters " + filters);
+        }
+    }
+
+    @Test
+    void recordCsvIsWrittenInFlushedSlices() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+
+        exportService.exportToCsv(filters(null, null, "2026-05-02", "2026-05-05"), out);
+
+        List<String> lines = new String(out.toByteArray(), StandardCharsets.UTF_8).lines().toList();
+        assertEquals(5, lines.size());
+        assertEquals("ROLL-2026-0001,Meera Iyer,Polio,2026-05-02 09:30:00,3,COMPLETED,2,,", lines.get(1));
+        // Every two rows, then once more for the remainder
+        assertEquals(3, out.flushes);
+    }
+
+    @Test
+    void recordPdfHasEveryFilteredRow() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportToPdf(filters(null, null, "2026-05-02", "2026-05-05"), out);
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+            String text = PdfTextExtractor.getTextFromPage(pdf.getFirstPage());
+            assertEquals(4, text.split("Meera Iyer", -1).length - 1);
+            assertTrue(text.contains("2026-05-02"));
+            assertFalse(text.contains("2026-05-01"));
+        }
+    }
+
+    // Finished pages reach the output while rows are still being read, not all at the end
+    @Test
+    void recordPdfPagesAreWrittenBeforeTheLastRowIsRead() {
+        int rows = 2_000;
+        long[] writtenAt = new long[2];
+        CountingOutputStream out = new CountingOutputStream();
+        Iterator<VaccinationReportEntry> entries = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < rows;
+            }
+
+            @Override
+            public VaccinationReportEntry next() {
+                if (next == rows / 2) {
+                    writtenAt[0] = out.written();
+                } else if (next == rows - 1) {
+                    writtenAt[1] = out.written();
+                }
+                return entry(next++);
+            }
+        };
+
+        assertEquals(rows, exportService.writeRecordsPdf(Map.of(), entries, out));
+
+        assertTrue(writtenAt[0] > 0, "nothing was written before row " + rows / 2);
+        assertTrue(writtenAt[1] > writtenAt[0], "nothing was written between row " + rows / 2 + " and the last row");
+        assertTrue(writtenAt[1] > out.written() / 2, writtenAt[1] / 1024 + " KB of "
+            + out.written() / 1024 + " KB were written before the last row was read");
+    }
+
+    // What getFilteredDrives did before filtering moved into the query
+    private static List<Long> inMemoryFilter(List<VaccinationDrive> drives, Map<String, String> filters) {
+        List<Long> ids = new ArrayList<>();
+        for (VaccinationDrive drive : drives) {
+            boolean matches = true;
+            if (filters.containsKey("startDate")) {
+                matches &= !drive.getDriveDate().isBefore(LocalDate.parse(filters.get("startDate")));
+            }
+            if (filters.containsKey("endDate")) {
+                matches &= !drive.getDriveDate().isAfter(LocalDate.parse(filters.get("endDate")));
+            }
+            if (filters.containsKey("status")) {
+                matches &= drive.getStatus().equals(filters.get("status"));
+            }
+            if (filters.containsKey("grade")) {
+                matches &= List.of(drive.getApplicableGrades().split(",")).contains(filters.get("grade"));
+            }
+            if (matches) {
+                ids.add(drive.getId());
+            }
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    private static List<Long> driveIds(byte[] csv) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        Iterable<CSVRecord> rows = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
+            .parse(new StringReader(new String(csv, StandardCharsets.UTF_8)));
+        for (CSVRecord row : rows) {
+            ids.add(Long.valueOf(row.get("Drive ID")));
+        }
+        return ids;
+    }
+
+    private static Map<String, String> filters(String status, String grade, String startDate, String endDate) {
+        Map<String, String> filters = new HashMap<>();
+        if (status != null) filters.put("status", status);
+        if (grade != null) filters.put("grade", grade);
+        if (startDate != null) filters.put("startDate", startDate);
+        if (endDate != null) filters.put("endDate", endDate);
+        return filters;
+    }
+
+    // Counts flushes; bytes past the first megabyte are counted but not kept
+    private static final class CountingOutputStream extends ByteArrayOutputStream {
+        private static final int KEPT = 1024 * 1024;
+        private int flushes;
+        private long size;
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (count + len <= KEPT) {
+                super.write(b, off, len);
+            }
+            size += len;
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        long written() {
+            return size;
+        }
+    }
+
+    private static VaccinationReportEntry entry(int row) {
+        VaccinationReportEntry entry = new VaccinationReportEntry();
+        entry.setId((long) row);
+        entry.setStudentId(String.format("ROLL-2026-%05d", row));
+        entry.setStudentName("Student " + row);
+        entry.setVaccineName("Polio");
+        entry.setVaccinationDate(LocalDateTime.of(2026, 5, 4, 9, 30).plusMinutes(row));
+        entry.setGrade(String.valueOf(row % 12 + 1));
+        entry.setStatus("COMPLETED");
+        entry.setDoseNumber(1);
+        entry.setBatchNumber("B-" + row % 50);
+        return entry;
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Vaccine vaccine(String name) {
+        Vaccine vaccine = RecordFixtures.vaccine(name, 2);
+        entityManager.persist(vaccine);
+        return vaccine;
+    }
+
+    private VaccinationDrive drive(Vaccine vaccine, LocalDate date, String grades, String status) {
+        VaccinationDrive drive = RecordFixtures.drive(vaccine, grades);
+        drive.setDriveDate(date);
+        drive.setStatus(status);
+        entityManager.persist(drive);
+        return drive;
+    }
+}
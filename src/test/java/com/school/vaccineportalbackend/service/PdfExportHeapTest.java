@@ -0,0 +1,91 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.model.VaccinationReportEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes a {@value #ROWS}-row record PDF in a child JVM whose heap is capped at
+ * {@value #MAX_HEAP}. With the table flushed every 200 rows the export completes;
+ * with flushing disabled the whole table is held until the end and the same run
+ * exhausts the heap, so the cap is tight enough to catch a regression.
+ */
+class PdfExportHeapTest {
+    private static final int ROWS = 25_000;
+    private static final String MAX_HEAP = "48m";
+    private static final int OUT_OF_MEMORY = 3;
+
+    @Test
+    void flushedTableFitsInACappedHeap() throws Exception {
+        assertEquals(0, export(200));
+    }
+
+    @Test
+    void unflushedTableExceedsTheSameHeap() throws Exception {
+        assertEquals(OUT_OF_MEMORY, export(Integer.MAX_VALUE));
+    }
+
+    private static int export(int flushRows) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xmx" + MAX_HEAP,
+                "-XX:+ExitOnOutOfMemoryError",
+                "-cp", System.getProperty("java.class.path"),
+                CappedHeapExport.class.getName(),
+                Integer.toString(flushRows))
+            .inheritIO()
+            .start();
+        assertTrue(process.waitFor(3, TimeUnit.MINUTES), "export did not finish");
+        int exit = process.exitValue();
+        // ExitOnOutOfMemoryError exits with 3
+        assertNotEquals(1, exit, "export failed for another reason");
+        return exit;
+    }
+
+    static final class CappedHeapExport {
+        public static void main(String[] args) {
+            ExportService exportService = new ExportService(null, null);
+            ReflectionTestUtils.setField(exportService, "pdfFlushRows", Integer.parseInt(args[0]));
+            int written = exportService.writeRecordsPdf(Map.of(), new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < ROWS;
+                }
+
+                @Override
+                public VaccinationReportEntry next() {
+                    return entry(next++);
+                }
+            }, OutputStream.nullOutputStream());
+            System.exit(written == ROWS ? 0 : 2);
+        }
+
+        private static VaccinationReportEntry entry(int row) {
+            VaccinationReportEntry entry = new VaccinationReportEntry();
+            entry.setId((long) row);
+            entry.setStudentId(String.format("ROLL-2026-%05d", row));
+            entry.setStudentName("Student " + row);
+            entry.setVaccineName("Polio");
+            entry.setVaccinationDate(LocalDateTime.of(2026, 5, 4, 9, 30).plusMinutes(row));
+            entry.setGrade(String.valueOf(row % 12 + 1));
+            entry.setStatus("COMPLETED");
+            entry.setDoseNumber(1);
+            entry.setBatchNumber("B-" + row % 50);
+            return entry;
+        }
+    }
+}
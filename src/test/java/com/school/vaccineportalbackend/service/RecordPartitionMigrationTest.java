@@ -0,0 +1,174 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.Vaccine;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import com.school.vaccineportalbackend.repository.VaccinationDriveRepository;
+import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import com.school.vaccineportalbackend.repository.VaccineRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * Runs db/partition_vaccination_records.sql and {@link RecordPartitionMaintainer}
+ * against a real PostgreSQL, starting from the unpartitioned tables Hibernate
+ * creates. Commits for real: the migration manages its own transaction.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never",
+    "vaccination-record.partition.years-ahead=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RecordPartitionMaintainer.class, RecordPartitionMigrationTest.EmbeddedPostgresConfiguration.class})
+class RecordPartitionMigrationTest {
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfiguration {
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres postgres) {
+            return postgres.getPostgresDatabase();
+        }
+    }
+
+    @Autowired
+    private RecordPartitionMaintainer recordPartitionMaintainer;
+
+    @Autowired
+    private VaccinationRecordRepository vaccinationRecordRepository;
+
+    @Autowired
+    private VaccinationDriveRepository vaccinationDriveRepository;
+
+    @Autowired
+    private VaccineRepository vaccineRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    static void requireNonRootUser() {
+        assumeFalse("root".equals(System.getProperty("user.name")), "PostgreSQL refuses to run as root");
+    }
+
+    @Test
+    void migrationPartitionsExistingRecordsOnce() throws Exception {
+        Vaccine vaccine = vaccineRepository.save(RecordFixtures.vaccine("Polio", 3));
+        VaccinationDrive drive = vaccinationDriveRepository.save(RecordFixtures.drive(vaccine, "3"));
+        Student student = studentRepository.save(
+            RecordFixtures.student("ROLL-2026-0001", "Ravi Kumar", "3", LocalDate.of(2017, 2, 1)));
+        vaccinationRecordRepository.save(RecordFixtures.record(student, drive, 1, LocalDateTime.of(2019, 9, 2, 10, 0), "COMPLETED"));
+        vaccinationRecordRepository.save(RecordFixtures.record(student, drive, 2, LocalDateTime.of(2024, 6, 3, 10, 0), "COMPLETED"));
+        vaccinationRecordRepository.save(RecordFixtures.record(student, drive, 3, LocalDateTime.of(2026, 2, 4, 10, 0), "COMPLETED"));
+        // As left by the serial id column of older schemas
+        jdbcTemplate.execute("ALTER SEQUENCE vaccination_records_id_seq INCREMENT BY 1");
+        jdbcTemplate.queryForObject("SELECT setval('vaccination_records_id_seq', 120)", Long.class);
+
+        runMigration();
+
+        int current = RecordPartitionMaintainer.schoolYearOf(LocalDate.now());
+        assertEquals("p", jdbcTemplate.queryForObject(
+            "SELECT relkind::text FROM pg_class WHERE relname = 'vaccination_records'", String.class));
+        assertEquals(expectedPartitions(2019, current + 1), partitions());
+        assertEquals(Map.of("vaccination_records_sy2019", 1L, "vaccination_records_sy2024", 1L,
+            "vaccination_records_sy2025", 1L), rowsByPartition());
+        assertEquals(3L, jdbcTemplate.queryForObject("SELECT count(*) FROM vaccination_record_doses", Long.class));
+        assertEquals(50L, jdbcTemplate.queryForObject(
+            "SELECT increment_by FROM pg_sequences WHERE sequencename = 'vaccination_records_id_seq'", Long.class));
+        // The pooled block a new nextval reserves starts after the last id handed out one by one
+        assertEquals(121L, jdbcTemplate.queryForObject("SELECT nextval('vaccination_records_id_seq') - 49", Long.class));
+
+        // Creates the second year ahead, then finds nothing left to do
+        recordPartitionMaintainer.ensurePartitions();
+        recordPartitionMaintainer.ensurePartitions();
+        assertEquals(expectedPartitions(2019, current + 2), partitions());
+
+        SQLException rerun = assertThrows(SQLException.class, this::runMigration);
+        assertTrue(rerun.getMessage().contains("already partitioned"), rerun.getMessage());
+        assertEquals(expectedPartitions(2019, current + 2), partitions());
+        assertEquals(3, vaccinationRecordRepository.count());
+
+        // Same dose in another school year: only vaccination_record_doses can catch it
+        assertThrows(DataIntegrityViolationException.class, () -> vaccinationRecordRepository.saveAndFlush(
+            RecordFixtures.record(student, drive, 2, LocalDateTime.of(2026, 5, 5, 10, 0), "COMPLETED")));
+        vaccinationRecordRepository.save(RecordFixtures.record(student, drive, 4, LocalDateTime.of(2026, 5, 5, 10, 0), "SCHEDULED"));
+        assertEquals(1L, rowsByPartition().get("vaccination_records_sy2026"));
+    }
+
+    private void runMigration() throws IOException, SQLException {
+        String script = new ClassPathResource("db/partition_vaccination_records.sql").getContentAsString(StandardCharsets.UTF_8);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(script);
+        }
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'vaccination_records'::regclass ORDER BY c.relname", String.class);
+    }
+
+    private Map<String, Long> rowsByPartition() {
+        Map<String, Long> rows = new HashMap<>();
+        jdbcTemplate.query("SELECT tableoid::regclass::text AS part, count(*) AS n FROM vaccination_records GROUP BY 1",
+            rs -> {
+                rows.put(rs.getString("part"), rs.getLong("n"));
+            });
+        return rows;
+    }
+
+    private static List<String> expectedPartitions(int from, int to) {
+        List<String> names = new ArrayList<>();
+        for (int year = from; year <= to; year++) {
+            names.add("vaccination_records_sy" + year);
+        }
+        names.add("vaccination_records_default");
+        names.sort(null);
+        return names;
+    }
+}
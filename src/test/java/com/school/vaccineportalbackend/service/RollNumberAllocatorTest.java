@@ -0,0 +1,122 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.repository.RollNumberSequenceRepository;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Commits for real: blocks are reserved in their own transactions. Each allocator stands for one instance.
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RollNumberAllocatorTest {
+    private static final int BLOCK_SIZE = 5;
+    private static final int YEAR = Year.now().getValue();
+
+    @Autowired
+    private RollNumberSequenceRepository sequenceRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        sequenceRepository.deleteAll();
+    }
+
+    @Test
+    void instancesTakeWholeBlocksFromTheSharedCounter() {
+        RollNumberAllocator first = allocator();
+        RollNumberAllocator second = allocator();
+
+        assertEquals(List.of(roll(1), roll(2), roll(3)), next(first, 3));
+        assertEquals(2, first.remainingInCurrentBlock());
+        assertEquals(6L, sequenceRepository.findById(YEAR).orElseThrow().getNextValue());
+
+        assertEquals(roll(6), second.next());
+        assertEquals(List.of(roll(4), roll(5), roll(11)), next(first, 3));
+        assertEquals(16L, sequenceRepository.findById(YEAR).orElseThrow().getNextValue());
+    }
+
+    // Lexicographically ROLL-YYYY-9999 sorts after ROLL-YYYY-10000
+    @Test
+    void firstBlockContinuesAfterTheNumericallyHighestRollNumber() {
+        studentRepository.save(RecordFixtures.student(roll(9999), "Ravi Kumar", "3", LocalDate.of(2017, 2, 1)));
+        studentRepository.save(RecordFixtures.student(roll(10000), "Asha Rao", "3", LocalDate.of(2017, 5, 9)));
+        studentRepository.save(RecordFixtures.student("ROLL-" + (YEAR - 1) + "-20000", "Meera Iyer", "4",
+            LocalDate.of(2016, 3, 7)));
+
+        assertEquals(roll(10001), allocator().next());
+    }
+
+    // Both instances race to create the year's counter row, then keep refilling from it
+    @Test
+    void concurrentAllocationNeverRepeatsARollNumber() throws Exception {
+        List<RollNumberAllocator> allocators = List.of(allocator(), allocator());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> batches = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                RollNumberAllocator allocator = allocators.get(thread % 2);
+                batches.add(executor.submit((Callable<List<String>>) () -> next(allocator, 50)));
+            }
+            Set<String> issued = new HashSet<>();
+            for (Future<List<String>> batch : batches) {
+                issued.addAll(batch.get(30, TimeUnit.SECONDS));
+            }
+
+            assertEquals(200, issued.size());
+            long reserved = sequenceRepository.findById(YEAR).orElseThrow().getNextValue() - 1;
+            long unused = allocators.get(0).remainingInCurrentBlock() + allocators.get(1).remainingInCurrentBlock();
+            assertEquals(200, reserved - unused);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private RollNumberAllocator allocator() {
+        RollNumberAllocator allocator = new RollNumberAllocator(sequenceRepository, studentRepository, transactionManager);
+        ReflectionTestUtils.setField(allocator, "blockSize", BLOCK_SIZE);
+        return allocator;
+    }
+
+    private static List<String> next(RollNumberAllocator allocator, int count) {
+        List<String> rollNumbers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rollNumbers.add(allocator.next());
+        }
+        return rollNumbers;
+    }
+
+    private static String roll(long value) {
+        return String.format("ROLL-%d-%04d", YEAR, value);
+    }
+}
@@ -0,0 +1,102 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.dto.BulkDeactivateRequest;
+import com.school.vaccineportalbackend.dto.BulkOperationResult;
+import com.school.vaccineportalbackend.dto.PromoteGradeRequest;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never"
+})
+@Import(StudentBulkService.class)
+class StudentBulkServiceTest {
+
+    @Autowired
+    private StudentBulkService studentBulkService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private StudentNameIndex studentNameIndex;
+
+    @MockBean
+    private VaccinationReportService vaccinationReportService;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(RecordFixtures.student("ROLL-2026-0001", "Ravi Kumar", "3", LocalDate.of(2017, 2, 1)));
+        entityManager.persist(RecordFixtures.student("ROLL-2026-0002", "Asha Rao", "3", LocalDate.of(2017, 5, 9)));
+        Student inactive = RecordFixtures.student("ROLL-2026-0003", "Vikram Shah", "3", LocalDate.of(2017, 8, 3));
+        inactive.setActive(false);
+        entityManager.persist(inactive);
+        entityManager.persist(RecordFixtures.student("ROLL-2026-0004", "Meera Iyer", "4", LocalDate.of(2016, 3, 7)));
+        entityManager.flush();
+    }
+
+    @Test
+    void promoteMovesActiveStudentsOfTheGradeOnly() {
+        PromoteGradeRequest request = new PromoteGradeRequest();
+        request.setFromGrade("3");
+        request.setToGrade("4");
+
+        BulkOperationResult result = studentBulkService.promoteGrade(request);
+
+        assertEquals(2, result.getMatched());
+        assertEquals(2, result.getAffected());
+        assertEquals("4", studentRepository.findById("ROLL-2026-0002").orElseThrow().getGrade());
+        assertEquals("3", studentRepository.findById("ROLL-2026-0003").orElseThrow().getGrade());
+        Set<String> promoted = Set.of("ROLL-2026-0001", "ROLL-2026-0002");
+        verify(studentNameIndex).onGradeChanged(argThat(ids -> Set.copyOf(ids).equals(promoted)), eq("4"));
+        verify(vaccinationReportService).refreshStudents(argThat(ids -> Set.copyOf(ids).equals(promoted)));
+    }
+
+    @Test
+    void deactivateByGradeReportsTheRowsItChanged() {
+        BulkDeactivateRequest request = new BulkDeactivateRequest();
+        request.setGrade("3");
+
+        BulkOperationResult result = studentBulkService.deactivate(request);
+
+        assertEquals(2, result.getMatched());
+        assertEquals(2, result.getAffected());
+        assertFalse(studentRepository.findById("ROLL-2026-0001").orElseThrow().isActive());
+        verify(studentNameIndex).onRemoved(argThat((Collection<String> ids) -> Set.copyOf(ids).equals(Set.of("ROLL-2026-0001", "ROLL-2026-0002"))));
+    }
+
+    @Test
+    void deactivateByIdsCountsTheIdsGiven() {
+        BulkDeactivateRequest request = new BulkDeactivateRequest();
+        request.setStudentIds(List.of("ROLL-2026-0001", "ROLL-2026-0003", "ROLL-2026-0001"));
+
+        BulkOperationResult result = studentBulkService.deactivate(request);
+
+        assertEquals(2, result.getMatched());
+        assertEquals(1, result.getAffected());
+    }
+}
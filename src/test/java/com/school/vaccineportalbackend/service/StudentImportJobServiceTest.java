@@ -0,0 +1,151 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.dto.ImportDedupeMode;
+import com.school.vaccineportalbackend.dto.ImportJobStatus;
+import com.school.vaccineportalbackend.dto.ImportResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StudentImportJobServiceTest {
+
+    private static final String CSV = "name,grade,dateOfBirth,gender,parentEmail\n"
+        + "Meera Iyer,3,2017-01-05,F,\nArjun Rao,3,2017-02-11,M,\nRavi Kumar,4,2016-07-19,M,\n";
+
+    @TempDir
+    Path spoolDir;
+
+    private final GatedImport gatedImport = new GatedImport();
+    private StudentImportJobService studentImportJobService;
+
+    @AfterEach
+    void tearDown() {
+        gatedImport.release.countDown();
+        studentImportJobService.shutdown();
+    }
+
+    // The worker reads the spooled copy, reports each chunk while running, then removes the copy
+    @Test
+    void spoolsTheUploadAndReportsProgressUntilCompleted() throws Exception {
+        studentImportJobService = new StudentImportJobService(gatedImport, spoolDir.toString(), 1, 5, 60);
+
+        String jobId = studentImportJobService.submit(upload(), ImportDedupeMode.SKIP).getJobId();
+        assertTrue(gatedImport.firstChunk.await(5, TimeUnit.SECONDS));
+
+        ImportJobStatus running = studentImportJobService.getStatus(jobId).orElseThrow();
+        assertEquals("RUNNING", running.getState());
+        assertEquals(2, running.getRowsProcessed());
+        assertEquals(2, running.getImported());
+        assertEquals(List.of(spoolDir.resolve(jobId + ".csv")), spooled());
+
+        gatedImport.release.countDown();
+        ImportJobStatus finished = awaitFinished(jobId);
+        assertEquals("COMPLETED", finished.getState());
+        assertEquals(3, finished.getRowsProcessed());
+        assertEquals(3, finished.getImported());
+        assertEquals(CSV, gatedImport.content);
+        assertEquals(ImportDedupeMode.SKIP, gatedImport.dedupeMode);
+        assertEquals(List.of(), spooled());
+    }
+
+    @Test
+    void fullQueueRejectsTheUploadAndDropsItsSpooledCopy() throws Exception {
+        studentImportJobService = new StudentImportJobService(gatedImport, spoolDir.toString(), 1, 1, 60);
+
+        String running = studentImportJobService.submit(upload(), ImportDedupeMode.NONE).getJobId();
+        assertTrue(gatedImport.firstChunk.await(5, TimeUnit.SECONDS));
+        String queued = studentImportJobService.submit(upload(), ImportDedupeMode.NONE).getJobId();
+
+        assertThrows(RejectedExecutionException.class,
+            () -> studentImportJobService.submit(upload(), ImportDedupeMode.NONE));
+        assertEquals(List.of(spoolDir.resolve(running + ".csv"), spoolDir.resolve(queued + ".csv")).stream().sorted().toList(),
+            spooled());
+        assertEquals("QUEUED", studentImportJobService.getStatus(queued).orElseThrow().getState());
+    }
+
+    @Test
+    void removesFinishedJobsAfterRetention() throws Exception {
+        studentImportJobService = new StudentImportJobService(gatedImport, spoolDir.toString(), 1, 5, 0);
+        gatedImport.release.countDown();
+        String jobId = awaitFinished(studentImportJobService.submit(upload(), ImportDedupeMode.NONE).getJobId()).getJobId();
+        Thread.sleep(5);
+
+        studentImportJobService.evictFinishedJobs();
+
+        assertTrue(studentImportJobService.getStatus(jobId).isEmpty());
+    }
+
+    private List<Path> spooled() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private ImportJobStatus awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ImportJobStatus status = studentImportJobService.getStatus(jobId).orElseThrow();
+            if (!status.getState().equals("QUEUED") && !status.getState().equals("RUNNING")) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Import job " + jobId + " did not finish");
+    }
+
+    private static MockMultipartFile upload() {
+        return new MockMultipartFile("file", "students.csv", "text/csv", CSV.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Reports a two-row chunk, then waits for the test before finishing the third row
+    private static final class GatedImport extends StudentImportService {
+        private final CountDownLatch firstChunk = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile String content;
+        private volatile ImportDedupeMode dedupeMode;
+
+        @Override
+        public ImportResult importStudents(InputStream in, ImportDedupeMode dedupeMode, Consumer<ImportResult> onProgress) {
+            try {
+                content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.dedupeMode = dedupeMode;
+            onProgress.accept(result(2));
+            firstChunk.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result(3);
+        }
+
+        private static ImportResult result(int rows) {
+            ImportResult result = new ImportResult();
+            result.setTotal(rows);
+            result.setImported(rows);
+            result.setErrors(new ArrayList<>());
+            return result;
+        }
+    }
+}
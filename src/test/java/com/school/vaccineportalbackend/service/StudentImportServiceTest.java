@@ -0,0 +1,209 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.dto.ImportDedupeMode;
+import com.school.vaccineportalbackend.dto.ImportResult;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Commits for real so every chunk succeeds or rolls back on its own
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never",
+    "student.import.batch-size=2",
+    "student.import.chunk-size=3",
+    "student.import.parse-parallelism=2",
+    "student.import.parse-block-size=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StudentImportService.class, RollNumberAllocator.class})
+class StudentImportServiceTest {
+    private static final String HEADER = "name,grade,dateOfBirth,gender,parentEmail\n";
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @MockBean
+    private StudentNameIndex studentNameIndex;
+
+    @MockBean
+    private VaccinationReportService vaccinationReportService;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void everyChunkOfALargeFileIsCommitted() {
+        ImportResult result = studentImportService.importStudents(csv(rows(1, 8)));
+
+        assertEquals(List.of(), result.getErrors());
+        assertEquals(8, result.getTotal());
+        assertEquals(8, result.getImported());
+        assertEquals(3, result.getChunks().size());
+        assertEquals(List.of(2, 5, 8), result.getChunks().stream().map(ImportResult.ChunkTiming::getFirstLine).toList());
+        assertEquals(8, studentRepository.count());
+    }
+
+    // Lines 5-7 form the second chunk; the over-long name on line 5 fails it at flush
+    @Test
+    void failingChunkRollsBackOnlyItsOwnRows() {
+        String rows = rows(1, 3) + "S".repeat(300) + ",3,2017-01-05,M,\n" + rows(5, 8);
+
+        ImportResult result = studentImportService.importStudents(csv(rows));
+
+        assertEquals(8, result.getTotal());
+        assertEquals(5, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).startsWith("Lines 5-7: "), result.getErrors().get(0));
+        assertEquals(List.of("Student 1", "Student 2", "Student 3", "Student 7", "Student 8"), names());
+    }
+
+    @Test
+    void progressReachesTheFinalRowCount() {
+        List<Integer> imported = new ArrayList<>();
+
+        ImportResult result = studentImportService.importStudents(csv(rows(1, 7)), progress -> imported.add(progress.getImported()));
+
+        // Two full chunks, then the one-row remainder
+        assertEquals(List.of(3, 6, 7), imported);
+        assertEquals(7, result.getImported());
+    }
+
+    // Blocks of two rows are validated concurrently; errors and roll numbers still follow the file
+    @Test
+    void parallelValidationKeepsFileOrderAndLineNumbers() {
+        String rows = rows(1, 1)
+            + "Student 2,3,2017-02-30,F,\n"
+            + rows(3, 3)
+            + ",3,2017-01-04,F,\n"
+            + rows(5, 5)
+            + "Student 6,3,2017-01-06,X,\n"
+            + "Student 7,3\n"
+            + rows(8, 11);
+
+        ImportResult result = studentImportService.importStudents(csv(rows));
+
+        assertEquals(List.of(
+            "Line 3: Invalid date 'FEBRUARY 30'",
+            "Line 5: Missing name",
+            "Line 7: Invalid gender 'X'",
+            "Line 8: Invalid number of columns"), result.getErrors());
+        assertEquals(11, result.getTotal());
+        assertEquals(7, result.getImported());
+        assertEquals(List.of("Student 1", "Student 3", "Student 5", "Student 8", "Student 9", "Student 10", "Student 11"),
+            studentRepository.findAll().stream()
+                .sorted(Comparator.comparing(Student::getStudentId))
+                .map(Student::getName)
+                .toList());
+    }
+
+    @Test
+    void skipLeavesDuplicatesOutAndExistingStudentsUntouched() {
+        existing("ROLL-2025-0001", "Ravi Kumar");
+
+        ImportResult result = studentImportService.importStudents(csv(duplicates()), ImportDedupeMode.SKIP, progress -> { });
+
+        assertEquals(List.of(), result.getErrors());
+        assertEquals(3, result.getImported());
+        assertEquals(3, result.getMatched());
+        assertEquals(3, result.getSkipped());
+        assertEquals(0, result.getUpdated());
+        assertEquals(List.of("Ravi Kumar", "Student 1", "Student 2", "Student 3"), names());
+        assertEquals("3", studentRepository.findById("ROLL-2025-0001").orElseThrow().getGrade());
+    }
+
+    // The repeat in the second chunk finds the student committed from line 3 and updates it
+    @Test
+    void upsertUpdatesExistingStudentsAndSkipsRepeatsWithinAChunk() {
+        existing("ROLL-2025-0001", "Ravi Kumar");
+
+        ImportResult result = studentImportService.importStudents(csv(duplicates()), ImportDedupeMode.UPSERT, progress -> { });
+
+        assertEquals(List.of(), result.getErrors());
+        assertEquals(3, result.getImported());
+        assertEquals(3, result.getMatched());
+        assertEquals(1, result.getSkipped());
+        assertEquals(2, result.getUpdated());
+        assertEquals(List.of("Ravi Kumar", "Student 1", "Student 2", "Student 3"), names());
+        assertEquals("4", studentRepository.findById("ROLL-2025-0001").orElseThrow().getGrade());
+    }
+
+    // A filter capped far below its key count flags nearly every row; the lookup must still decide
+    @Test
+    void filterCappedBelowTheStudentCountStillFindsOnlyRealDuplicates() {
+        for (int i = 1; i <= 200; i++) {
+            existing(String.format("ROLL-2025-%04d", i), i == 1 ? "Ravi Kumar" : "Existing " + i);
+        }
+        ReflectionTestUtils.setField(studentImportService, "dedupeMaxBytes", 8L);
+        ImportResult result;
+        try {
+            result = studentImportService.importStudents(csv(duplicates()), ImportDedupeMode.SKIP, progress -> { });
+        } finally {
+            ReflectionTestUtils.setField(studentImportService, "dedupeMaxBytes", 16_777_216L);
+        }
+
+        assertEquals(3, result.getImported());
+        assertEquals(3, result.getMatched());
+        assertEquals(3, result.getSkipped());
+        assertEquals(203, studentRepository.count());
+    }
+
+    private List<String> names() {
+        return studentRepository.findAll().stream().map(Student::getName).sorted().toList();
+    }
+
+    // One valid row per student number, numbered from the second line of the file
+    private static String rows(int from, int to) {
+        StringBuilder rows = new StringBuilder();
+        for (int i = from; i <= to; i++) {
+            rows.append("Student ").append(i).append(",3,2017-01-").append(String.format("%02d", i))
+                .append(",F,parent").append(i).append("@example.com\n");
+        }
+        return rows.toString();
+    }
+
+    // Line 2 matches the existing student, line 4 repeats line 3 in its chunk and line 6 in the next chunk
+    private static String duplicates() {
+        return "ravi kumar,4,2017-02-01,M,RAVI.PARENT@example.com\n"
+            + rows(1, 1)
+            + rows(1, 2)
+            + rows(1, 1)
+            + rows(3, 3);
+    }
+
+    private void existing(String studentId, String name) {
+        Student student = RecordFixtures.student(studentId, name, "3", LocalDate.of(2017, 2, 1));
+        student.setParentEmail("ravi.parent@example.com");
+        studentRepository.save(student);
+    }
+
+    private static InputStream csv(String rows) {
+        return new ByteArrayInputStream((HEADER + rows).getBytes(StandardCharsets.UTF_8));
+    }
+}
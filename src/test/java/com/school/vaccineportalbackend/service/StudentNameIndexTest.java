@@ -0,0 +1,114 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StudentNameIndexTest {
+
+    private static Student student(String id, String name, String grade, boolean active) {
+        Student student = new Student();
+        student.setStudentId(id);
+        student.setName(name);
+        student.setGrade(grade);
+        student.setActive(active);
+        return student;
+    }
+
+    @Test
+    void findsSubstringsCaseInsensitivelyInNameOrder() {
+        StudentNameIndex index = new StudentNameIndex();
+        index.onSaved(List.of(
+            student("ROLL-2026-0001", "Mike Johnson", "11", true),
+            student("ROLL-2026-0002", "Anna Johnsen", "9", true),
+            student("ROLL-2026-0003", "Jane Smith", "9", true)));
+
+        assertEquals(List.of("ROLL-2026-0002", "ROLL-2026-0001"), index.search("JOHNS", null));
+        assertEquals(List.of("ROLL-2026-0002"), index.search("johns", "9"));
+        assertEquals(List.of("ROLL-2026-0003"), index.search("sm", null));
+        assertTrue(index.search("johnx", null).isEmpty());
+    }
+
+    // Students saved after a search are merged into the name order the next search uses
+    @Test
+    void shortQueriesKeepNameOrderAsStudentsAreAdded() {
+        StudentNameIndex index = new StudentNameIndex();
+        index.onSaved(List.of(
+            student("ROLL-2026-0001", "Mike Johnson", "11", true),
+            student("ROLL-2026-0002", "Anna Johnsen", "9", true)));
+        assertEquals(List.of("ROLL-2026-0002", "ROLL-2026-0001"), index.search("n", null));
+
+        index.onSaved(List.of(
+            student("ROLL-2026-0003", "Zara Khan", "9", true),
+            student("ROLL-2026-0004", "Ben Okafor", "9", true),
+            student("ROLL-2026-0005", "Anna Johnsen", "10", true)));
+
+        assertEquals(List.of("ROLL-2026-0002", "ROLL-2026-0005", "ROLL-2026-0004", "ROLL-2026-0001", "ROLL-2026-0003"),
+            index.search("N", null));
+        assertEquals(List.of("ROLL-2026-0002", "ROLL-2026-0004", "ROLL-2026-0003"), index.search("n", "9"));
+        assertEquals(List.of("ROLL-2026-0002", "ROLL-2026-0005", "ROLL-2026-0001"), index.search("jo", null));
+        assertEquals(List.of("ROLL-2026-0002", "ROLL-2026-0005", "ROLL-2026-0003"), index.search("an", null));
+        assertTrue(index.search("qz", null).isEmpty());
+    }
+
+    @Test
+    void reflectsRenamesAndDeactivations() {
+        StudentNameIndex index = new StudentNameIndex();
+        index.onSaved(student("ROLL-2026-0001", "Mike Johnson", "11", true));
+        index.onSaved(student("ROLL-2026-0001", "Michael Jones", "12", true));
+        index.onSaved(student("ROLL-2026-0002", "Jane Smith", "9", false));
+
+        assertTrue(index.search("johnson", null).isEmpty());
+        assertEquals(List.of("ROLL-2026-0001"), index.search("jones", "12"));
+        assertTrue(index.search("smith", null).isEmpty());
+
+        index.onRemoved("ROLL-2026-0001");
+        assertTrue(index.search("jones", null).isEmpty());
+        assertEquals(0, index.getStats().get("students"));
+    }
+
+    @Test
+    void appliesBulkGradeChangesAndRemovals() {
+        StudentNameIndex index = new StudentNameIndex();
+        index.onSaved(List.of(
+            student("ROLL-2026-0001", "Mike Johnson", "10", true),
+            student("ROLL-2026-0002", "Anna Johnsen", "10", true)));
+
+        index.onGradeChanged(List.of("ROLL-2026-0001", "ROLL-2026-0002"), "11");
+        assertTrue(index.search("johns", "10").isEmpty());
+        assertEquals(List.of("ROLL-2026-0002", "ROLL-2026-0001"), index.search("johns", "11"));
+
+        index.onRemoved(List.of("ROLL-2026-0002"));
+        assertEquals(List.of("ROLL-2026-0001"), index.search("johns", "11"));
+    }
+
+    // Writes committed after the rebuild's query started are absent from its rows but must survive the swap
+    @Test
+    void rebuildKeepsWritesCommittedWhileItReads() {
+        StudentNameIndex index = new StudentNameIndex();
+        StudentRepository repository = mock(StudentRepository.class);
+        ReflectionTestUtils.setField(index, "studentRepository", repository);
+        Object[] mike = {"ROLL-2026-0001", "Mike Johnson", "11"};
+        Object[] anna = {"ROLL-2026-0002", "Anna Johnsen", "9"};
+        when(repository.streamActiveStudentNames()).thenReturn(Stream.of(mike, anna).peek(row -> {
+            if (row == mike) {
+                index.onSaved(student("ROLL-2026-0003", "Jane Johnston", "9", true));
+                index.onSaved(student("ROLL-2026-0002", "Anna Johnsen", "9", false));
+            }
+        }));
+
+        index.rebuild();
+
+        assertEquals(List.of("ROLL-2026-0003", "ROLL-2026-0001"), index.search("johns", null));
+        assertEquals(2, index.getStats().get("students"));
+    }
+}
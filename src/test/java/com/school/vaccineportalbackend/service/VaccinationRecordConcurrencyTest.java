@@ -0,0 +1,145 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.exception.ConcurrentUpdateException;
+import com.school.vaccineportalbackend.exception.PreconditionFailedException;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.VaccinationRecord;
+import com.school.vaccineportalbackend.model.Vaccine;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import com.school.vaccineportalbackend.repository.VaccinationDriveRepository;
+import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import com.school.vaccineportalbackend.repository.VaccinationReportEntryRepository;
+import com.school.vaccineportalbackend.repository.VaccineRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Commits for real so version checks run against committed rows, as they do between requests
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never",
+    "optimistic-lock.retry.initial-backoff-ms=1"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({VaccinationRecordService.class, VaccinationReportService.class, DoseStateCache.class, OptimisticLockRetry.class})
+class VaccinationRecordConcurrencyTest {
+
+    @Autowired
+    private VaccinationRecordService vaccinationRecordService;
+
+    @Autowired
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Autowired
+    private VaccinationRecordRepository vaccinationRecordRepository;
+
+    @Autowired
+    private VaccinationReportEntryRepository reportEntryRepository;
+
+    @Autowired
+    private VaccinationDriveRepository vaccinationDriveRepository;
+
+    @Autowired
+    private VaccineRepository vaccineRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long recordId;
+
+    @BeforeEach
+    void setUp() {
+        Vaccine vaccine = vaccineRepository.save(RecordFixtures.vaccine("Polio", 2));
+        VaccinationDrive drive = vaccinationDriveRepository.save(RecordFixtures.drive(vaccine, "3"));
+        Student student = studentRepository.save(
+            RecordFixtures.student("ROLL-2026-0001", "Ravi Kumar", "3", LocalDate.of(2017, 2, 1)));
+        recordId = vaccinationRecordRepository.save(
+            RecordFixtures.record(student, drive, 1, LocalDateTime.of(2026, 6, 1, 10, 0), "SCHEDULED")).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportEntryRepository.deleteAll();
+        vaccinationRecordRepository.deleteAll();
+        studentRepository.deleteAll();
+        vaccinationDriveRepository.deleteAll();
+        vaccineRepository.deleteAll();
+    }
+
+    @Test
+    void ifMatchOnlyAppliesToTheVersionItNames() {
+        VaccinationRecordDTO notes = new VaccinationRecordDTO();
+        notes.setNotes("Mild fever");
+
+        VaccinationRecordDTO updated = vaccinationRecordService.updateRecord(recordId, notes, 0L);
+        assertEquals(1L, updated.getVersion());
+
+        assertThrows(PreconditionFailedException.class,
+            () -> vaccinationRecordService.updateRecord(recordId, notes, 0L));
+        assertEquals(1L, vaccinationRecordService.getRecordById(recordId).getVersion());
+    }
+
+    @Test
+    void conflictingCommitIsRetriedAgainstTheNewVersion() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String notes = optimisticLockRetry.execute("Vaccination record", () -> {
+            VaccinationRecord record = vaccinationRecordRepository.findById(recordId).orElseThrow();
+            if (attempts.incrementAndGet() == 1) {
+                updateNotesElsewhere("Written by another nurse");
+            }
+            record.setSideEffects("None");
+            return vaccinationRecordRepository.saveAndFlush(record).getNotes();
+        });
+
+        assertEquals(2, attempts.get());
+        assertEquals("Written by another nurse", notes);
+        VaccinationRecordDTO stored = vaccinationRecordService.getRecordById(recordId);
+        assertEquals("None", stored.getSideEffects());
+        assertEquals(2L, stored.getVersion());
+    }
+
+    @Test
+    void persistentConflictGivesUpAfterTheLastAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ConcurrentUpdateException.class, () -> optimisticLockRetry.execute("Vaccination record", () -> {
+            VaccinationRecord record = vaccinationRecordRepository.findById(recordId).orElseThrow();
+            updateNotesElsewhere("Attempt " + attempts.incrementAndGet());
+            record.setSideEffects("None");
+            return vaccinationRecordRepository.saveAndFlush(record);
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    private void updateNotesElsewhere(String notes) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        requiresNew.executeWithoutResult(status -> {
+            VaccinationRecord record = vaccinationRecordRepository.findById(recordId).orElseThrow();
+            record.setNotes(notes);
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.dto.BulkRecordResult;
+import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.Vaccine;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never",
+    "vaccination-record.bulk.chunk-size=2",
+    "vaccination-record.bulk.max-reported-rejections=3"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({VaccinationRecordBatchService.class, VaccinationReportService.class, DoseStateCache.class})
+class VaccinationRecordIngestTest {
+
+    @Autowired
+    private VaccinationRecordBatchService batchService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long driveId;
+
+    @BeforeEach
+    void setUp() {
+        Vaccine vaccine = RecordFixtures.vaccine("Polio", 3);
+        entityManager.persist(vaccine);
+        VaccinationDrive drive = RecordFixtures.drive(vaccine, "3");
+        entityManager.persist(drive);
+        driveId = drive.getId();
+        entityManager.persist(RecordFixtures.student("ROLL-2026-0001", "Ravi Kumar", "3", LocalDate.of(2017, 2, 1)));
+        entityManager.flush();
+    }
+
+    private String line(String studentId, int dose, String date, String status) {
+        return String.format("{\"studentId\":\"%s\",\"driveId\":%d,\"doseNumber\":%d,\"vaccinationDate\":\"%s\",\"status\":\"%s\"}",
+            studentId, driveId, dose, date, status);
+    }
+
+    private VaccinationRecordDTO record(int dose) {
+        VaccinationRecordDTO record = new VaccinationRecordDTO();
+        record.setStudentId("ROLL-2026-0001");
+        record.setDriveId(driveId);
+        record.setDoseNumber(dose);
+        record.setVaccinationDate("2026-01-05T10:00:00");
+        return record;
+    }
+
+    @Test
+    void bulkRecordsGetTheDoseChecksOfSingleCreates() {
+        BulkRecordResult result = batchService.ingest(List.of(record(2), record(2), record(1)));
+
+        assertEquals(List.of("CREATED", "REJECTED", "REJECTED"),
+            result.getItems().stream().map(BulkRecordResult.Item::getStatus).toList());
+        assertEquals("This dose number already exists for this student and drive", result.getItems().get(1).getError());
+        assertEquals("Invalid dose number sequence", result.getItems().get(2).getError());
+    }
+
+    @Test
+    void streamListsOnlyItsFirstRejections() throws Exception {
+        String future = LocalDate.now().plusDays(3) + "T10:00:00";
+        String stream = String.join("\n",
+            line("ROLL-2026-0001", 1, "2026-01-05T10:00:00", "COMPLETED"),
+            line("ROLL-2026-0001", 1, "2026-01-05T10:00:00", "COMPLETED"),
+            "{not json",
+            line("ROLL-2026-0001", 2, future, "COMPLETED"),
+            line("ROLL-2026-0001", 2, future, "SCHEDULED"),
+            line("ROLL-MISSING", 1, "2026-01-05T10:00:00", "COMPLETED"));
+
+        BulkRecordResult result = batchService.ingest(new ByteArrayInputStream(stream.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(6, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertEquals(4, result.getRejected());
+        assertEquals(List.of(1, 2, 3), result.getItems().stream().map(BulkRecordResult.Item::getIndex).toList());
+        assertEquals("Vaccination date cannot be in the future", result.getItems().get(2).getError());
+        assertTrue(result.isItemsTruncated());
+    }
+
+    @Test
+    void streamWithinTheCapIsNotTruncated() throws Exception {
+        String stream = line("ROLL-2026-0001", 1, "2026-01-05T10:00:00", "COMPLETED");
+
+        BulkRecordResult result = batchService.ingest(new ByteArrayInputStream(stream.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, result.getCreated());
+        assertTrue(result.getItems().isEmpty());
+        assertFalse(result.isItemsTruncated());
+    }
+}
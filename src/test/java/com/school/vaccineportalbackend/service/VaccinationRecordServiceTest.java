@@ -0,0 +1,92 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.Vaccine;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never"
+})
+@Import({VaccinationRecordService.class, VaccinationReportService.class, DoseStateCache.class, OptimisticLockRetry.class})
+class VaccinationRecordServiceTest {
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    @Autowired
+    private VaccinationRecordService vaccinationRecordService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long driveId;
+
+    @BeforeEach
+    void setUp() {
+        Vaccine vaccine = RecordFixtures.vaccine("Polio", 2);
+        entityManager.persist(vaccine);
+        VaccinationDrive drive = RecordFixtures.drive(vaccine, "3");
+        entityManager.persist(drive);
+        driveId = drive.getId();
+        entityManager.persist(RecordFixtures.student("ROLL-2026-0001", "Ravi Kumar", "3", LocalDate.of(2017, 2, 1)));
+        entityManager.flush();
+    }
+
+    private VaccinationRecordDTO record(int dose, LocalDateTime date, String status) {
+        VaccinationRecordDTO record = new VaccinationRecordDTO();
+        record.setStudentId("ROLL-2026-0001");
+        record.setDriveId(driveId);
+        record.setDoseNumber(dose);
+        record.setVaccinationDate(date.format(DATE_TIME_FORMATTER));
+        record.setStatus(status);
+        return record;
+    }
+
+    @Test
+    void scheduledDosesMayBeBookedAhead() {
+        LocalDateTime nextMonth = LocalDateTime.now().plusMonths(1).withNano(0);
+
+        VaccinationRecordDTO created = vaccinationRecordService.createRecord(record(1, nextMonth, null));
+
+        assertEquals("SCHEDULED", created.getStatus());
+        assertEquals(nextMonth.format(DATE_TIME_FORMATTER), created.getVaccinationDate());
+    }
+
+    @Test
+    void completedDosesMustNotBeDatedInTheFuture() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> vaccinationRecordService.createRecord(
+            record(1, LocalDateTime.now().plusDays(1), "COMPLETED")));
+        assertEquals("Vaccination date cannot be in the future", e.getMessage());
+    }
+
+    @Test
+    void scheduledDosesMayBeRescheduledButNotCompletedAhead() {
+        LocalDateTime nextMonth = LocalDateTime.now().plusMonths(1).withNano(0);
+        VaccinationRecordDTO created = vaccinationRecordService.createRecord(record(1, nextMonth, null));
+
+        VaccinationRecordDTO reschedule = new VaccinationRecordDTO();
+        reschedule.setVaccinationDate(nextMonth.plusWeeks(1).format(DATE_TIME_FORMATTER));
+        VaccinationRecordDTO rescheduled = vaccinationRecordService.updateRecord(created.getId(), reschedule, null);
+        assertEquals(nextMonth.plusWeeks(1).format(DATE_TIME_FORMATTER), rescheduled.getVaccinationDate());
+
+        VaccinationRecordDTO complete = new VaccinationRecordDTO();
+        complete.setStatus("COMPLETED");
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> vaccinationRecordService.updateRecord(created.getId(), complete, null));
+        assertEquals("Vaccination date cannot be in the future", e.getMessage());
+    }
+}
@@ -0,0 +1,231 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.dto.SyncRequest;
+import com.school.vaccineportalbackend.dto.SyncResult;
+import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.dto.VaccinationRecordView;
+import com.school.vaccineportalbackend.model.Vaccine;
+import com.school.vaccineportalbackend.repository.RecordSyncKeyRepository;
+import com.school.vaccineportalbackend.repository.RecordSyncPositionRepository;
+import com.school.vaccineportalbackend.repository.StudentRepository;
+import com.school.vaccineportalbackend.repository.VaccinationDriveRepository;
+import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import com.school.vaccineportalbackend.repository.VaccinationReportEntryRepository;
+import com.school.vaccineportalbackend.repository.VaccineRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Commits for real so each sync runs against what the others have and have not committed
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({VaccinationRecordBatchService.class, VaccinationReportService.class, DoseStateCache.class})
+class VaccinationRecordSyncCommitTest {
+
+    @Autowired
+    private VaccinationRecordBatchService batchService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RecordSyncKeyRepository recordSyncKeyRepository;
+
+    @Autowired
+    private RecordSyncPositionRepository recordSyncPositionRepository;
+
+    @Autowired
+    private VaccinationReportEntryRepository reportEntryRepository;
+
+    @Autowired
+    private VaccinationRecordRepository vaccinationRecordRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private VaccinationDriveRepository vaccinationDriveRepository;
+
+    @Autowired
+    private VaccineRepository vaccineRepository;
+
+    private Long driveId;
+
+    @BeforeEach
+    void setUp() {
+        Vaccine vaccine = vaccineRepository.save(RecordFixtures.vaccine("Polio", 2));
+        driveId = vaccinationDriveRepository.save(RecordFixtures.drive(vaccine, "3")).getId();
+        studentRepository.save(RecordFixtures.student("ROLL-2026-0001", "Ravi Kumar", "3", LocalDate.of(2017, 2, 1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        recordSyncKeyRepository.deleteAll();
+        recordSyncPositionRepository.deleteAll();
+        reportEntryRepository.deleteAll();
+        vaccinationRecordRepository.deleteAll();
+        studentRepository.deleteAll();
+        vaccinationDriveRepository.deleteAll();
+        vaccineRepository.deleteAll();
+    }
+
+    // The first sync takes its key id first but commits last; the cursor must still list it first
+    @Test
+    void positionsBecomeVisibleInCommitOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch synced = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<SyncResult> first = executor.submit(() -> transactionTemplate.execute(status -> {
+                SyncResult result = batchService.sync(List.of(item("tablet-1:1", 1)));
+                synced.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return result;
+            }));
+            assertTrue(synced.await(5, TimeUnit.SECONDS));
+
+            Future<SyncResult> second = executor.submit(() -> batchService.sync(List.of(item("tablet-2:1", 2))));
+            assertThrows(TimeoutException.class, () -> second.get(300, TimeUnit.MILLISECONDS),
+                "second sync committed while the first still held its position");
+            assertEquals(0, batchService.getSyncedAfter(null, 10).getSize());
+
+            release.countDown();
+            Long firstRecord = first.get(5, TimeUnit.SECONDS).getItems().get(0).getRecordId();
+            SyncResult secondResult = second.get(5, TimeUnit.SECONDS);
+            Long secondRecord = secondResult.getItems().get(0).getRecordId();
+
+            assertEquals(List.of(firstRecord, secondRecord), batchService.getSyncedAfter(null, 10).getContent().stream()
+                .map(VaccinationRecordView::getId).toList());
+            assertEquals(0, batchService.getSyncedAfter(secondResult.getCursor(), 10).getSize());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void conflictingDoseIsRejectedWithoutFailingTheBatch() {
+        vaccinationRecordRepository.save(RecordFixtures.record(studentRepository.findById("ROLL-2026-0001").orElseThrow(),
+            vaccinationDriveRepository.findById(driveId).orElseThrow(), 1, LocalDateTime.of(2026, 5, 1, 10, 0), "COMPLETED"));
+
+        SyncResult result = batchService.sync(List.of(item("tablet-1:1", 1), item("tablet-1:2", 2), item("tablet-1:2", 2)));
+
+        assertEquals(List.of("REJECTED", "CREATED", "DUPLICATE"),
+            result.getItems().stream().map(SyncResult.Item::getStatus).toList());
+        assertEquals("This dose number already exists for this student and drive", result.getItems().get(0).getError());
+        assertEquals(2, vaccinationRecordRepository.count());
+        assertEquals(List.of(result.getItems().get(1).getRecordId()), batchService.getSyncedAfter(null, 10).getContent()
+            .stream().map(VaccinationRecordView::getId).toList());
+    }
+
+    // The second sync reads the last doses before the first commits, so only the unique index catches its dose 1
+    @Test
+    void doseCommittedConcurrentlyIsRejectedWithoutFailingTheBatch() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch synced = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<SyncResult> first = executor.submit(() -> transactionTemplate.execute(status -> {
+                SyncResult result = batchService.sync(List.of(item("tablet-1:1", 1)));
+                synced.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return result;
+            }));
+            assertTrue(synced.await(5, TimeUnit.SECONDS));
+            Future<SyncResult> second = executor.submit(() -> batchService.sync(
+                List.of(item("tablet-2:1", 1), item("tablet-2:2", 2))));
+            Thread.sleep(200);
+            release.countDown();
+
+            assertEquals("CREATED", first.get(5, TimeUnit.SECONDS).getItems().get(0).getStatus());
+            SyncResult result = second.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("REJECTED", "CREATED"), result.getItems().stream().map(SyncResult.Item::getStatus).toList());
+            assertEquals(2, vaccinationRecordRepository.count());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    // The replay looks its key up before the original commits, so only its retry finds it. Its
+    // payload differs so that the key, not the dose, is what collides.
+    @Test
+    void replayCommittedConcurrentlyResolvesToTheOriginal() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch synced = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<SyncResult> original = executor.submit(() -> transactionTemplate.execute(status -> {
+                SyncResult result = batchService.sync(List.of(item("tablet-1:1", 1)));
+                synced.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return result;
+            }));
+            assertTrue(synced.await(5, TimeUnit.SECONDS));
+            Future<SyncResult> replay = executor.submit(() -> batchService.sync(List.of(item("tablet-1:1", 2))));
+            Thread.sleep(200);
+            release.countDown();
+
+            Long recordId = original.get(5, TimeUnit.SECONDS).getItems().get(0).getRecordId();
+            SyncResult.Item replayed = replay.get(5, TimeUnit.SECONDS).getItems().get(0);
+            assertEquals("DUPLICATE", replayed.getStatus());
+            assertEquals(recordId, replayed.getRecordId());
+            assertEquals(1, vaccinationRecordRepository.count());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private SyncRequest.Item item(String key, int dose) {
+        VaccinationRecordDTO record = new VaccinationRecordDTO();
+        record.setStudentId("ROLL-2026-0001");
+        record.setDriveId(driveId);
+        record.setDoseNumber(dose);
+        record.setVaccinationDate("2026-06-01T10:00:00");
+        SyncRequest.Item item = new SyncRequest.Item();
+        item.setIdempotencyKey(key);
+        item.setRecord(record);
+        return item;
+    }
+}
@@ -0,0 +1,91 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.dto.SyncRequest;
+import com.school.vaccineportalbackend.dto.SyncResult;
+import com.school.vaccineportalbackend.dto.VaccinationRecordDTO;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.Vaccine;
+import com.school.vaccineportalbackend.repository.VaccinationRecordRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({VaccinationRecordBatchService.class, VaccinationReportService.class, DoseStateCache.class})
+class VaccinationRecordSyncTest {
+
+    @Autowired
+    private VaccinationRecordBatchService batchService;
+
+    @Autowired
+    private VaccinationRecordRepository vaccinationRecordRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long driveId;
+
+    @BeforeEach
+    void setUp() {
+        Vaccine vaccine = RecordFixtures.vaccine("Polio", 2);
+        entityManager.persist(vaccine);
+        VaccinationDrive drive = RecordFixtures.drive(vaccine, "3");
+        entityManager.persist(drive);
+        driveId = drive.getId();
+        entityManager.persist(RecordFixtures.student("ROLL-2026-0001", "Ravi Kumar", "3", LocalDate.of(2017, 2, 1)));
+        entityManager.flush();
+    }
+
+    private SyncRequest.Item item(String key, String studentId, int dose) {
+        VaccinationRecordDTO record = new VaccinationRecordDTO();
+        record.setStudentId(studentId);
+        record.setDriveId(driveId);
+        record.setDoseNumber(dose);
+        record.setVaccinationDate("2026-06-01T10:00:00");
+        SyncRequest.Item item = new SyncRequest.Item();
+        item.setIdempotencyKey(key);
+        item.setRecord(record);
+        return item;
+    }
+
+    @Test
+    void replayedKeysResolveToTheOriginalRecords() {
+        List<SyncRequest.Item> batch = List.of(
+            item("tablet-1:1", "ROLL-2026-0001", 1),
+            item("tablet-1:1", "ROLL-2026-0001", 1),
+            item("tablet-1:2", "ROLL-MISSING", 1));
+
+        SyncResult first = batchService.sync(batch);
+        assertEquals(List.of("CREATED", "DUPLICATE", "REJECTED"),
+            first.getItems().stream().map(SyncResult.Item::getStatus).toList());
+        assertNotNull(first.getCursor());
+        Long recordId = first.getItems().get(0).getRecordId();
+        assertEquals(recordId, first.getItems().get(1).getRecordId());
+
+        SyncResult replay = batchService.sync(batch.subList(0, 1));
+        assertEquals("DUPLICATE", replay.getItems().get(0).getStatus());
+        assertEquals(recordId, replay.getItems().get(0).getRecordId());
+        assertEquals(1, vaccinationRecordRepository.count());
+
+        assertEquals(List.of(recordId), batchService.getSyncedAfter(null, 10).getContent().stream()
+            .map(view -> view.getId()).toList());
+        assertEquals(0, batchService.getSyncedAfter(first.getCursor(), 10).getSize());
+    }
+}
@@ -0,0 +1,105 @@
+package com.school.vaccineportalbackend.service;
+
+import com.school.vaccineportalbackend.RecordFixtures;
+import com.school.vaccineportalbackend.dto.VaccinationRecordView;
+import com.school.vaccineportalbackend.model.Student;
+import com.school.vaccineportalbackend.model.VaccinationDrive;
+import com.school.vaccineportalbackend.model.VaccinationRecord;
+import com.school.vaccineportalbackend.model.VaccinationReportEntry;
+import com.school.vaccineportalbackend.model.Vaccine;
+import com.school.vaccineportalbackend.repository.VaccinationReportEntryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "spring.sql.init.mode=never"
+})
+@Import(VaccinationReportService.class)
+class VaccinationReportServiceTest {
+
+    @Autowired
+    private VaccinationReportService vaccinationReportService;
+
+    @Autowired
+    private VaccinationReportEntryRepository reportEntryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Student student;
+    private VaccinationRecord record;
+
+    @BeforeEach
+    void setUp() {
+        Vaccine vaccine = RecordFixtures.vaccine("Measles", 2);
+        entityManager.persist(vaccine);
+        VaccinationDrive drive = RecordFixtures.drive(vaccine, "5");
+        entityManager.persist(drive);
+        student = RecordFixtures.student("ROLL-2026-0001", "Asha Rao", "5", LocalDate.of(2015, 3, 1));
+        entityManager.persist(student);
+        record = RecordFixtures.record(student, drive, 1, LocalDateTime.of(2026, 6, 1, 10, 0), "COMPLETED");
+        entityManager.persist(record);
+        entityManager.flush();
+    }
+
+    @Test
+    void rebuildCopiesRecordsWithInlinedColumns() {
+        vaccinationReportService.rebuildIfStale();
+
+        VaccinationReportEntry entry = reportEntryRepository.findById(record.getId()).orElseThrow();
+        assertEquals("Asha Rao", entry.getStudentName());
+        assertEquals("5", entry.getGrade());
+        assertEquals("Measles", entry.getVaccineName());
+    }
+
+    // Same row count, but a record changed without the report being refreshed
+    @Test
+    void rebuildsWhenARecordChangedOutsideTheApplication() {
+        vaccinationReportService.rebuild();
+        entityManager.createQuery("UPDATE VaccinationRecord vr SET vr.status = 'CANCELLED', vr.updatedAt = :updatedAt")
+            .setParameter("updatedAt", record.getUpdatedAt().plusMinutes(5))
+            .executeUpdate();
+        entityManager.clear();
+
+        vaccinationReportService.rebuildIfStale();
+
+        assertEquals("CANCELLED", reportEntryRepository.findById(record.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void studentRefreshMovesEntriesToTheNewGrade() {
+        vaccinationReportService.rebuild();
+        student.setGrade("6");
+        vaccinationReportService.refreshStudents(List.of(student.getStudentId()));
+
+        Page<VaccinationRecordView> oldGrade = vaccinationReportService.findReport(
+            null, null, "5", null, null, PageRequest.of(0, 10));
+        Page<VaccinationRecordView> newGrade = vaccinationReportService.findReport(
+            "Measles", "COMPLETED", "6", LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 1), PageRequest.of(0, 10));
+
+        assertEquals(0, oldGrade.getTotalElements());
+        assertEquals(List.of(record.getId()), newGrade.map(VaccinationRecordView::getId).getContent());
+    }
+
+    @Test
+    void removedRecordsLeaveTheReport() {
+        vaccinationReportService.rebuild();
+        vaccinationReportService.removeRecord(record.getId());
+
+        assertEquals(0, reportEntryRepository.count());
+    }
+}
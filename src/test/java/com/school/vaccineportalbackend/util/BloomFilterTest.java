@@ -0,0 +1,28 @@
+package com.school.vaccineportalbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void keepsAddedKeysWithinTheBudgetAtALowFalsePositiveRate() {
+        BloomFilter filter = BloomFilter.create(100_000, 1024 * 1024);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("student-" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("student-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 100_000; i < 200_000; i++) {
+            if (filter.mightContain("student-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(filter.sizeInBytes() <= 1024 * 1024);
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,40 @@
+package com.school.vaccineportalbackend.util;
+
+import com.school.vaccineportalbackend.exception.RangeNotSatisfiableException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ByteRangeTest {
+
+    @Test
+    void parsesTheThreeSingleRangeForms() {
+        assertEquals(new ByteRange(0, 499), ByteRange.parse("bytes=0-499", 1000));
+        assertEquals(new ByteRange(600, 999), ByteRange.parse("bytes=600-", 1000));
+        assertEquals(new ByteRange(800, 999), ByteRange.parse("bytes=-200", 1000));
+        assertEquals("bytes 600-999/1000", ByteRange.parse("bytes=600-", 1000).contentRange(1000));
+    }
+
+    @Test
+    void clampsTheEndToTheFile() {
+        assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=900-5000", 1000));
+        assertEquals(new ByteRange(0, 999), ByteRange.parse("bytes=-5000", 1000));
+    }
+
+    @Test
+    void servesTheWholeFileForHeadersItDoesNotHandle() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("items=0-9", 1000));
+        assertNull(ByteRange.parse("bytes=0-9,20-29", 1000));
+        assertNull(ByteRange.parse("bytes=9-0", 1000));
+        assertNull(ByteRange.parse("bytes=abc-", 1000));
+    }
+
+    @Test
+    void rejectsRangesPastTheEnd() {
+        assertThrows(RangeNotSatisfiableException.class, () -> ByteRange.parse("bytes=1000-", 1000));
+        assertThrows(RangeNotSatisfiableException.class, () -> ByteRange.parse("bytes=-0", 1000));
+    }
+}
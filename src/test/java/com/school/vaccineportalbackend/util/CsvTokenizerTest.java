@@ -0,0 +1,57 @@
+package com.school.vaccineportalbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvTokenizerTest {
+
+    private static List<String> fields(CsvTokenizer tokenizer) {
+        List<String> fields = new ArrayList<>();
+        for (int i = 0; i < tokenizer.fieldCount(); i++) {
+            fields.add(tokenizer.field(i));
+        }
+        return fields;
+    }
+
+    @Test
+    void readsQuotedCommasEscapedQuotesAndLineBreaks() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(
+            "name,address\r\n\"Doe, Jane\",\"12 \"\"Oak\"\" St\nFlat 2\"\r\nJohn,\n"));
+
+        assertTrue(tokenizer.next());
+        assertEquals(List.of("name", "address"), fields(tokenizer));
+        assertTrue(tokenizer.next());
+        assertEquals(List.of("Doe, Jane", "12 \"Oak\" St\nFlat 2"), fields(tokenizer));
+        assertEquals(2, tokenizer.recordLine());
+        assertNull(tokenizer.error());
+        assertTrue(tokenizer.next());
+        assertEquals(List.of("John", ""), fields(tokenizer));
+        assertEquals(4, tokenizer.recordLine());
+        assertFalse(tokenizer.next());
+    }
+
+    @Test
+    void reportsBlankLinesAndMalformedQuoting() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("a,b\n\n\"x\"y,z\n\"open"));
+
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.isBlankLine());
+        assertTrue(tokenizer.next());
+        assertNotNull(tokenizer.error());
+        assertEquals(List.of("xy", "z"), fields(tokenizer));
+        assertTrue(tokenizer.next());
+        assertEquals("Unterminated quoted field", tokenizer.error());
+        assertFalse(tokenizer.next());
+    }
+}